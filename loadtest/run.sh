@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Runs search-and-book.js against the app started with platform threads, then with virtual threads,
+# and writes one k6 summary per mode to loadtest/results. Needs k6, a database seeded with the hotel
+# and room below, and a guest access token for the booking share (without one only browsing runs).
+#
+#   HOTEL_ID=1 ROOM_ID=1 CITY=Mumbai ACCESS_TOKEN=... loadtest/run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PORT="${PORT:-8080}"
+RESULTS=loadtest/results
+mkdir -p "$RESULTS"
+
+./mvnw -q -DskipTests package
+JAR=$(ls target/airBnbApp-*.jar | grep -v original | head -n 1)
+
+for virtual in false true; do
+    # Rate limiting is per client IP and every k6 client shares one, so it is off for the run
+    java -jar "$JAR" --server.port="$PORT" \
+        --spring.threads.virtual.enabled="$virtual" \
+        --rate-limit.enabled=false &
+    app=$!
+    trap 'kill $app 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 "$app" 2>/dev/null || { echo "app exited during startup" >&2; exit 1; }
+        sleep 2
+    done
+
+    k6 run -e BASE_URL="http://localhost:$PORT" \
+        -e HOTEL_ID="${HOTEL_ID:-1}" -e ROOM_ID="${ROOM_ID:-1}" -e CITY="${CITY:-Mumbai}" \
+        -e ACCESS_TOKEN="${ACCESS_TOKEN:-}" -e VUS="${VUS:-5000}" -e DURATION="${DURATION:-3m}" \
+        --summary-export "$RESULTS/virtual-threads-$virtual.json" \
+        loadtest/search-and-book.js
+
+    kill "$app"
+    wait "$app" 2>/dev/null || true
+    trap - EXIT
+done
+
+echo "Summaries in $RESULTS: compare http_reqs (throughput) and http_req_duration p(99) per name"
@@ -0,0 +1,78 @@
+// k6 load test for the thread-model comparison: 5,000 concurrent clients browsing and searching,
+// with a share of them placing booking holds. Run through run.sh, which starts the app once with
+// platform threads and once with virtual threads and keeps both summaries.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e HOTEL_ID=1 -e ROOM_ID=1 -e CITY=Mumbai \
+//          -e ACCESS_TOKEN=<guest access token> loadtest/search-and-book.js
+
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const HOTEL_ID = __ENV.HOTEL_ID || '1';
+const ROOM_ID = __ENV.ROOM_ID || '1';
+const CITY = __ENV.CITY || 'Mumbai';
+const ACCESS_TOKEN = __ENV.ACCESS_TOKEN || '';
+const VUS = parseInt(__ENV.VUS || '5000');
+const DURATION = __ENV.DURATION || '3m';
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '1m', target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '30s', target: 0 },
+            ],
+            gracefulRampDown: '30s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    // Always-passing per-endpoint thresholds, so the summary reports each endpoint's latency on its own
+    thresholds: {
+        'http_req_duration{name:search}': ['p(99)>=0'],
+        'http_req_duration{name:info}': ['p(99)>=0'],
+        'http_req_duration{name:book}': ['p(99)>=0'],
+    },
+};
+
+function isoDate(daysFromToday) {
+    const date = new Date();
+    date.setUTCDate(date.getUTCDate() + daysFromToday);
+    return date.toISOString().slice(0, 10);
+}
+
+export default function () {
+    const start = 1 + Math.floor(Math.random() * 60);
+    const json = { 'Content-Type': 'application/json' };
+
+    const search = http.post(`${BASE_URL}/hotels/search`, JSON.stringify({
+        city: CITY,
+        startDate: isoDate(start),
+        endDate: isoDate(start + 2),
+        roomsCount: 1,
+        page: 0,
+        size: 10,
+    }), { headers: json, tags: { name: 'search' } });
+    // 503s from a full bulkhead are expected at this load; they count as answered, not as errors
+    check(search, { 'search answered': (r) => r.status === 200 || r.status === 503 });
+
+    const info = http.get(`${BASE_URL}/hotels/${HOTEL_ID}/info`, { tags: { name: 'info' } });
+    check(info, { 'info answered': (r) => r.status === 200 || r.status === 503 });
+
+    // One client in ten goes on to place a hold; sold-out dates answer with an error and still count
+    if (ACCESS_TOKEN && Math.random() < 0.1) {
+        const book = http.post(`${BASE_URL}/bookings/init`, JSON.stringify({
+            hotelId: Number(HOTEL_ID),
+            roomId: Number(ROOM_ID),
+            checkInDate: isoDate(start),
+            checkOutDate: isoDate(start + 1),
+            roomsCount: 1,
+        }), { headers: { ...json, Authorization: `Bearer ${ACCESS_TOKEN}` }, tags: { name: 'book' } });
+        check(book, { 'book answered': (r) => r.status !== 0 && (r.status < 500 || r.status === 503) });
+    }
+
+    sleep(0.5 + Math.random());
+}
@@ -1,8 +1,19 @@
 package com.projects.airBnbApp.advice;
 
+import com.projects.airBnbApp.exception.InvalidAnalyticsRangeException;
+import com.projects.airBnbApp.exception.InvalidBookingStateException;
+import com.projects.airBnbApp.exception.InvalidPriceSimulationException;
+import com.projects.airBnbApp.exception.InvalidPricingRuleException;
+import com.projects.airBnbApp.exception.InvalidQuoteException;
+import com.projects.airBnbApp.exception.InvalidWaitlistRequestException;
+import com.projects.airBnbApp.exception.InvalidWebhookException;
+import com.projects.airBnbApp.exception.PaymentGatewayException;
+import com.projects.airBnbApp.exception.RateLimitExceededException;
 import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.exception.ServiceBusyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -17,6 +28,106 @@ public class GlobalExceptionHandler {
                 .build();
         return buildErrorResponseEntity(apiError);
     }
+
+    @ExceptionHandler(PaymentGatewayException.class)
+    public ResponseEntity<ApiResponse<?>> handlePaymentGatewayException(PaymentGatewayException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.BAD_GATEWAY)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(InvalidAnalyticsRangeException.class)
+    public ResponseEntity<ApiResponse<?>> handleInvalidAnalyticsRange(InvalidAnalyticsRangeException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(InvalidPriceSimulationException.class)
+    public ResponseEntity<ApiResponse<?>> handleInvalidPriceSimulation(InvalidPriceSimulationException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(InvalidWaitlistRequestException.class)
+    public ResponseEntity<ApiResponse<?>> handleInvalidWaitlistRequest(InvalidWaitlistRequestException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(InvalidPricingRuleException.class)
+    public ResponseEntity<ApiResponse<?>> handleInvalidPricingRule(InvalidPricingRuleException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(InvalidQuoteException.class)
+    public ResponseEntity<ApiResponse<?>> handleInvalidQuote(InvalidQuoteException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.CONFLICT)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(InvalidBookingStateException.class)
+    public ResponseEntity<ApiResponse<?>> handleInvalidBookingState(InvalidBookingStateException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.CONFLICT)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(InvalidWebhookException.class)
+    public ResponseEntity<ApiResponse<?>> handleInvalidWebhook(InvalidWebhookException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ApiResponse<?>> handleAuthenticationException(AuthenticationException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.UNAUTHORIZED)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ApiResponse<?>> handleServiceBusy(ServiceBusyException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiResponse<?>> handleRateLimitExceeded(RateLimitExceededException exception) {
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
     private ResponseEntity<ApiResponse<?>> buildErrorResponseEntity(ApiError apiError) {
         return new ResponseEntity<>(new ApiResponse<>(apiError), apiError.getStatus());
     }
@@ -2,6 +2,7 @@ package com.projects.airBnbApp.advice;
 import org.springframework.core.MethodParameter;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -25,7 +26,16 @@ public class GlobalResponseHandler implements ResponseBodyAdvice<Object> {
                 .stream()
                 .anyMatch(route -> request.getURI().getPath().contains(route));
 
-        if(body instanceof ApiResponse<?> || isAllowed) {
+        // Wrap inside MappingJacksonValue so its serialization filters still apply
+        if (body instanceof MappingJacksonValue mappingJacksonValue && !isAllowed) {
+            if (!(mappingJacksonValue.getValue() instanceof ApiResponse<?>)) {
+                mappingJacksonValue.setValue(new ApiResponse<>(mappingJacksonValue.getValue()));
+            }
+            return mappingJacksonValue;
+        }
+
+        // byte[] bodies are pre-serialised and already wrapped (HotelInfoCache)
+        if(body instanceof ApiResponse<?> || body instanceof byte[] || isAllowed) {
             return body;
         }
 
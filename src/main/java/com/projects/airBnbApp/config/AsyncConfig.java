@@ -0,0 +1,95 @@
+package com.projects.airBnbApp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // With spring.threads.virtual.enabled the I/O-bound pools below run their workers on virtual
+    // threads; pool sizes and queues still bound them. CPU-bound pools keep platform threads.
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Single worker so capacity releases are matched against the waitlist one at a time.
+    // When the queue is full the release is deferred to the waitlist's periodic sweep.
+    @Bean
+    public ThreadPoolTaskExecutor waitlistExecutor(@Value("${waitlist.executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("waitlist-");
+        executor.setVirtualThreads(virtualThreads);
+        return executor;
+    }
+
+    // Bounded pool for blocking payment gateway calls; a full queue fails fast instead of piling up request threads
+    @Bean
+    public ThreadPoolTaskExecutor paymentGatewayExecutor(@Value("${payment.gateway.executor.pool-size:8}") int poolSize,
+                                                         @Value("${payment.gateway.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-gateway-");
+        executor.setVirtualThreads(virtualThreads);
+        return executor;
+    }
+
+    // Reconciliation's ledger lookups, kept off the payment gateway pool so a run cannot starve checkouts.
+    // The ledger submits at most pool-size lookups at a time, so the queue only absorbs stragglers.
+    @Bean
+    public ThreadPoolTaskExecutor reconciliationExecutor(@Value("${payment.reconciliation.ledger-concurrency:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("reconciliation-");
+        executor.setVirtualThreads(virtualThreads);
+        return executor;
+    }
+
+    // Workers for the hourly repricing partitions. A full queue makes the scheduler thread run the
+    // partition itself, which throttles how fast partitions are claimed.
+    @Bean
+    public ThreadPoolTaskExecutor pricingJobExecutor(@Value("${pricing.job.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 2);
+        executor.setThreadNamePrefix("pricing-job-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // Workers for what-if price simulations; the request thread prices chunks itself when all are busy
+    @Bean
+    public ThreadPoolTaskExecutor pricingSimulationExecutor(@Value("${pricing.simulation.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setThreadNamePrefix("pricing-simulation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // BCrypt work for login and signup, kept off the request threads' CPU budget. No CallerRunsPolicy:
+    // when the queue is full the request is rejected with 503 instead of hashing on the request thread.
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${auth.password.threads:2}") int threads,
+                                                          @Value("${auth.password.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+}
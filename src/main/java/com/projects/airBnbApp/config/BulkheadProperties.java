@@ -0,0 +1,78 @@
+package com.projects.airBnbApp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Concurrency limits per workload, e.g.
+ * <pre>
+ * bulkhead.workloads.search.paths=/hotels/**
+ * bulkhead.workloads.search.permits=4
+ * bulkhead.workloads.search.acquire-timeout-ms=500
+ * </pre>
+ * Permits should add up to the JDBC pool size, so one workload cannot take every connection.
+ * Workloads without paths, like {@code jobs}, are entered from code through WorkloadBulkhead; every
+ * scheduled worker (repricing, webhook lanes, refunds, hold expiry, waitlist matching) takes a jobs
+ * permit for its database work.
+ * As with RateLimitProperties, overriding one setting of a built-in workload keeps its other defaults.
+ */
+@ConfigurationProperties(prefix = "bulkhead")
+@Getter
+@Setter
+public class BulkheadProperties implements InitializingBean {
+
+    private static final Map<String, Workload> DEFAULT_WORKLOADS = Map.of(
+            "search", new Workload(List.of("/hotels/**"), 4, 500L),
+            "booking", new Workload(List.of("/bookings/**"), 3, 1000L),
+            "admin", new Workload(List.of("/admin/**"), 1, 2000L),
+            "webhook", new Workload(List.of("/webhook/**"), 1, 1000L),
+            // One permit per pricing.job.threads, so no repricing partition waits on another
+            "jobs", new Workload(List.of(), 4, 600_000L));
+
+    private boolean enabled = false;
+
+    private Map<String, Workload> workloads = new LinkedHashMap<>();
+
+    @Override
+    public void afterPropertiesSet() {
+        DEFAULT_WORKLOADS.forEach((name, defaults) -> {
+            Workload workload = workloads.computeIfAbsent(name, key -> new Workload());
+            if (workload.getPaths() == null) workload.setPaths(defaults.getPaths());
+            if (workload.getPermits() == null) workload.setPermits(defaults.getPermits());
+            if (workload.getAcquireTimeoutMs() == null) workload.setAcquireTimeoutMs(defaults.getAcquireTimeoutMs());
+        });
+
+        workloads.forEach((name, workload) -> {
+            if (workload.getPaths() == null) workload.setPaths(List.of());
+            if (workload.getPermits() == null || workload.getPermits() <= 0
+                    || workload.getAcquireTimeoutMs() == null || workload.getAcquireTimeoutMs() < 0) {
+                throw new IllegalStateException("bulkhead.workloads." + name
+                        + " needs positive permits and a non-negative acquire-timeout-ms");
+            }
+        });
+    }
+
+    @Getter
+    @Setter
+    public static class Workload {
+        private List<String> paths;
+        private Integer permits;
+        // How long a request or job waits for a permit before it is turned away
+        private Long acquireTimeoutMs;
+
+        public Workload() {
+        }
+
+        public Workload(List<String> paths, Integer permits, Long acquireTimeoutMs) {
+            this.paths = paths;
+            this.permits = permits;
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.projects.airBnbApp.config;
 
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
 
 @Configuration
+// Needed by the Razorpay gateway and by the Razorpay ledger used for reconciliation
+@ConditionalOnExpression("'${payment.gateway:razorpay}' == 'razorpay' or '${payment.ledger:razorpay}' == 'razorpay'")
 public class RazorpayConfig {
 
     @Value("${razorpay.key.id}")
@@ -15,8 +18,26 @@ public class RazorpayConfig {
     @Value("${razorpay.key.secret}")
     private String keySecret;
 
+    @Value("${razorpay.base-url:https://api.razorpay.com/v1}")
+    private String baseUrl;
+
+    @Value("${payment.gateway.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${payment.gateway.read-timeout-ms:8000}")
+    private int readTimeoutMs;
+
+    // Razorpay's REST API called directly: the SDK's HTTP client has fixed 60 s timeouts, so a slow
+    // call would keep a gateway executor thread long after PaymentGatewayClient gave up on it
     @Bean
-    public RazorpayClient razorpayClient() throws RazorpayException {
-        return new RazorpayClient(keyId, keySecret);
+    public RestClient razorpayRestClient() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        return RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .defaultHeaders(headers -> headers.setBasicAuth(keyId, keySecret))
+                .build();
     }
 }
@@ -0,0 +1,113 @@
+package com.projects.airBnbApp.config;
+
+import com.projects.airBnbApp.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * One semaphore per workload in front of the JDBC pool. With virtual threads the number of
+ * concurrent requests is no longer capped by Tomcat's pool, so without this a search spike would
+ * queue every thread on the pool and bookings would time out behind it. Each workload waits only
+ * for its own permits and is rejected with 503 when it cannot get one in time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkloadBulkhead {
+
+    public static final String JOBS = "jobs";
+
+    private final BulkheadProperties bulkheadProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Semaphore> semaphores = new HashMap<>();
+
+    @PostConstruct
+    public void createSemaphores() {
+        bulkheadProperties.getWorkloads().forEach((name, workload) -> {
+            Semaphore semaphore = new Semaphore(workload.getPermits(), true);
+            semaphores.put(name, semaphore);
+            Gauge.builder("bulkhead.available", semaphore, Semaphore::availablePermits)
+                    .tag("workload", name)
+                    .register(meterRegistry);
+        });
+        if (bulkheadProperties.isEnabled()) {
+            log.info("Workload bulkheads enabled: {}", bulkheadProperties.getWorkloads().keySet());
+        }
+    }
+
+    // Workload whose paths match, or null when the request is not limited
+    public String workloadFor(String path) {
+        if (!bulkheadProperties.isEnabled()) return null;
+        for (Map.Entry<String, BulkheadProperties.Workload> entry : bulkheadProperties.getWorkloads().entrySet()) {
+            for (String pattern : entry.getValue().getPaths()) {
+                if (pathMatcher.match(pattern, path)) return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Waits up to the workload's timeout for a permit. Returns false when the bulkheads are off or
+     * the workload is unknown; callers then must not call {@link #release}.
+     */
+    public boolean acquire(String workload) {
+        Semaphore semaphore = bulkheadProperties.isEnabled() ? semaphores.get(workload) : null;
+        if (semaphore == null) return false;
+
+        long timeoutMs = bulkheadProperties.getWorkloads().get(workload).getAcquireTimeoutMs();
+        try {
+            if (!semaphore.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                meterRegistry.counter("bulkhead.rejected", "workload", workload).increment();
+                throw new ServiceBusyException("The service is busy, please try again shortly");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the " + workload + " bulkhead", ex);
+        }
+        return true;
+    }
+
+    public void release(String workload) {
+        semaphores.get(workload).release();
+    }
+
+    public <T> T call(String workload, Supplier<T> action) {
+        boolean acquired = acquire(workload);
+        try {
+            return action.get();
+        } finally {
+            if (acquired) release(workload);
+        }
+    }
+
+    // For work that throws checked exceptions; they reach the caller unwrapped
+    public <T> T callChecked(String workload, Callable<T> action) throws Exception {
+        boolean acquired = acquire(workload);
+        try {
+            return action.call();
+        } finally {
+            if (acquired) release(workload);
+        }
+    }
+
+    public void run(String workload, Runnable action) {
+        call(workload, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package com.projects.airBnbApp.config;
+
+import com.projects.airBnbApp.exception.ServiceBusyException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+// Holds a permit of the request's workload for the whole request. Runs after authorization, so
+// unauthorised and rate-limited requests never take a permit.
+@Configuration
+@RequiredArgsConstructor
+public class WorkloadBulkheadFilter extends OncePerRequestFilter {
+
+    private final WorkloadBulkhead workloadBulkhead;
+
+    @Autowired
+    @Qualifier("handlerExceptionResolver")
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String workload = workloadBulkhead.workloadFor(request.getRequestURI().substring(request.getContextPath().length()));
+        boolean acquired;
+        try {
+            acquired = workload != null && workloadBulkhead.acquire(workload);
+        } catch (ServiceBusyException ex) {
+            handlerExceptionResolver.resolveException(request, response, null, ex);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (acquired) workloadBulkhead.release(workload);
+        }
+    }
+}
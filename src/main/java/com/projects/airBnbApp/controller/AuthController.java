@@ -47,15 +47,39 @@ public class AuthController {
 
     @PostMapping("/refresh")
     @Operation(summary = "Refresh the JWT with a refresh token", tags = {"Auth"})
-    public ResponseEntity<LoginResponseDto> refresh(HttpServletRequest request) {
-        String refreshToken = Arrays.stream(request.getCookies()).
+    public ResponseEntity<LoginResponseDto> refresh(HttpServletRequest request, HttpServletResponse httpServletResponse) {
+        String[] tokens = authService.refreshToken(getRefreshToken(request));
+
+        // The presented refresh token is now used; the cookie carries its replacement
+        Cookie cookie = new Cookie("refreshToken", tokens[1]);
+        cookie.setHttpOnly(true);
+
+        httpServletResponse.addCookie(cookie);
+        return ResponseEntity.ok(new LoginResponseDto(tokens[0]));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the refresh token and every token rotated from the same login", tags = {"Auth"})
+    public ResponseEntity<Void> logout(HttpServletRequest request, HttpServletResponse httpServletResponse) {
+        authService.logout(getRefreshToken(request));
+
+        Cookie cookie = new Cookie("refreshToken", null);
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge(0);
+
+        httpServletResponse.addCookie(cookie);
+        return ResponseEntity.noContent().build();
+    }
+
+    private String getRefreshToken(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            throw new AuthenticationServiceException("Refresh token not found inside the Cookies");
+        }
+        return Arrays.stream(request.getCookies()).
                 filter(cookie -> "refreshToken".equals(cookie.getName()))
                 .findFirst()
                 .map(Cookie::getValue)
                 .orElseThrow(() -> new AuthenticationServiceException("Refresh token not found inside the Cookies"));
-
-        String accessToken = authService.refreshToken(refreshToken);
-        return ResponseEntity.ok(new LoginResponseDto(accessToken));
     }
 
 }
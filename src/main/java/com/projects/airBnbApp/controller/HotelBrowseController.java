@@ -1,31 +1,65 @@
 package com.projects.airBnbApp.controller;
 
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.projects.airBnbApp.dto.*;
-import com.projects.airBnbApp.service.HotelService;
+import com.projects.airBnbApp.service.HotelInfoCache;
 import com.projects.airBnbApp.service.InventoryService;
+import com.projects.airBnbApp.service.PriceQuoteService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;   // ✅ Correct import
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/hotels")
 @RequiredArgsConstructor
 public class HotelBrowseController {
 
     private final InventoryService inventoryService;
-    private final HotelService hotelService;
+    private final HotelInfoCache hotelInfoCache;
+    private final PriceQuoteService priceQuoteService;
+
+    @Value("${hotel-info.max-age-seconds:60}")
+    private long hotelInfoMaxAgeSeconds;
 
+    // JSON or CBOR (Accept: application/cbor); fields limits each result to the listed properties
     @PostMapping("/search")
-    public ResponseEntity<Page<HotelPriceResponseDto>> searchHotels(@RequestBody HotelSearchRequest hotelSearchRequest) {
+    public ResponseEntity<MappingJacksonValue> searchHotels(@RequestBody HotelSearchRequest hotelSearchRequest,
+                                                            @RequestParam(required = false) Set<String> fields) {
         Page<HotelPriceResponseDto> page = inventoryService.searchHotels(hotelSearchRequest);
-        return ResponseEntity.ok(page);
+        MappingJacksonValue body = new MappingJacksonValue(page);
+        body.setFilters(new SimpleFilterProvider().addFilter(HotelPriceResponseDto.FIELDS_FILTER,
+                fields == null || fields.isEmpty()
+                        ? SimpleBeanPropertyFilter.serializeAll()
+                        : SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return ResponseEntity.ok(body);
     }
 
 
+    // Served from pre-serialised bytes; a request whose If-None-Match equals the ETag gets 304 without a body
     @GetMapping("/{hotelId}/info")
-    public  ResponseEntity<HotelInfoDto> getHotelInfo(@PathVariable Long hotelId) {
-        return ResponseEntity.ok(hotelService.getHotelInfoById(hotelId));
+    public ResponseEntity<byte[]> getHotelInfo(@PathVariable Long hotelId) {
+        HotelInfoCache.CachedHotelInfo hotelInfo = hotelInfoCache.get(hotelId);
+        return ResponseEntity.ok()
+                .eTag(hotelInfo.etag())
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(hotelInfoMaxAgeSeconds)).cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(hotelInfo.body());
+    }
+
+    // Signed nightly prices for a stay, honoured by POST /bookings/init until they expire
+    @PostMapping("/{hotelId}/quote")
+    public ResponseEntity<PriceQuoteDto> getPriceQuote(@PathVariable Long hotelId,
+                                                       @RequestBody PriceQuoteRequestDto priceQuoteRequestDto) {
+        return ResponseEntity.ok(priceQuoteService.createQuote(hotelId, priceQuoteRequestDto));
     }
 
 
@@ -1,13 +1,18 @@
 package com.projects.airBnbApp.controller;
 
 import com.projects.airBnbApp.dto.HotelDto;
+import com.projects.airBnbApp.dto.HotelOccupancyReportDto;
+import com.projects.airBnbApp.enums.AnalyticsGranularity;
 import com.projects.airBnbApp.service.HotelService;
+import com.projects.airBnbApp.service.InventoryAnalyticsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,6 +21,7 @@ import java.util.List;
 @Slf4j
 public class HotelController {
     private final HotelService hotelService;
+    private final InventoryAnalyticsService inventoryAnalyticsService;
 
     @PostMapping
     public ResponseEntity<HotelDto> createNewHotel(@RequestBody HotelDto hotelDto) {
@@ -56,6 +62,14 @@ public class HotelController {
         return ResponseEntity.ok(hotelService.getAllHotels());
     }
 
+    @GetMapping("/{hotelId}/analytics/occupancy")
+    public ResponseEntity<HotelOccupancyReportDto> getOccupancyReport(@PathVariable Long hotelId,
+                                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                                                                      @RequestParam(defaultValue = "DAY") AnalyticsGranularity granularity) {
+        return ResponseEntity.ok(inventoryAnalyticsService.getOccupancyReport(hotelId, startDate, endDate, granularity));
+    }
+
 
 
 
@@ -1,8 +1,11 @@
 package com.projects.airBnbApp.controller;
 
 import com.projects.airBnbApp.dto.InventoryDto;
+import com.projects.airBnbApp.dto.PriceSimulationRequestDto;
+import com.projects.airBnbApp.dto.PriceSimulationResponseDto;
 import com.projects.airBnbApp.dto.UpdateInventoryRequestDto;
 import com.projects.airBnbApp.service.InventoryService;
+import com.projects.airBnbApp.service.PriceSimulationService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +19,7 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final PriceSimulationService priceSimulationService;
 
     @GetMapping("/rooms/{roomId}")
     @Operation(summary = "Get all inventory of a room", tags = {"Admin Inventory"})
@@ -30,4 +34,11 @@ public class InventoryController {
         inventoryService.updateInventory(roomId, updateInventoryRequestDto);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/rooms/{roomId}/simulate")
+    @Operation(summary = "Simulate nightly prices and revenue of a room under proposed pricing changes, without saving them", tags = {"Admin Inventory"})
+    public ResponseEntity<PriceSimulationResponseDto> simulatePrices(@PathVariable Long roomId,
+                                                                     @RequestBody PriceSimulationRequestDto priceSimulationRequestDto) {
+        return ResponseEntity.ok(priceSimulationService.simulate(roomId, priceSimulationRequestDto));
+    }
 }
@@ -0,0 +1,46 @@
+package com.projects.airBnbApp.controller;
+
+import com.projects.airBnbApp.dto.PricingRuleDto;
+import com.projects.airBnbApp.service.PricingRuleService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/hotels/{hotelId}/pricing-rules")
+@RequiredArgsConstructor
+public class PricingRuleController {
+
+    private final PricingRuleService pricingRuleService;
+
+    @GetMapping
+    @Operation(summary = "Get the pricing rules of a hotel", tags = {"Admin Inventory"})
+    public ResponseEntity<List<PricingRuleDto>> getRules(@PathVariable Long hotelId) {
+        return ResponseEntity.ok(pricingRuleService.getRules(hotelId));
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a pricing rule, e.g. 'when weekend then +15%'", tags = {"Admin Inventory"})
+    public ResponseEntity<PricingRuleDto> createRule(@PathVariable Long hotelId,
+                                                     @RequestBody PricingRuleDto pricingRuleDto) {
+        return new ResponseEntity<>(pricingRuleService.createRule(hotelId, pricingRuleDto), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{ruleId}")
+    @Operation(summary = "Update a pricing rule", tags = {"Admin Inventory"})
+    public ResponseEntity<PricingRuleDto> updateRule(@PathVariable Long hotelId, @PathVariable Long ruleId,
+                                                     @RequestBody PricingRuleDto pricingRuleDto) {
+        return ResponseEntity.ok(pricingRuleService.updateRule(hotelId, ruleId, pricingRuleDto));
+    }
+
+    @DeleteMapping("/{ruleId}")
+    @Operation(summary = "Delete a pricing rule", tags = {"Admin Inventory"})
+    public ResponseEntity<Void> deleteRule(@PathVariable Long hotelId, @PathVariable Long ruleId) {
+        pricingRuleService.deleteRule(hotelId, ruleId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.projects.airBnbApp.controller;
+
+import com.projects.airBnbApp.dto.BookingRequest;
+import com.projects.airBnbApp.dto.WaitlistEntryDto;
+import com.projects.airBnbApp.service.WaitlistService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/bookings/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    @Operation(summary = "Join the waitlist for sold-out room-nights", tags = {"Booking Flow"})
+    public ResponseEntity<WaitlistEntryDto> joinWaitlist(@RequestBody BookingRequest bookingRequest) {
+        return new ResponseEntity<>(waitlistService.joinWaitlist(bookingRequest), HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get my waitlist entries", tags = {"Booking Flow"})
+    public ResponseEntity<List<WaitlistEntryDto>> getMyWaitlist() {
+        return ResponseEntity.ok(waitlistService.getMyWaitlist());
+    }
+
+    @DeleteMapping("/{entryId}")
+    @Operation(summary = "Leave the waitlist", tags = {"Booking Flow"})
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long entryId) {
+        waitlistService.leaveWaitlist(entryId);
+        return ResponseEntity.noContent().build();
+    }
+}
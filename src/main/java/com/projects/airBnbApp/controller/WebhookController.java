@@ -1,52 +1,71 @@
 package com.projects.airBnbApp.controller;
 
-import com.projects.airBnbApp.service.BookingService;
+import com.projects.airBnbApp.exception.InvalidWebhookException;
+import com.projects.airBnbApp.service.WebhookInboxService;
+import com.razorpay.RazorpayException;
 import com.razorpay.Utils;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONException;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
-
 @RestController
 @RequestMapping("/webhook")
 @RequiredArgsConstructor
+@Slf4j
 public class WebhookController {
 
-    private final BookingService bookingService;
+    private final WebhookInboxService webhookInboxService;
 
-    @Value("${razorpay.key.secret}")
-    private String razorpaySecret;
+    @Value("${razorpay.webhook.secret:${razorpay.key.secret}}")
+    private String webhookSecret;
 
     @PostMapping("/payment")
     @Operation(summary = "Capture the payments", tags = {"Webhook"})
-    public ResponseEntity<Void> capturePayments(@RequestBody Map<String, Object> payload,
-                                                @RequestHeader("X-Razorpay-Signature") String razorpaySignature) {
+    public ResponseEntity<Void> capturePayments(@RequestBody String payload,
+                                                @RequestHeader("X-Razorpay-Signature") String razorpaySignature,
+                                                @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        // The signature is an HMAC of the raw body, so it is checked before the body is parsed
+        boolean validSignature;
         try {
-            // Convert payload map directly to JSONObject
-            JSONObject payloadJson = new JSONObject(payload);
-
-            // Verify Razorpay signature
-            Utils.verifyPaymentSignature(payloadJson, razorpaySignature);
-
-            // Extract payment_id and order_id from payload
-            JSONObject paymentEntity = payloadJson
-                    .getJSONObject("payload")
-                    .getJSONObject("payment")
-                    .getJSONObject("entity");
-
-            String paymentId = paymentEntity.getString("id");
-            String orderId = paymentEntity.getString("order_id");
+            validSignature = Utils.verifyWebhookSignature(payload, razorpaySignature, webhookSecret);
+        } catch (RazorpayException e) {
+            validSignature = false;
+        }
+        if (!validSignature) {
+            throw new InvalidWebhookException("Webhook signature verification failed");
+        }
 
-            // Call BookingService to handle captured payment
-            bookingService.capturePayment(paymentId, orderId, razorpaySignature);
+        // Only a bad signature is rejected: Razorpay retries any other failure, and retrying an
+        // authentic event cannot change its payload
+        JSONObject payloadJson;
+        try {
+            payloadJson = new JSONObject(payload);
+        } catch (JSONException e) {
+            log.warn("Acknowledging signed webhook with an unparseable payload, event id: {}", eventId);
+            return ResponseEntity.noContent().build();
+        }
+        String eventType = payloadJson.optString("event", null);
+        JSONObject payloadSection = payloadJson.optJSONObject("payload");
+        JSONObject payment = payloadSection == null ? null : payloadSection.optJSONObject("payment");
+        JSONObject paymentEntity = payment == null ? null : payment.optJSONObject("entity");
+        String paymentId = paymentEntity == null ? null : paymentEntity.optString("id", null);
+        String orderId = paymentEntity == null ? null : paymentEntity.optString("order_id", null);
 
+        if (eventType == null || paymentId == null || orderId == null) {
+            // Not a payment event, so there is no booking to confirm
+            log.info("Acknowledging webhook event: {} of type: {} without a payment", eventId, eventType);
             return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            throw new RuntimeException("Webhook verification failed", e);
         }
+
+        // Append to the inbox and acknowledge; WebhookEventProcessor confirms the booking asynchronously
+        // for captured payments and skips every other payment event type
+        webhookInboxService.enqueue(eventId, eventType, paymentId, orderId, razorpaySignature, payloadJson.toString());
+
+        return ResponseEntity.noContent().build();
     }
 }
@@ -1,9 +1,5 @@
 package com.projects.airBnbApp.dto;
 
-import com.projects.airBnbApp.entity.Guest;
-import com.projects.airBnbApp.entity.Hotel;
-import com.projects.airBnbApp.entity.Room;
-import com.projects.airBnbApp.entity.User;
 import com.projects.airBnbApp.enums.BookingStatus;
 import lombok.Data;
 
@@ -16,9 +12,9 @@ import java.util.Set;
 public class BookingDto {
 
     private Long id;
-    private Hotel hotel;
-    private Room room;
-    private User user;
+    private Long hotelId;
+    private Long roomId;
+    private Long userId;
     private Integer roomsCount;
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
@@ -11,4 +11,6 @@ public class BookingRequest {
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
     private Integer roomsCount;
+    // Optional signed quote from POST /hotels/{hotelId}/quote; the booking is priced from it when present
+    private String quoteToken;
 }
@@ -1,6 +1,5 @@
 package com.projects.airBnbApp.dto;
 
-import com.projects.airBnbApp.entity.User;
 import com.projects.airBnbApp.enums.Gender;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -9,7 +8,7 @@ import lombok.Data;
 public class GuestDto {
 
     private Long id;
-    private User user;
+    private Long userId;
     private String name;
     private Gender gender;
     private Integer age;
@@ -0,0 +1,21 @@
+package com.projects.airBnbApp.dto;
+
+import com.projects.airBnbApp.enums.AnalyticsGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelOccupancyReportDto {
+    private Long hotelId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private AnalyticsGranularity granularity;
+    private List<OccupancyMetricsDto> roomMetrics;
+    private List<OccupancyMetricsDto> hotelMetrics;
+}
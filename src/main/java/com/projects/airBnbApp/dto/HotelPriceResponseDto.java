@@ -1,5 +1,6 @@
 package com.projects.airBnbApp.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.projects.airBnbApp.entity.HotelContactInfo;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,7 +9,12 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(HotelPriceResponseDto.FIELDS_FILTER)
 public class HotelPriceResponseDto {
+
+    // Lets search responses carry only the fields a client asked for (?fields=id,name,price)
+    public static final String FIELDS_FILTER = "hotelPriceFields";
+
     private Long id;
     private String name;
     private String city;
@@ -0,0 +1,21 @@
+package com.projects.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryStatsDto {
+    private Long roomId;
+    private String roomType;
+    private LocalDate date;
+    private Integer bookedCount;
+    private Integer totalCount;
+    private BigDecimal price;
+    private Boolean closed;
+}
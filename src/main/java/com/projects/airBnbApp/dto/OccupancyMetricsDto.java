@@ -0,0 +1,24 @@
+package com.projects.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OccupancyMetricsDto {
+    private Long roomId;
+    private String roomType;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private Long roomNightsAvailable;
+    private Long roomNightsSold;
+    private BigDecimal revenue;
+    private BigDecimal occupancyRate;    // percentage of available room-nights sold
+    private BigDecimal averageDailyRate; // revenue / room-nights sold
+    private BigDecimal revPar;           // revenue / room-nights available
+}
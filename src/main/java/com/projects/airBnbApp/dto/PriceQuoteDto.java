@@ -0,0 +1,22 @@
+package com.projects.airBnbApp.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// quoteToken is passed back in BookingRequest to book at these prices until expiresAt
+@Data
+public class PriceQuoteDto {
+    private Long hotelId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer roomsCount;
+    private List<NightlyPriceDto> nightlyPrices;
+    private BigDecimal totalPrice;
+    private LocalDateTime expiresAt;
+    private String quoteToken;
+}
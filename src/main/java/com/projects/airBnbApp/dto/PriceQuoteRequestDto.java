@@ -0,0 +1,13 @@
+package com.projects.airBnbApp.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class PriceQuoteRequestDto {
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer roomsCount;
+}
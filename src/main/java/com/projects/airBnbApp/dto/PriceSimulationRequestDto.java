@@ -0,0 +1,19 @@
+package com.projects.airBnbApp.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Proposed pricing changes; anything left null keeps the hotel's current setting
+@Data
+public class PriceSimulationRequestDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal surgeFactor;
+    private List<String> chain;
+    private Map<String, Map<String, BigDecimal>> params;
+    private List<String> rules;
+}
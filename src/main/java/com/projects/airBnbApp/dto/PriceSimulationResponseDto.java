@@ -0,0 +1,20 @@
+package com.projects.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Revenues are nightly prices times rooms currently booked, summed over the simulated dates
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceSimulationResponseDto {
+    private Long roomId;
+    private List<SimulatedPriceDto> prices;
+    private BigDecimal currentRevenue;
+    private BigDecimal projectedRevenue;
+    private BigDecimal revenueDelta;
+}
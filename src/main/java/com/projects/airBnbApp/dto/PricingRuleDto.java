@@ -0,0 +1,12 @@
+package com.projects.airBnbApp.dto;
+
+import lombok.Data;
+
+@Data
+public class PricingRuleDto {
+
+    private Long id;
+    private String expression;
+    private Integer priority;
+    private Boolean active;
+}
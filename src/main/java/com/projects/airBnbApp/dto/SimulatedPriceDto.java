@@ -0,0 +1,18 @@
+package com.projects.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulatedPriceDto {
+    private LocalDate date;
+    private BigDecimal currentPrice;
+    private BigDecimal simulatedPrice;
+    private BigDecimal delta;
+}
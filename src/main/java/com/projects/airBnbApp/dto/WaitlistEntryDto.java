@@ -0,0 +1,20 @@
+package com.projects.airBnbApp.dto;
+
+import com.projects.airBnbApp.enums.WaitlistStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class WaitlistEntryDto {
+    private Long id;
+    private Long hotelId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer roomsCount;
+    private WaitlistStatus status;
+    private Long bookingId;
+    private LocalDateTime createdAt;
+}
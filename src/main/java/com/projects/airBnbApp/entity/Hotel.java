@@ -38,6 +38,10 @@ public class Hotel {
     @Column(nullable = false)
     private Boolean active;
 
+    // Bumped whenever the hotel's pricing rules change; part of every price quote's fingerprint
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long pricingRulesVersion = 0L;
+
     @ManyToOne
     private User owner;
 
@@ -12,7 +12,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "hotel_min_price")
+@Table(name = "hotel_min_price",
+        uniqueConstraints = @UniqueConstraint(name = "unique_hotel_min_price_hotel_date", columnNames = {"hotel_id", "date"}))
 @Getter
 @Setter
 @NoArgsConstructor  // JPA requires a no-args constructor
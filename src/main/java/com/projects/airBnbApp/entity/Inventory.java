@@ -58,6 +58,11 @@ public class Inventory {
     @Column(nullable = false)
     private Boolean closed;
 
+    // Set when a pricing input changes; cleared by PricingUpdateService once the row is repriced
+    @Column(name = "price_dirty", nullable = false, columnDefinition = "BOOLEAN DEFAULT TRUE")
+    @Builder.Default
+    private Boolean priceDirty = true;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
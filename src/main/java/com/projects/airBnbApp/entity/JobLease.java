@@ -0,0 +1,34 @@
+package com.projects.airBnbApp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Claim on one partition of a scheduled job run, so that several nodes split a run instead of
+ * repeating it. Rows are written through the native queries in JobLeaseRepository.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "job_lease")
+public class JobLease {
+
+    // e.g. pricing:2026-10-19T13:00:0-99
+    @Id
+    @Column(name = "lease_key", length = 200)
+    private String leaseKey;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "leased_until", nullable = false)
+    private LocalDateTime leasedUntil;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,46 @@
+package com.projects.airBnbApp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A hotel's pricing rule in the rule language parsed by PricingRuleParser, e.g.
+ * {@code when weekend then +15%}. Active rules run in priority order after the configured chain.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "pricing_rule", indexes = @Index(name = "idx_pricing_rule_hotel", columnList = "hotel_id"))
+public class PricingRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hotel_id", nullable = false)
+    private Hotel hotel;
+
+    @Column(nullable = false, length = 500)
+    private String expression;
+
+    @Column(nullable = false)
+    private Integer priority;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
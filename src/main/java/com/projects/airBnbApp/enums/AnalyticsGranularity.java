@@ -0,0 +1,7 @@
+package com.projects.airBnbApp.enums;
+
+public enum AnalyticsGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -3,6 +3,9 @@ package com.projects.airBnbApp.enums;
 public enum PaymentStatus {
     PENDING,
     CONFIRMED,
-    CANCELLED
+    CANCELLED,
+    REFUND_PENDING,
+    REFUNDED,
+    REFUND_FAILED
 
 }
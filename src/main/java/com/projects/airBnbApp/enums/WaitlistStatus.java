@@ -0,0 +1,9 @@
+package com.projects.airBnbApp.enums;
+
+public enum WaitlistStatus {
+    WAITING,
+    MATCHING,
+    FULFILLED,
+    CANCELLED,
+    EXPIRED
+}
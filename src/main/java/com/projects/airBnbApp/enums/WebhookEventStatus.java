@@ -0,0 +1,9 @@
+package com.projects.airBnbApp.enums;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    SKIPPED,
+    FAILED
+}
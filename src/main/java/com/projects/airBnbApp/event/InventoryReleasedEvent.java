@@ -0,0 +1,9 @@
+package com.projects.airBnbApp.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when room-nights go back into the sellable pool (cancellation or an expired hold).
+ */
+public record InventoryReleasedEvent(Long roomId, LocalDate startDate, LocalDate endDate) {
+}
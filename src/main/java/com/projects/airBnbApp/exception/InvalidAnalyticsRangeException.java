@@ -0,0 +1,8 @@
+package com.projects.airBnbApp.exception;
+
+public class InvalidAnalyticsRangeException extends RuntimeException {
+
+    public InvalidAnalyticsRangeException(String message) {
+        super(message);
+    }
+}
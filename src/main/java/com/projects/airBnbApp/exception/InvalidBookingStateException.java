@@ -0,0 +1,8 @@
+package com.projects.airBnbApp.exception;
+
+public class InvalidBookingStateException extends RuntimeException {
+
+    public InvalidBookingStateException(String message) {
+        super(message);
+    }
+}
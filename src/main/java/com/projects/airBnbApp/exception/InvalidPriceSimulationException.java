@@ -0,0 +1,8 @@
+package com.projects.airBnbApp.exception;
+
+public class InvalidPriceSimulationException extends RuntimeException {
+
+    public InvalidPriceSimulationException(String message) {
+        super(message);
+    }
+}
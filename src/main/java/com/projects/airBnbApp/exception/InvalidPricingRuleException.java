@@ -0,0 +1,8 @@
+package com.projects.airBnbApp.exception;
+
+public class InvalidPricingRuleException extends RuntimeException {
+
+    public InvalidPricingRuleException(String message) {
+        super(message);
+    }
+}
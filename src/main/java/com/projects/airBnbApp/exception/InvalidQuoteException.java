@@ -0,0 +1,8 @@
+package com.projects.airBnbApp.exception;
+
+public class InvalidQuoteException extends RuntimeException {
+
+    public InvalidQuoteException(String message) {
+        super(message);
+    }
+}
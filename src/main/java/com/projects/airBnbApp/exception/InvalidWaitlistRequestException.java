@@ -0,0 +1,8 @@
+package com.projects.airBnbApp.exception;
+
+public class InvalidWaitlistRequestException extends RuntimeException {
+
+    public InvalidWaitlistRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.projects.airBnbApp.exception;
+
+public class InvalidWebhookException extends RuntimeException {
+
+    public InvalidWebhookException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,75 @@
+package com.projects.airBnbApp.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local stand-in for the provider ledger (payment.ledger=file). Reads a CSV with the columns
+ * {@code order_id,status,payment_id,amount_paid} and re-reads it whenever the file changes.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "payment.ledger", havingValue = "file")
+public class FilePaymentLedger implements PaymentLedger {
+
+    @Value("${payment.ledger.file:ledger.csv}")
+    private Path ledgerFile;
+
+    private volatile Map<String, LedgerOrder> orders = Map.of();
+    private volatile FileTime loadedAt;
+
+    // Not synchronized: a virtual thread reading the file inside a monitor would pin its carrier
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    @Override
+    public Map<String, LedgerOrder> fetchOrders(Collection<String> orderIds) throws IOException {
+        Map<String, LedgerOrder> snapshot = load();
+        Map<String, LedgerOrder> result = new HashMap<>();
+        for (String orderId : orderIds) {
+            result.put(orderId, snapshot.getOrDefault(orderId, LedgerOrder.notFound(orderId)));
+        }
+        return result;
+    }
+
+    private Map<String, LedgerOrder> load() throws IOException {
+        loadLock.lock();
+        try {
+            return reloadIfChanged();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Map<String, LedgerOrder> reloadIfChanged() throws IOException {
+        FileTime modified = Files.getLastModifiedTime(ledgerFile);
+        if (modified.equals(loadedAt)) return orders;
+
+        List<String> lines = Files.readAllLines(ledgerFile);
+        Map<String, LedgerOrder> loaded = new HashMap<>();
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) continue;
+            String[] columns = line.split(",", -1);
+            String paymentId = columns[2].isBlank() ? null : columns[2].trim();
+            loaded.put(columns[0].trim(), new LedgerOrder(columns[0].trim(), columns[1].trim(), paymentId,
+                    columns[3].isBlank() ? 0 : Long.parseLong(columns[3].trim())));
+        }
+
+        orders = loaded;
+        loadedAt = modified;
+        log.info("Loaded {} orders from ledger file: {}", loaded.size(), ledgerFile);
+        return loaded;
+    }
+}
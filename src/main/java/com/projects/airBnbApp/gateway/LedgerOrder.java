@@ -0,0 +1,22 @@
+package com.projects.airBnbApp.gateway;
+
+/**
+ * An order as the payment provider sees it. {@code paymentId} is the captured payment, if any.
+ */
+public record LedgerOrder(String orderId, String status, String paymentId, long amountPaidMinor) {
+
+    private static final String NOT_FOUND = "not_found";
+
+    // The provider answered that it has no such order, as opposed to a lookup that failed
+    public static LedgerOrder notFound(String orderId) {
+        return new LedgerOrder(orderId, NOT_FOUND, null, 0);
+    }
+
+    public boolean isNotFound() {
+        return NOT_FOUND.equals(status);
+    }
+
+    public boolean isPaid() {
+        return "paid".equalsIgnoreCase(status) && paymentId != null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.projects.airBnbApp.gateway;
+
+import java.util.Optional;
+
+/**
+ * Blocking calls to the payment provider. Callers go through {@link PaymentGatewayClient}
+ * so that these never run on a thread holding a DB transaction.
+ */
+public interface PaymentGateway {
+
+    /**
+     * @return the gateway order id
+     */
+    String createOrder(long amountMinor, String currency, String receipt) throws Exception;
+
+    /**
+     * @param receipt stable per-payment key, so a retried refund can be matched to an earlier attempt
+     * @return the gateway refund id
+     */
+    String refund(String paymentId, long amountMinor, String receipt) throws Exception;
+
+    /**
+     * @return the id of a refund already created for the payment with this receipt, if any
+     */
+    Optional<String> findRefund(String paymentId, String receipt) throws Exception;
+}
@@ -0,0 +1,81 @@
+package com.projects.airBnbApp.gateway;
+
+import com.projects.airBnbApp.exception.PaymentGatewayException;
+import com.projects.airBnbApp.exception.ServiceBusyException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs gateway calls on the bounded payment executor with a hard timeout. The HTTP client itself
+ * has connect and read timeouts below it, so a call that timed out here does not keep its thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentGatewayClient {
+
+    private final PaymentGateway paymentGateway;
+
+    @Autowired
+    @Qualifier("paymentGatewayExecutor")
+    private ThreadPoolTaskExecutor paymentGatewayExecutor;
+
+    @Value("${payment.gateway.timeout-ms:10000}")
+    private long timeoutMs;
+
+    public String createOrder(BigDecimal amount, String currency, String receipt) {
+        long amountMinor = toMinorUnits(amount);
+        return call("create order", () -> paymentGateway.createOrder(amountMinor, currency, receipt));
+    }
+
+    public String refund(String paymentId, BigDecimal amount, String receipt) {
+        long amountMinor = toMinorUnits(amount);
+        return call("refund payment", () -> paymentGateway.refund(paymentId, amountMinor, receipt));
+    }
+
+    public Optional<String> findRefund(String paymentId, String receipt) {
+        return call("look up refunds", () -> paymentGateway.findRefund(paymentId, receipt));
+    }
+
+    private <T> T call(String operation, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = paymentGatewayExecutor.submit(task);
+        } catch (TaskRejectedException ex) {
+            // Our own queue is full, not a gateway failure: a 503 tells the client to retry later
+            throw new ServiceBusyException("Payment gateway is busy, please retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new PaymentGatewayException("Payment gateway timed out while trying to " + operation, ex);
+        } catch (ExecutionException ex) {
+            log.error("Payment gateway failed to {}", operation, ex.getCause());
+            throw new PaymentGatewayException("Payment gateway failed to " + operation, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while waiting for the payment gateway", ex);
+        }
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -0,0 +1,16 @@
+package com.projects.airBnbApp.gateway;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Read-only view of the payment provider's orders, used by reconciliation.
+ */
+public interface PaymentLedger {
+
+    /**
+     * @return the orders keyed by order id; orders the provider does not know map to {@link LedgerOrder#notFound},
+     * orders that could not be fetched (timeouts, transient errors) are left out
+     */
+    Map<String, LedgerOrder> fetchOrders(Collection<String> orderIds) throws Exception;
+}
@@ -0,0 +1,56 @@
+package com.projects.airBnbApp.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    // Shared client from RazorpayConfig, with connect and read timeouts and a reused connection pool
+    private final RestClient razorpayRestClient;
+
+    @Override
+    public String createOrder(long amountMinor, String currency, String receipt) {
+        JsonNode order = razorpayRestClient.post()
+                .uri("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("amount", amountMinor, "currency", currency, "receipt", receipt)) // paise
+                .retrieve()
+                .body(JsonNode.class);
+        return order.get("id").asText();
+    }
+
+    @Override
+    public String refund(String paymentId, long amountMinor, String receipt) {
+        JsonNode refund = razorpayRestClient.post()
+                .uri("/payments/{paymentId}/refund", paymentId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("amount", amountMinor, "receipt", receipt)) // paise
+                .retrieve()
+                .body(JsonNode.class);
+        return refund.get("id").asText();
+    }
+
+    @Override
+    public Optional<String> findRefund(String paymentId, String receipt) {
+        JsonNode refunds = razorpayRestClient.get()
+                .uri("/payments/{paymentId}/refunds", paymentId)
+                .retrieve()
+                .body(JsonNode.class);
+        for (JsonNode refund : refunds.path("items")) {
+            if (receipt.equals(refund.path("receipt").asText(null))) {
+                return Optional.of(refund.get("id").asText());
+            }
+        }
+        return Optional.empty();
+    }
+}
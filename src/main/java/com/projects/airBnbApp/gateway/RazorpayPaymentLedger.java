@@ -0,0 +1,113 @@
+package com.projects.airBnbApp.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "payment.ledger", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentLedger implements PaymentLedger {
+
+    private final RestClient razorpayRestClient;
+
+    @Autowired
+    @Qualifier("reconciliationExecutor")
+    private ThreadPoolTaskExecutor reconciliationExecutor;
+
+    @Value("${payment.reconciliation.ledger-concurrency:4}")
+    private int concurrency;
+
+    @Value("${payment.gateway.timeout-ms:10000}")
+    private long timeoutMs;
+
+    // Razorpay has no bulk order lookup, so the orders of a batch are fetched concurrently on the
+    // reconciliation executor, at most `concurrency` at a time so none of them waits in a queue,
+    // and each lookup gets its own timeout. Orders that time out or fail are left out of the result.
+    @Override
+    public Map<String, LedgerOrder> fetchOrders(Collection<String> orderIds) throws InterruptedException {
+        List<String> ids = List.copyOf(orderIds);
+        Map<String, LedgerOrder> orders = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += concurrency) {
+            List<String> chunk = ids.subList(from, Math.min(from + concurrency, ids.size()));
+            List<CompletableFuture<LedgerOrder>> futures = new ArrayList<>(chunk.size());
+            for (String orderId : chunk) {
+                try {
+                    futures.add(CompletableFuture.supplyAsync(() -> fetchOrder(orderId), reconciliationExecutor));
+                } catch (TaskRejectedException ex) {
+                    // Earlier lookups that timed out still hold the workers; this order waits for the next run
+                    log.warn("Reconciliation executor is busy, skipping order: {}", orderId);
+                }
+            }
+
+            for (CompletableFuture<LedgerOrder> future : futures) {
+                LedgerOrder order = await(future);
+                if (order != null) orders.put(order.orderId(), order);
+            }
+        }
+        return orders;
+    }
+
+    private LedgerOrder await(CompletableFuture<LedgerOrder> future) throws InterruptedException {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            log.warn("Timed out fetching an order from Razorpay after {} ms", timeoutMs);
+            return null;
+        } catch (ExecutionException ex) {
+            log.warn("Could not fetch an order from Razorpay", ex.getCause());
+            return null;
+        }
+    }
+
+    private LedgerOrder fetchOrder(String orderId) {
+        try {
+            JsonNode order = razorpayRestClient.get().uri("/orders/{orderId}", orderId).retrieve().body(JsonNode.class);
+            String status = order.get("status").asText();
+            long amountPaid = order.get("amount_paid").asLong();
+
+            String paymentId = null;
+            if ("paid".equals(status)) {
+                JsonNode payments = razorpayRestClient.get().uri("/orders/{orderId}/payments", orderId)
+                        .retrieve().body(JsonNode.class);
+                for (JsonNode payment : payments.path("items")) {
+                    if ("captured".equals(payment.path("status").asText())) {
+                        paymentId = payment.get("id").asText();
+                        break;
+                    }
+                }
+            }
+            return new LedgerOrder(orderId, status, paymentId, amountPaid);
+        } catch (HttpClientErrorException.NotFound | HttpClientErrorException.BadRequest ex) {
+            // Razorpay answers 400 BAD_REQUEST_ERROR for an id it does not recognise
+            return LedgerOrder.notFound(orderId);
+        } catch (RestClientException ex) {
+            // Transient failures are left out; the next run retries them
+            log.warn("Could not fetch order: {} from Razorpay: {}", orderId, ex.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.projects.airBnbApp.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the payment provider (payment.gateway=stub). Every call sleeps for the
+ * configured latency, which makes it easy to check that no DB connection is held meanwhile.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+
+    @Value("${payment.gateway.stub.latency-ms:200}")
+    private long latencyMs;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, String> refundsByReceipt = new ConcurrentHashMap<>();
+
+    @Override
+    public String createOrder(long amountMinor, String currency, String receipt) throws InterruptedException {
+        Thread.sleep(latencyMs);
+        String orderId = "order_stub_" + sequence.incrementAndGet();
+        log.info("Stub gateway created order: {} for receipt: {} amount: {} {}", orderId, receipt, amountMinor, currency);
+        return orderId;
+    }
+
+    @Override
+    public String refund(String paymentId, long amountMinor, String receipt) throws InterruptedException {
+        Thread.sleep(latencyMs);
+        String refundId = refundsByReceipt.computeIfAbsent(receipt, key -> "rfnd_stub_" + sequence.incrementAndGet());
+        log.info("Stub gateway refunded payment: {} amount: {} as {}", paymentId, amountMinor, refundId);
+        return refundId;
+    }
+
+    @Override
+    public Optional<String> findRefund(String paymentId, String receipt) throws InterruptedException {
+        Thread.sleep(latencyMs);
+        return Optional.ofNullable(refundsByReceipt.get(receipt));
+    }
+}
@@ -0,0 +1,18 @@
+package com.projects.airBnbApp.mapper;
+
+import com.projects.airBnbApp.dto.BookingDto;
+import com.projects.airBnbApp.entity.Booking;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+// Hotel, room and user are exposed by id only: reading the id of a lazy proxy does not initialise
+// it, and the user entity carries the password hash
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = GuestMapper.class)
+public interface BookingMapper {
+
+    @Mapping(target = "hotelId", source = "hotel.id")
+    @Mapping(target = "roomId", source = "room.id")
+    @Mapping(target = "userId", source = "user.id")
+    BookingDto toDto(Booking booking);
+}
@@ -0,0 +1,25 @@
+package com.projects.airBnbApp.mapper;
+
+import com.projects.airBnbApp.dto.GuestDto;
+import com.projects.airBnbApp.entity.Guest;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+
+// The id and owning user of a guest are set by GuestService, never taken from the request;
+// the user goes out by id only, as the entity carries the password hash
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface GuestMapper {
+
+    @Mapping(target = "userId", source = "user.id")
+    GuestDto toDto(Guest guest);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    Guest toEntity(GuestDto guestDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    void updateEntity(GuestDto guestDto, @MappingTarget Guest guest);
+}
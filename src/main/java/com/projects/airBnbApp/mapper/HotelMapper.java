@@ -0,0 +1,37 @@
+package com.projects.airBnbApp.mapper;
+
+import com.projects.airBnbApp.dto.HotelDto;
+import com.projects.airBnbApp.dto.HotelPriceResponseDto;
+import com.projects.airBnbApp.entity.Hotel;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+
+// Owner and rooms are never read or written here, so mapping a hotel does not load them.
+// pricingRulesVersion is only ever bumped by PricingRuleService; a new Hotel field has to be
+// mapped or ignored explicitly, so it cannot be overwritten from a request by accident.
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface HotelMapper {
+
+    HotelDto toDto(Hotel hotel);
+
+    @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "rooms", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "pricingRulesVersion", ignore = true)
+    Hotel toEntity(HotelDto hotelDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "rooms", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "pricingRulesVersion", ignore = true)
+    void updateEntity(HotelDto hotelDto, @MappingTarget Hotel hotel);
+
+    @Mapping(target = "price", source = "price")
+    HotelPriceResponseDto toPriceResponseDto(Hotel hotel, Double price);
+}
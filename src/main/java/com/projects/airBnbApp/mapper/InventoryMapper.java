@@ -0,0 +1,12 @@
+package com.projects.airBnbApp.mapper;
+
+import com.projects.airBnbApp.dto.InventoryDto;
+import com.projects.airBnbApp.entity.Inventory;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface InventoryMapper {
+
+    InventoryDto toDto(Inventory inventory);
+}
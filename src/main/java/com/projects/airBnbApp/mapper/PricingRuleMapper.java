@@ -0,0 +1,12 @@
+package com.projects.airBnbApp.mapper;
+
+import com.projects.airBnbApp.dto.PricingRuleDto;
+import com.projects.airBnbApp.entity.PricingRule;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface PricingRuleMapper {
+
+    PricingRuleDto toDto(PricingRule pricingRule);
+}
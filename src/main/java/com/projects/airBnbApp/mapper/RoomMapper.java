@@ -0,0 +1,18 @@
+package com.projects.airBnbApp.mapper;
+
+import com.projects.airBnbApp.dto.RoomDto;
+import com.projects.airBnbApp.entity.Room;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface RoomMapper {
+
+    RoomDto toDto(Room room);
+
+    @Mapping(target = "hotel", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Room toEntity(RoomDto roomDto);
+}
@@ -0,0 +1,25 @@
+package com.projects.airBnbApp.mapper;
+
+import com.projects.airBnbApp.dto.SignUpRequestDto;
+import com.projects.airBnbApp.dto.UserDto;
+import com.projects.airBnbApp.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+// A new User field has to be mapped or ignored explicitly, so a sign-up request cannot set it by accident
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UserMapper {
+
+    UserDto toDto(User user);
+
+    // The password is encoded by AuthService, and roles are assigned there; authorities derive from roles
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "dateOfBirth", ignore = true)
+    @Mapping(target = "gender", ignore = true)
+    @Mapping(target = "roles", ignore = true)
+    @Mapping(target = "authorities", ignore = true)
+    User toEntity(SignUpRequestDto signUpRequestDto);
+}
@@ -0,0 +1,16 @@
+package com.projects.airBnbApp.mapper;
+
+import com.projects.airBnbApp.dto.WaitlistEntryDto;
+import com.projects.airBnbApp.entity.WaitlistEntry;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+// Reading the id of a lazy hotel or room proxy does not initialise it
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface WaitlistEntryMapper {
+
+    @Mapping(target = "hotelId", source = "hotel.id")
+    @Mapping(target = "roomId", source = "room.id")
+    WaitlistEntryDto toDto(WaitlistEntry waitlistEntry);
+}
@@ -3,9 +3,17 @@ package com.projects.airBnbApp.repository;
 import com.projects.airBnbApp.entity.Booking;
 import com.projects.airBnbApp.entity.Hotel;
 import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.enums.BookingStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,12 +22,70 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     // For previous Stripe integration (optional)
     Optional<Booking> findByPaymentSessionId(String sessionId);
 
-    // New: For Razorpay integration
-    Optional<Booking> findByPaymentOrderId(String paymentOrderId);
+    // New: For Razorpay integration. Locked so reconciliation cannot expire the booking mid-capture
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.paymentOrderId = :paymentOrderId")
+    Optional<Booking> findAndLockByPaymentOrderId(@Param("paymentOrderId") String paymentOrderId);
 
     List<Booking> findByHotel(Hotel hotel);
 
     List<Booking> findByHotelAndCreatedAtBetween(Hotel hotel, LocalDateTime startDateTime, LocalDateTime endDateTime);
 
     List<Booking> findByUser(User user);
+
+    // Locked so a hold moving to PAYMENTS_PENDING concurrently is either seen in its new state or waits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Booking> findTop100ByBookingStatusInAndCreatedAtBeforeOrderByCreatedAt(Collection<BookingStatus> statuses,
+                                                                               LocalDateTime createdBefore);
+
+    // Keyset page for reconciliation: pass the last id of the previous page. Confirmed bookings are
+    // only rechecked while they are recent; older ones have long been settled with the gateway.
+    @Query("""
+                SELECT b
+                FROM Booking b
+                WHERE b.id > :afterId
+                  AND b.paymentOrderId IS NOT NULL
+                  AND (b.bookingStatus = com.projects.airBnbApp.enums.BookingStatus.PAYMENTS_PENDING
+                       OR (b.bookingStatus = com.projects.airBnbApp.enums.BookingStatus.CONFIRMED
+                           AND b.updatedAt >= :confirmedSince))
+                ORDER BY b.id
+            """)
+    List<Booking> findPageForReconciliation(@Param("afterId") Long afterId,
+                                            @Param("confirmedSince") LocalDateTime confirmedSince,
+                                            Pageable pageable);
+
+    @Query("""
+                SELECT b
+                FROM Booking b
+                WHERE b.id IN :ids
+                  AND b.bookingStatus = :status
+            """)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Booking> findAndLockByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                             @Param("status") BookingStatus status);
+
+    // Only a live hold can await payment; an expired or cancelled one must not come back
+    @Modifying
+    @Query("""
+                UPDATE Booking b
+                SET b.bookingStatus = com.projects.airBnbApp.enums.BookingStatus.PAYMENTS_PENDING,
+                    b.paymentOrderId = :orderId,
+                    b.updatedAt = CURRENT_TIMESTAMP
+                WHERE b.id = :id
+                  AND b.bookingStatus IN (com.projects.airBnbApp.enums.BookingStatus.RESERVED,
+                                          com.projects.airBnbApp.enums.BookingStatus.GUESTS_ADDED)
+            """)
+    int markPaymentsPending(@Param("id") Long id, @Param("orderId") String orderId);
+
+    @Modifying
+    @Query("""
+                UPDATE Booking b
+                SET b.bookingStatus = :to,
+                    b.updatedAt = CURRENT_TIMESTAMP
+                WHERE b.id IN :ids
+                  AND b.bookingStatus = :from
+            """)
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") BookingStatus from,
+                         @Param("to") BookingStatus to);
 }
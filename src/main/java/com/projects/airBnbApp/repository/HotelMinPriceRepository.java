@@ -6,10 +6,12 @@ import com.projects.airBnbApp.entity.HotelMinPrice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface HotelMinPriceRepository extends JpaRepository<HotelMinPrice, Long> {
@@ -32,4 +34,19 @@ public interface HotelMinPriceRepository extends JpaRepository<HotelMinPrice, Lo
     );
 
     Optional<HotelMinPrice> findByHotelAndDate(Hotel hotel, LocalDate date);
+
+    // Recomputes the hotel's cheapest inventory price for the given dates in one statement
+    @Modifying
+    @Query(value = """
+                INSERT INTO hotel_min_price (hotel_id, date, price, created_at, updated_at)
+                SELECT i.hotel_id, i.date, MIN(i.price), now(), now()
+                FROM inventory i
+                WHERE i.hotel_id = :hotelId
+                  AND i.date IN (:dates)
+                GROUP BY i.hotel_id, i.date
+                ON CONFLICT (hotel_id, date) DO UPDATE
+                SET price = EXCLUDED.price,
+                    updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int upsertDailyMinPrices(@Param("hotelId") Long hotelId, @Param("dates") Collection<LocalDate> dates);
 }
@@ -3,11 +3,27 @@ package com.projects.airBnbApp.repository;
 import com.projects.airBnbApp.entity.Hotel;
 import com.projects.airBnbApp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
     List<Hotel> findByOwner(User user);
+
+    @Query("SELECT COALESCE(MAX(h.id), 0) FROM Hotel h")
+    Long findMaxId();
+
+    @Query("SELECT h.pricingRulesVersion FROM Hotel h WHERE h.id = :hotelId")
+    Optional<Long> findPricingRulesVersion(@Param("hotelId") Long hotelId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Hotel h SET h.pricingRulesVersion = h.pricingRulesVersion + 1 WHERE h.id = :hotelId")
+    int incrementPricingRulesVersion(@Param("hotelId") Long hotelId);
 }
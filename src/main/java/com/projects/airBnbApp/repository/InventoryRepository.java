@@ -1,5 +1,6 @@
 package com.projects.airBnbApp.repository;
 
+import com.projects.airBnbApp.dto.InventoryStatsDto;
 import com.projects.airBnbApp.dto.RoomPriceDto;
 import com.projects.airBnbApp.entity.Hotel;
 import com.projects.airBnbApp.entity.Inventory;
@@ -12,9 +13,11 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
@@ -41,6 +44,23 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     );
 
 
+    // Unlocked read of the same rows, for quoting
+    @Query("""
+            SELECT i
+            FROM Inventory i
+            WHERE i.room.id = :roomId
+                AND i.date BETWEEN :startDate AND :endDate
+                AND i.closed = false
+                AND (i.totalCount - i.bookedCount - i.reservedCount) >= :roomsCount
+            ORDER BY i.date
+            """)
+    List<Inventory> findAvailableInventory(
+            @Param("roomId") Long roomId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("roomsCount") Integer roomsCount
+    );
+
     @Query("""
             SELECT i
             FROM Inventory i
@@ -90,7 +110,8 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Query("""
                 UPDATE Inventory i
                 SET i.reservedCount = i.reservedCount - :numberOfRooms,
-                    i.bookedCount = i.bookedCount + :numberOfRooms
+                    i.bookedCount = i.bookedCount + :numberOfRooms,
+                    i.priceDirty = true
                 WHERE i.room.id = :roomId
                   AND i.date BETWEEN :startDate AND :endDate
                   AND (i.totalCount - i.bookedCount) >= :numberOfRooms
@@ -105,7 +126,8 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Modifying
     @Query("""
                 UPDATE Inventory i
-                SET i.bookedCount = i.bookedCount - :numberOfRooms
+                SET i.bookedCount = i.bookedCount - :numberOfRooms,
+                    i.priceDirty = true
                 WHERE i.room.id = :roomId
                   AND i.date BETWEEN :startDate AND :endDate
                   AND (i.totalCount - i.bookedCount) >= :numberOfRooms
@@ -116,6 +138,19 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
                        @Param("endDate") LocalDate endDate,
                        @Param("numberOfRooms") int numberOfRooms);
 
+    @Modifying
+    @Query("""
+                UPDATE Inventory i
+                SET i.reservedCount = i.reservedCount - :numberOfRooms
+                WHERE i.room.id = :roomId
+                  AND i.date BETWEEN :startDate AND :endDate
+                  AND i.reservedCount >= :numberOfRooms
+            """)
+    void releaseReservedInventory(@Param("roomId") Long roomId,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate,
+                                  @Param("numberOfRooms") int numberOfRooms);
+
     List<Inventory> findByHotelAndDateBetween(Hotel hotel, LocalDate startDate, LocalDate endDate);
 
     List<Inventory> findByRoomOrderByDate(Room room);
@@ -135,7 +170,8 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Query("""
                 UPDATE Inventory i
                 SET i.surgeFactor = :surgeFactor,
-                    i.closed = :closed
+                    i.closed = :closed,
+                    i.priceDirty = true
                 WHERE i.room.id = :roomId
                   AND i.date BETWEEN :startDate AND :endDate
             """)
@@ -168,5 +204,63 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
             @Param("dateCount") Long dateCount
     );
 
+    @Query("""
+                SELECT new com.projects.airBnbApp.dto.InventoryStatsDto(
+                    i.room.id, i.room.type, i.date, i.bookedCount, i.totalCount, i.price, i.closed)
+                FROM Inventory i
+                WHERE i.hotel.id = :hotelId
+                  AND i.date BETWEEN :startDate AND :endDate
+                ORDER BY i.room.id, i.date
+            """)
+    List<InventoryStatsDto> findInventoryStats(@Param("hotelId") Long hotelId,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
 
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE Inventory i
+                SET i.priceDirty = true
+                WHERE i.room.id = :roomId
+                  AND i.date >= :fromDate
+            """)
+    int markPriceDirtyForRoom(@Param("roomId") Long roomId, @Param("fromDate") LocalDate fromDate);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE Inventory i
+                SET i.priceDirty = true
+                WHERE i.hotel.id = :hotelId
+                  AND i.date >= :fromDate
+            """)
+    int markPriceDirtyForHotel(@Param("hotelId") Long hotelId, @Param("fromDate") LocalDate fromDate);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE Inventory i
+                SET i.priceDirty = true
+                WHERE i.date BETWEEN :startDate AND :endDate
+            """)
+    int markPriceDirtyBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE Inventory i
+                SET i.priceDirty = true
+                WHERE i.date IN :dates
+            """)
+    int markPriceDirtyOnDates(@Param("dates") Collection<LocalDate> dates);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE Inventory i
+                SET i.priceDirty = true
+                WHERE i.date IN :dates
+                  AND LOWER(i.city) = :city
+            """)
+    int markPriceDirtyOnDatesInCity(@Param("city") String city, @Param("dates") Collection<LocalDate> dates);
 }
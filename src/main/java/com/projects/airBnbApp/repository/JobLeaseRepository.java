@@ -0,0 +1,64 @@
+package com.projects.airBnbApp.repository;
+
+import com.projects.airBnbApp.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    // Inserts the lease, or takes over one whose holder let it expire without completing.
+    // Returns 1 when this node now holds the lease.
+    @Modifying
+    @Transactional
+    @Query(value = """
+                INSERT INTO job_lease (lease_key, owner, leased_until)
+                VALUES (:leaseKey, :owner, :leasedUntil)
+                ON CONFLICT (lease_key) DO UPDATE
+                SET owner = EXCLUDED.owner,
+                    leased_until = EXCLUDED.leased_until
+                WHERE job_lease.completed_at IS NULL
+                  AND job_lease.leased_until < :now
+            """, nativeQuery = true)
+    int tryAcquire(@Param("leaseKey") String leaseKey,
+                   @Param("owner") String owner,
+                   @Param("leasedUntil") LocalDateTime leasedUntil,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE JobLease l
+                SET l.completedAt = :completedAt
+                WHERE l.leaseKey = :leaseKey
+                  AND l.owner = :owner
+            """)
+    int markCompleted(@Param("leaseKey") String leaseKey,
+                      @Param("owner") String owner,
+                      @Param("completedAt") LocalDateTime completedAt);
+
+    // Leases whose key starts with keepPrefix record state rather than a run and are never purged
+    @Modifying
+    @Transactional
+    @Query("""
+                DELETE FROM JobLease l
+                WHERE l.leasedUntil < :cutoff
+                  AND l.leaseKey NOT LIKE CONCAT(:keepPrefix, '%')
+            """)
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff,
+                            @Param("keepPrefix") String keepPrefix);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                DELETE FROM JobLease l
+                WHERE l.leaseKey LIKE CONCAT(:prefix, '%')
+                  AND l.leaseKey <> :leaseKey
+            """)
+    int deleteOthersWithPrefix(@Param("prefix") String prefix,
+                               @Param("leaseKey") String leaseKey);
+}
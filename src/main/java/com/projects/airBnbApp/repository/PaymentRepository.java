@@ -0,0 +1,29 @@
+package com.projects.airBnbApp.repository;
+
+import com.projects.airBnbApp.entity.Booking;
+import com.projects.airBnbApp.entity.Payment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    Optional<Payment> findByBooking(Booking booking);
+
+    boolean existsByTransactionId(String transactionId);
+
+    @Query(value = """
+                SELECT p.*
+                FROM payment p
+                WHERE p.payment_status = 'REFUND_PENDING'
+                  AND p.next_attempt_at <= :now
+                ORDER BY p.next_attempt_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Payment> findAndLockDueRefunds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,17 @@
+package com.projects.airBnbApp.repository;
+
+import com.projects.airBnbApp.entity.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
+
+    List<PricingRule> findByHotelIdOrderByPriorityAscIdAsc(Long hotelId);
+
+    List<PricingRule> findByHotelIdAndActiveTrueOrderByPriorityAscIdAsc(Long hotelId);
+
+    @Query("SELECT DISTINCT r.expression FROM PricingRule r WHERE r.active = true")
+    List<String> findActiveExpressions();
+}
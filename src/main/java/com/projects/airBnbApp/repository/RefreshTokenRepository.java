@@ -0,0 +1,65 @@
+package com.projects.airBnbApp.repository;
+
+import com.projects.airBnbApp.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Returns 1 for the first use of a live token and 0 when it was already used or revoked
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE RefreshToken t
+                SET t.usedAt = :now
+                WHERE t.jti = :jti
+                  AND t.usedAt IS NULL
+                  AND t.revokedAt IS NULL
+            """)
+    int markUsed(@Param("jti") String jti, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE RefreshToken t
+                SET t.revokedAt = :now
+                WHERE t.familyId = :familyId
+                  AND t.revokedAt IS NULL
+            """)
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    // Returns 1 when the token was revoked because another token of its family already is
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE RefreshToken t
+                SET t.revokedAt = :now
+                WHERE t.jti = :jti
+                  AND t.revokedAt IS NULL
+                  AND EXISTS (SELECT 1
+                              FROM RefreshToken r
+                              WHERE r.familyId = t.familyId
+                                AND r.revokedAt IS NOT NULL)
+            """)
+    int revokeIfFamilyRevoked(@Param("jti") String jti, @Param("now") LocalDateTime now);
+
+    // Families with unexpired revoked tokens, to rebuild the in-memory revocation index
+    @Query("""
+                SELECT DISTINCT t.familyId
+                FROM RefreshToken t
+                WHERE t.expiresAt > :now
+                  AND t.revokedAt IS NOT NULL
+            """)
+    List<String> findRevokedFamiliesNotExpired(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,6 +4,9 @@ import com.projects.airBnbApp.entity.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface RoomRepository extends JpaRepository<Room,Long> {
+    List<Room> findByHotelIdOrderByIdAsc(Long hotelId);
 }
@@ -0,0 +1,88 @@
+package com.projects.airBnbApp.repository;
+
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.entity.WaitlistEntry;
+import com.projects.airBnbApp.enums.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByStatusIn(Collection<WaitlistStatus> statuses);
+
+    List<WaitlistEntry> findByUserOrderByCreatedAtDesc(User user);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE WaitlistEntry w
+                SET w.status = :to,
+                    w.updatedAt = CURRENT_TIMESTAMP
+                WHERE w.id = :id
+                  AND w.status = :from
+            """)
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") WaitlistStatus from,
+                         @Param("to") WaitlistStatus to);
+
+    // Entries whose matcher died mid-match; updatedAt is set when an entry moves to MATCHING
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE WaitlistEntry w
+                SET w.status = com.projects.airBnbApp.enums.WaitlistStatus.WAITING,
+                    w.updatedAt = CURRENT_TIMESTAMP
+                WHERE w.status = com.projects.airBnbApp.enums.WaitlistStatus.MATCHING
+                  AND w.updatedAt < :staleBefore
+            """)
+    int resetStaleMatching(@Param("staleBefore") LocalDateTime staleBefore);
+
+    // Waiting entries whose stay has started can no longer be booked
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE WaitlistEntry w
+                SET w.status = com.projects.airBnbApp.enums.WaitlistStatus.EXPIRED,
+                    w.updatedAt = CURRENT_TIMESTAMP
+                WHERE w.status = com.projects.airBnbApp.enums.WaitlistStatus.WAITING
+                  AND w.checkInDate < :today
+            """)
+    int expireWaitingBefore(@Param("today") LocalDate today);
+
+    // Oldest upcoming waiting entries whose every night currently has enough free rooms
+    @Query(value = """
+                SELECT w.*
+                FROM waitlist_entry w
+                WHERE w.status = 'WAITING'
+                  AND w.check_in_date >= CURRENT_DATE
+                  AND (SELECT COUNT(*)
+                       FROM inventory i
+                       WHERE i.room_id = w.room_id
+                         AND i.date BETWEEN w.check_in_date AND w.check_out_date
+                         AND i.closed = false
+                         AND i.total_count - i.booked_count - i.reserved_count >= w.rooms_count
+                      ) = w.check_out_date - w.check_in_date + 1
+                ORDER BY w.id
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<WaitlistEntry> findWaitingWithAvailableInventory(@Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE WaitlistEntry w
+                SET w.status = com.projects.airBnbApp.enums.WaitlistStatus.FULFILLED,
+                    w.bookingId = :bookingId,
+                    w.updatedAt = CURRENT_TIMESTAMP
+                WHERE w.id = :id
+            """)
+    void markFulfilled(@Param("id") Long id, @Param("bookingId") Long bookingId);
+}
@@ -0,0 +1,43 @@
+package com.projects.airBnbApp.repository;
+
+import com.projects.airBnbApp.entity.WebhookEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WebhookEventRepository extends JpaRepository<WebhookEvent, Long> {
+
+    boolean existsByDedupKey(String dedupKey);
+
+    // Oldest due events whose order has no earlier event still in flight, skipping rows claimed by other nodes
+    @Query(value = """
+                SELECT e.*
+                FROM webhook_event e
+                WHERE e.status = 'PENDING'
+                  AND e.next_attempt_at <= :now
+                  AND NOT EXISTS (
+                      SELECT 1
+                      FROM webhook_event p
+                      WHERE p.order_id = e.order_id
+                        AND p.id < e.id
+                        AND p.status IN ('PENDING', 'PROCESSING')
+                  )
+                ORDER BY e.id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<WebhookEvent> findAndLockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+                UPDATE WebhookEvent e
+                SET e.status = com.projects.airBnbApp.enums.WebhookEventStatus.PENDING
+                WHERE e.status = com.projects.airBnbApp.enums.WebhookEventStatus.PROCESSING
+                  AND e.updatedAt < :cutoff
+            """)
+    int requeueStaleEvents(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -6,9 +6,9 @@ import com.projects.airBnbApp.dto.UserDto;
 import com.projects.airBnbApp.entity.User;
 import com.projects.airBnbApp.enums.Role;
 import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.mapper.UserMapper;
 import com.projects.airBnbApp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -22,10 +22,11 @@ import java.util.Set;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JWTService jwtService;
+    private final RefreshTokenService refreshTokenService;
 
     public UserDto signUp(SignUpRequestDto signUpRequestDto) {
 
@@ -35,12 +36,12 @@ public class AuthService {
             throw new RuntimeException("User is already present with same email id");
         }
 
-        User newUser = modelMapper.map(signUpRequestDto, User.class);
+        User newUser = userMapper.toEntity(signUpRequestDto);
         newUser.setRoles(Set.of(Role.GUEST));
         newUser.setPassword(passwordEncoder.encode(signUpRequestDto.getPassword()));
         newUser = userRepository.save(newUser);
 
-        return modelMapper.map(newUser, UserDto.class);
+        return userMapper.toDto(newUser);
     }
 
     public String[] login(LoginDto loginDto) {
@@ -52,16 +53,27 @@ public class AuthService {
 
         String[] arr = new String[2];
         arr[0] = jwtService.generateAccessToken(user);
-        arr[1] = jwtService.generateRefreshToken(user);
+        arr[1] = refreshTokenService.issue(user);
 
         return arr;
     }
 
-    public String refreshToken(String refreshToken) {
-        Long id = jwtService.getUserIdFromToken(refreshToken);
+    // Rotates the refresh token: returns a new access token and the refresh token that replaces the presented one
+    public String[] refreshToken(String refreshToken) {
+        RefreshTokenService.ConsumedToken consumed = refreshTokenService.consume(refreshToken);
+        Long id = consumed.userId();
 
         User user = userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("User not found with id: "+id));
-        return jwtService.generateAccessToken(user);
+
+        String[] arr = new String[2];
+        arr[0] = jwtService.generateAccessToken(user);
+        arr[1] = refreshTokenService.issue(user, consumed.familyId());
+
+        return arr;
+    }
+
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 
 }
@@ -0,0 +1,105 @@
+package com.projects.airBnbApp.securities;
+
+import com.projects.airBnbApp.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt on a dedicated bounded pool. A login storm then uses at most the pool's threads worth of
+ * CPU; requests beyond the queue are rejected with 503 instead of starving search and booking.
+ * <p>
+ * {@link #upgradeEncoding} reports hashes below the current cost, so Spring Security re-encodes
+ * them on the next successful login through UserDetailsPasswordService. Hashes are never
+ * downgraded. A calibrated cost can differ between nodes, so multi-node deployments must pin
+ * {@code auth.password.cost}; otherwise every node only ever raises hashes to its own cost.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int cost;
+    private final ThreadPoolTaskExecutor executor;
+    private final long timeoutMs;
+
+    public BoundedPasswordEncoder(int cost, ThreadPoolTaskExecutor executor, long timeoutMs) {
+        this.delegate = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Smallest cost from {@code minCost} whose hash takes at least {@code targetMs} on this machine,
+     * capped at {@code maxCost}. Each step doubles the work, so this runs a handful of hashes.
+     */
+    public static int calibrate(long targetMs, int minCost, int maxCost) {
+        // Untimed warm-up, so class loading and the interpreter do not inflate the first measurement
+        new BCryptPasswordEncoder(minCost).encode("calibration-warm-up");
+
+        int cost = minCost;
+        while (true) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (elapsedMs >= targetMs || cost >= maxCost) {
+                log.info("Calibrated BCrypt cost {} ({} ms per hash, target {} ms)", cost, elapsedMs, targetMs);
+                return cost;
+            }
+            cost++;
+        }
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < cost;
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(hashing);
+        } catch (TaskRejectedException ex) {
+            throw new ServiceBusyException("Too many sign-in requests, please try again shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new ServiceBusyException("Too many sign-in requests, please try again shortly");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing a password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+}
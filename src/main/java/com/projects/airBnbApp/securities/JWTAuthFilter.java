@@ -10,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,6 +26,12 @@ public class JWTAuthFilter extends OncePerRequestFilter {
 
     private final JWTService jwtService;
     private final UserService userService;
+    private final UserPrincipalCache userPrincipalCache;
+
+    // database: principal loaded from app_user through the cache; claims: built from the access
+    // token alone, so role changes apply when the user's current token expires
+    @Value("${auth.principal-mode:database}")
+    private String principalMode;
 
     @Autowired
     @Qualifier("handlerExceptionResolver")
@@ -41,10 +48,11 @@ public class JWTAuthFilter extends OncePerRequestFilter {
             }
 
             String token = requestTokenHeader.split("Bearer ")[1];
-            Long userId = jwtService.getUserIdFromToken(token);
 
-            if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userService.getUserById(userId);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                User user = "claims".equals(principalMode)
+                        ? jwtService.getUserFromAccessToken(token)
+                        : userPrincipalCache.get(jwtService.getUserIdFromAccessToken(token), userService::getUserById);
                 // check if the user should be allowed
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
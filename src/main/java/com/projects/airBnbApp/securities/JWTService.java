@@ -1,53 +1,167 @@
 package com.projects.airBnbApp.securities;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.enums.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class JWTService {
 
+    // Token type claim; access and refresh tokens share the signing key, so each is checked for its type
+    private static final String TYPE_CLAIM = "typ";
+    private static final String ACCESS_TYPE = "access";
+    private static final String REFRESH_TYPE = "refresh";
+
     @Value("${jwt.secretKey}")
     private String jwtSecretKey;
 
-    private SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(jwtSecretKey.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey secretKey;
+    private JwtParser jwtParser;
+
+    // Claims of recently verified tokens by SHA-256 of the token, so a token reused across requests
+    // is verified and parsed once; each entry expires with its token
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        secretKey = Keys.hmacShaKeyFor(jwtSecretKey.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser().verifyWith(secretKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxEntries)
+                .expireAfter(Expiry.<String, VerifiedToken>creating((tokenHash, verified) ->
+                        Duration.ofMillis(Math.max(0, verified.expiresAt() - System.currentTimeMillis()))))
+                .build();
     }
 
     public String generateAccessToken(User user) {
         return Jwts.builder()
                 .subject(user.getId().toString())
+                .claim(TYPE_CLAIM, ACCESS_TYPE)
                 .claim("email", user.getEmail())
-                .claim("roles", user.getRoles().toString())
+                .claim("roles", user.getRoles().stream().map(Role::name).toList())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + 1000*60*10))
-                .signWith(getSecretKey())
+                .signWith(secretKey)
                 .compact();
     }
 
-    public String generateRefreshToken(User user) {
+    // jti identifies this token and familyId the login it was rotated from; both are tracked by RefreshTokenService
+    public String generateRefreshToken(User user, String jti, String familyId, Date expiresAt) {
         return Jwts.builder()
                 .subject(user.getId().toString())
+                .id(jti)
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
+                .claim("fam", familyId)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + 1000L *60*60*24*30*6))
-                .signWith(getSecretKey())
+                .expiration(expiresAt)
+                .signWith(secretKey)
                 .compact();
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return Long.valueOf(claims.getSubject());
+    public Long getUserIdFromAccessToken(String token) {
+        return Long.valueOf(getAccessTokenClaims(token).getSubject());
+    }
+
+    public Claims getRefreshTokenClaims(String token) {
+        Claims claims = getClaims(token);
+        if (!REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class))) {
+            throw new JwtException("Token is not a refresh token");
+        }
+        return claims;
+    }
+
+    // Principal built from the access token alone: id, email and roles, no password or profile fields
+    public User getUserFromAccessToken(String token) {
+        Claims claims = getAccessTokenClaims(token);
+        if (claims.get("email") == null || claims.get("roles") == null) {
+            throw new JwtException("Token does not carry the user's email and roles");
+        }
+
+        User user = new User();
+        user.setId(Long.valueOf(claims.getSubject()));
+        user.setEmail(claims.get("email", String.class));
+        user.setRoles(parseRoles(claims.get("roles")));
+        return user;
+    }
+
+    // A refresh token lives for months and must never authenticate a request. Access tokens issued
+    // before the type claim carry neither a jti nor a family, which still tells them apart.
+    private Claims getAccessTokenClaims(String token) {
+        Claims claims = getClaims(token);
+        Object type = claims.get(TYPE_CLAIM);
+        boolean access = type == null
+                ? claims.getId() == null && claims.get("fam") == null
+                : ACCESS_TYPE.equals(type);
+        if (!access) {
+            throw new JwtException("Token is not an access token");
+        }
+        return claims;
+    }
+
+    private Claims getClaims(String token) {
+        String tokenHash = hash(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(tokenHash);
+        if (verified != null) {
+            return verified.claims();
+        }
+
+        // Throws for a bad signature or an expired token
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(tokenHash, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+
+    // Roles are a list of names; tokens issued before that carried Set.toString(), e.g. "[GUEST, HOTEL_MANAGER]"
+    private static Set<Role> parseRoles(Object roles) {
+        if (roles instanceof Collection<?> names) {
+            return names.stream().map(name -> Role.valueOf(name.toString())).collect(Collectors.toSet());
+        }
+        String names = roles.toString().replace("[", "").replace("]", "");
+        return Arrays.stream(names.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(Role::valueOf)
+                .collect(Collectors.toSet());
     }
 
 }
@@ -0,0 +1,139 @@
+package com.projects.airBnbApp.securities;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projects.airBnbApp.exception.RateLimitExceededException;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket quotas per endpoint group, keyed by user id when the request carries a valid access
+ * token and by client IP otherwise. Runs before JWTAuthFilter and reads the user id from the token
+ * alone, so rejected requests never reach the database.
+ * <p>
+ * Each bucket is one AtomicLong in the GCRA form of a token bucket: it holds the time at which the
+ * bucket will be full again, and a request is admitted by moving that time forward one refill
+ * interval with a compare-and-set, as long as it stays within capacity intervals of now.
+ * <p>
+ * Buckets live in a Caffeine cache. A bucket idle for longer than the slowest group takes to
+ * refill is full again anyway and expires; when the cache is at max-buckets, its frequency-based
+ * admission keeps the buckets of active clients over one-off keys, so a flood of new clients
+ * cannot reset the limits of existing ones.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties rateLimitProperties;
+    private final JWTService jwtService;
+
+    @Autowired
+    @Qualifier("handlerExceptionResolver")
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private Cache<BucketKey, AtomicLong> buckets;
+
+    @PostConstruct
+    public void initBuckets() {
+        double longestRefillSeconds = rateLimitProperties.getGroups().values().stream()
+                .mapToDouble(group -> group.getCapacity() / group.getRefillPerSecond())
+                .max()
+                .orElse(0);
+        buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaxBuckets())
+                .expireAfterAccess(Duration.ofSeconds((long) Math.ceil(longestRefillSeconds) + 1))
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String groupName = rateLimitProperties.isEnabled() ? matchGroup(request) : null;
+        if (groupName == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitProperties.Group group = rateLimitProperties.getGroups().get(groupName);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / group.getRefillPerSecond());
+        long burstNanos = intervalNanos * group.getCapacity();
+        AtomicLong bucket = bucketFor(new BucketKey(groupName, clientKey(request)));
+
+        long now = System.nanoTime();
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(next - now - burstNanos + 999_999_999));
+                response.setHeader("X-RateLimit-Limit", String.valueOf(group.getCapacity()));
+                response.setHeader("X-RateLimit-Remaining", "0");
+                response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+                handlerExceptionResolver.resolveException(request, response, null,
+                        new RateLimitExceededException("Too many requests, please retry in " + retryAfterSeconds + " seconds"));
+                return;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                response.setHeader("X-RateLimit-Limit", String.valueOf(group.getCapacity()));
+                response.setHeader("X-RateLimit-Remaining", String.valueOf((burstNanos - (next - now)) / intervalNanos));
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String matchGroup(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, RateLimitProperties.Group> entry : rateLimitProperties.getGroups().entrySet()) {
+            for (String pattern : entry.getValue().getPaths()) {
+                if (pathMatcher.match(pattern, path)) return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            try {
+                return "user:" + jwtService.getUserIdFromAccessToken(header.substring(7));
+            } catch (JwtException | IllegalArgumentException ex) {
+                // JWTAuthFilter rejects the token; count the request against the IP meanwhile
+            }
+        }
+        if (rateLimitProperties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                // Entries to the left are whatever the client sent and can be forged; the last one
+                // is the address our proxy saw
+                String lastHop = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+                if (!lastHop.isEmpty()) return "ip:" + lastHop;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private AtomicLong bucketFor(BucketKey key) {
+        // A new bucket starts full, i.e. its full-at time is already past
+        return buckets.get(key, k -> new AtomicLong(System.nanoTime() - TimeUnit.DAYS.toNanos(1)));
+    }
+
+    private record BucketKey(String group, String client) {
+    }
+}
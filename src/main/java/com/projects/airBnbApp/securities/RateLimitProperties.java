@@ -0,0 +1,82 @@
+package com.projects.airBnbApp.securities;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request quotas per endpoint group, e.g.
+ * <pre>
+ * rate-limit.groups.search.paths=/hotels/**
+ * rate-limit.groups.search.capacity=30
+ * rate-limit.groups.search.refill-per-second=5
+ * </pre>
+ * Paths are matched without the servlet context path; the first matching group applies. Each
+ * authenticated user, or each client IP otherwise, gets its own bucket per group.
+ * <p>
+ * Binding a property of a group replaces that group's entry, so settings left out of an override
+ * such as {@code rate-limit.groups.search.capacity=60} are filled in from the built-in defaults.
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties implements InitializingBean {
+
+    private static final Map<String, Group> DEFAULT_GROUPS = Map.of(
+            "search", new Group(List.of("/hotels/**"), 30, 5.0),
+            "booking", new Group(List.of("/bookings/**"), 10, 1.0),
+            "auth", new Group(List.of("/auth/**"), 10, 0.5));
+
+    private boolean enabled = true;
+
+    // Buckets kept in memory; beyond this, the least valuable buckets are dropped and start full again
+    private int maxBuckets = 100_000;
+
+    // Use the right-most X-Forwarded-For address, the one our proxy appended, as the client IP;
+    // only behind a proxy that sets it
+    private boolean trustForwardedFor = false;
+
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Override
+    public void afterPropertiesSet() {
+        DEFAULT_GROUPS.forEach((name, defaults) -> {
+            Group group = groups.computeIfAbsent(name, key -> new Group());
+            if (group.getPaths() == null) group.setPaths(defaults.getPaths());
+            if (group.getCapacity() == null) group.setCapacity(defaults.getCapacity());
+            if (group.getRefillPerSecond() == null) group.setRefillPerSecond(defaults.getRefillPerSecond());
+        });
+
+        groups.forEach((name, group) -> {
+            if (group.getPaths() == null || group.getPaths().isEmpty()
+                    || group.getCapacity() == null || group.getCapacity() <= 0
+                    || group.getRefillPerSecond() == null || group.getRefillPerSecond() <= 0) {
+                throw new IllegalStateException("rate-limit.groups." + name
+                        + " needs paths, a positive capacity and a positive refill-per-second");
+            }
+        });
+    }
+
+    @Getter
+    @Setter
+    public static class Group {
+        private List<String> paths;
+        // Burst size
+        private Integer capacity;
+        private Double refillPerSecond;
+
+        public Group() {
+        }
+
+        public Group(List<String> paths, Integer capacity, Double refillPerSecond) {
+            this.paths = paths;
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.projects.airBnbApp.securities;
+
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.RefreshToken;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.repository.RefreshTokenRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Refresh-token families with rotation on use and reuse detection.
+ * <p>
+ * The refresh_token table is the source of truth: a refresh marks the presented token used with a
+ * conditional update, so a second use is caught on any node and revokes the family. Revoked
+ * families are also kept in memory behind a Bloom filter, so a token of a logged-out or compromised
+ * session is rejected without a query, and a live token, which the filter almost always rules out,
+ * costs two hash computations. Used jtis are not indexed: there is one per refresh, and the
+ * conditional update already rejects them. The index is rebuilt from the table at startup and on
+ * the daily purge.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JWTService jwtService;
+    private final WorkloadBulkhead workloadBulkhead;
+
+    @Value("${jwt.refresh.ttl-days:180}")
+    private long ttlDays;
+
+    @Value("${jwt.refresh.bloom-capacity:100000}")
+    private int bloomCapacity;
+
+    private volatile RevocationIndex revocationIndex;
+
+    @PostConstruct
+    public void loadRevocations() {
+        RevocationIndex index = new RevocationIndex(bloomCapacity);
+        List<String> revokedFamilies = refreshTokenRepository.findRevokedFamiliesNotExpired(LocalDateTime.now());
+        revokedFamilies.forEach(index::addFamily);
+        revocationIndex = index;
+        log.info("Loaded {} revoked refresh token families", revokedFamilies.size());
+    }
+
+    // Starts a new family at login
+    public String issue(User user) {
+        return sign(user, store(user, UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Issues the token that replaces a consumed one. Reuse detected on another node can revoke the
+     * family between this node's markUsed and the insert, after which revokeFamily no longer reaches
+     * the new row, so the row is revoked here if any token of its family already is.
+     */
+    public String issue(User user, String familyId) {
+        RefreshToken refreshToken = store(user, familyId);
+        if (refreshTokenRepository.revokeIfFamilyRevoked(refreshToken.getJti(), LocalDateTime.now()) > 0) {
+            revocationIndex.addFamily(familyId);
+            throw new AuthenticationServiceException("Refresh token has been revoked, please log in again");
+        }
+        return sign(user, refreshToken);
+    }
+
+    private RefreshToken store(User user, String familyId) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setJti(UUID.randomUUID().toString());
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusDays(ttlDays));
+        return refreshTokenRepository.save(refreshToken);
+    }
+
+    private String sign(User user, RefreshToken refreshToken) {
+        return jwtService.generateRefreshToken(user, refreshToken.getJti(), refreshToken.getFamilyId(),
+                new Date(toMillis(refreshToken.getExpiresAt())));
+    }
+
+    /**
+     * Marks the token used so it cannot be presented again. Throws when it is invalid, already used
+     * (which revokes its family) or revoked.
+     */
+    public ConsumedToken consume(String refreshToken) {
+        Claims claims = jwtService.getRefreshTokenClaims(refreshToken);
+        String jti = claims.getId();
+        String familyId = claims.get("fam", String.class);
+        if (jti == null || familyId == null) {
+            throw new AuthenticationServiceException("Refresh token is not valid, please log in again");
+        }
+
+        if (revocationIndex.isFamilyRevoked(familyId)) {
+            throw new AuthenticationServiceException("Refresh token has been revoked, please log in again");
+        }
+        if (refreshTokenRepository.markUsed(jti, LocalDateTime.now()) == 0) {
+            // Someone else holds a copy of this token; end the session for both
+            log.warn("Refresh token reuse detected, revoking token family: {}", familyId);
+            revokeFamily(familyId);
+            throw new AuthenticationServiceException("Refresh token has already been used, please log in again");
+        }
+        return new ConsumedToken(Long.valueOf(claims.getSubject()), familyId);
+    }
+
+    // Logout: the presented token and every token rotated from the same login stop working
+    public void revoke(String refreshToken) {
+        Claims claims = jwtService.getRefreshTokenClaims(refreshToken);
+        String familyId = claims.get("fam", String.class);
+        if (familyId != null) {
+            revokeFamily(familyId);
+        }
+    }
+
+    private void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now());
+        revocationIndex.addFamily(familyId);
+    }
+
+    @Scheduled(cron = "0 15 4 * * *")
+    public void purgeExpired() {
+        int deleted = workloadBulkhead.call(WorkloadBulkhead.JOBS,
+                () -> refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now()));
+        log.info("Deleted {} expired refresh tokens", deleted);
+        // Drops expired entries, and resets the filter, which cannot remove keys
+        loadRevocations();
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public record ConsumedToken(Long userId, String familyId) {
+    }
+
+    /**
+     * Revoked family ids of unexpired tokens. Lookups check the Bloom filter first, so the set is
+     * only consulted for likely members.
+     */
+    private static final class RevocationIndex {
+
+        private static final int HASHES = 7;
+
+        private final long[] bits;
+        private final int bitCount;
+        private final Set<String> revokedFamilies = ConcurrentHashMap.newKeySet();
+
+        RevocationIndex(int capacity) {
+            // About ten bits per entry gives a 1% false positive rate with seven hashes
+            this.bitCount = Math.max(64, capacity * 10);
+            this.bits = new long[(bitCount + 63) / 64];
+        }
+
+        boolean isFamilyRevoked(String familyId) {
+            return mightContain(familyId) && revokedFamilies.contains(familyId);
+        }
+
+        void addFamily(String familyId) {
+            revokedFamilies.add(familyId);
+            add(familyId);
+        }
+
+        private void add(String key) {
+            int h1 = key.hashCode();
+            int h2 = secondHash(key);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                synchronized (bits) {
+                    bits[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+
+        private boolean mightContain(String key) {
+            int h1 = key.hashCode();
+            int h2 = secondHash(key);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        // FNV-1a over the characters, independent of String.hashCode
+        private static int secondHash(String key) {
+            int hash = 0x811C9DC5;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x01000193;
+            }
+            return hash | 1;
+        }
+    }
+}
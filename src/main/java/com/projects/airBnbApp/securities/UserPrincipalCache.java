@@ -0,0 +1,48 @@
+package com.projects.airBnbApp.securities;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projects.airBnbApp.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Users loaded by JWTAuthFilter, kept for a short time so authenticated requests do not each
+ * query app_user. Entries are detached and shared between requests: callers that change a user
+ * must load it from the repository and call {@link #evict} afterwards.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Value("${auth.principal-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${auth.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private Cache<Long, User> users;
+
+    @PostConstruct
+    public void initCache() {
+        users = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    public User get(Long userId, Function<Long, User> loader) {
+        return users.get(userId, loader);
+    }
+
+    public void evict(Long userId) {
+        users.invalidate(userId);
+    }
+
+    public void evictAll() {
+        users.invalidateAll();
+    }
+}
@@ -1,23 +1,26 @@
 package com.projects.airBnbApp.securities;
 
+import com.projects.airBnbApp.config.WorkloadBulkheadFilter;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
@@ -29,6 +32,8 @@ import java.io.IOException;
 public class WebSecurityConfig {
 
     private final JWTAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final WorkloadBulkheadFilter workloadBulkheadFilter;
 
     @Autowired
     @Qualifier("handlerExceptionResolver")
@@ -41,6 +46,9 @@ public class WebSecurityConfig {
                 .csrf(csrfConfig -> csrfConfig.disable())
                 .sessionManagement(sessionConfig -> sessionConfig.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Quotas are checked before authentication so rejected requests do no database work
+                .addFilterBefore(rateLimitFilter, JWTAuthFilter.class)
+                .addFilterAfter(workloadBulkheadFilter, AuthorizationFilter.class)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/admin/**").hasRole("HOTEL_MANAGER")
                         .requestMatchers("/bookings/**").authenticated()
@@ -51,9 +59,16 @@ public class WebSecurityConfig {
         return httpSecurity.build();
     }
 
+    // BCrypt cost is auth.password.cost when set, otherwise calibrated at startup to auth.password.target-ms
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+                                           @Value("${auth.password.cost:0}") int cost,
+                                           @Value("${auth.password.target-ms:250}") long targetMs,
+                                           @Value("${auth.password.min-cost:10}") int minCost,
+                                           @Value("${auth.password.max-cost:14}") int maxCost,
+                                           @Value("${auth.password.timeout-ms:5000}") long timeoutMs) {
+        int bcryptCost = cost > 0 ? cost : BoundedPasswordEncoder.calibrate(targetMs, minCost, maxCost);
+        return new BoundedPasswordEncoder(bcryptCost, passwordHashingExecutor, timeoutMs);
     }
 
     @Bean
@@ -0,0 +1,61 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.Booking;
+import com.projects.airBnbApp.enums.BookingStatus;
+import com.projects.airBnbApp.event.InventoryReleasedEvent;
+import com.projects.airBnbApp.repository.BookingRepository;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryService {
+
+    // Scheduler to give back the reserved count of holds that were never paid for. The jobs permit is
+    // taken before the transaction starts, so waiting for it never holds a connection.
+
+    private final BookingRepository bookingRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkloadBulkhead workloadBulkhead;
+
+    @Value("${booking.hold.expiry-minutes:10}")
+    private long holdExpiryMinutes;
+
+    @Scheduled(fixedDelayString = "${booking.hold.expiry-check-ms:60000}")
+    public void releaseExpiredHolds() {
+        workloadBulkhead.run(WorkloadBulkhead.JOBS, () -> transactionTemplate.executeWithoutResult(status -> expireHolds()));
+    }
+
+    private void expireHolds() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(holdExpiryMinutes);
+        List<Booking> expiredBookings = bookingRepository.findTop100ByBookingStatusInAndCreatedAtBeforeOrderByCreatedAt(
+                List.of(BookingStatus.RESERVED, BookingStatus.GUESTS_ADDED), cutoff);
+
+        for (Booking booking : expiredBookings) {
+            Long roomId = booking.getRoom().getId();
+            inventoryRepository.getInventoryAndLockBeforeUpdate(roomId, booking.getCheckInDate(), booking.getCheckOutDate());
+            inventoryRepository.releaseReservedInventory(roomId, booking.getCheckInDate(), booking.getCheckOutDate(),
+                    booking.getRoomsCount());
+
+            booking.setBookingStatus(BookingStatus.EXPIRED);
+            eventPublisher.publishEvent(new InventoryReleasedEvent(roomId, booking.getCheckInDate(), booking.getCheckOutDate()));
+        }
+
+        if (!expiredBookings.isEmpty()) {
+            log.info("Released {} expired booking holds", expiredBookings.size());
+        }
+    }
+}
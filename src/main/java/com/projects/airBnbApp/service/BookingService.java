@@ -3,6 +3,7 @@ package com.projects.airBnbApp.service;
 import com.projects.airBnbApp.dto.BookingDto;
 import com.projects.airBnbApp.dto.BookingRequest;
 import com.projects.airBnbApp.dto.HotelReportDto;
+import com.projects.airBnbApp.entity.User;
 import com.projects.airBnbApp.enums.BookingStatus;
 
 import java.time.LocalDate;
@@ -20,13 +21,13 @@ public interface BookingService {
     String initiatePayments(Long bookingId) throws Exception;
 
     /**
-     * Captures a Razorpay payment after verifying signature
+     * Confirms the booking of a captured Razorpay payment. The caller has already authenticated
+     * the notification (the webhook body's signature).
      *
      * @param paymentId Razorpay Payment ID
      * @param orderId   Razorpay Order ID
-     * @param signature Razorpay Signature
      */
-    void capturePayment(String paymentId, String orderId, String signature) throws Exception;
+    void capturePayment(String paymentId, String orderId) throws Exception;
 
     /**
      * Cancels a booking and refunds payment via Razorpay
@@ -42,4 +43,10 @@ public interface BookingService {
     List<BookingDto> getMyBookings();
 
     BookingDto initialiseBooking(BookingRequest bookingRequest);
+
+    /**
+     * Places a hold on behalf of the given user, e.g. when a waitlist entry is matched.
+     * Throws IllegalStateException when the room-nights are no longer available.
+     */
+    BookingDto initialiseBookingForUser(BookingRequest bookingRequest, User user);
 }
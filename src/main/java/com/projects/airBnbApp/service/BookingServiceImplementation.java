@@ -3,19 +3,23 @@ package com.projects.airBnbApp.service;
 import com.projects.airBnbApp.dto.*;
 import com.projects.airBnbApp.entity.*;
 import com.projects.airBnbApp.enums.BookingStatus;
+import com.projects.airBnbApp.enums.PaymentStatus;
+import com.projects.airBnbApp.event.InventoryReleasedEvent;
+import com.projects.airBnbApp.exception.InvalidBookingStateException;
+import com.projects.airBnbApp.exception.InvalidQuoteException;
 import com.projects.airBnbApp.exception.ResourceNotFoundException;
 import com.projects.airBnbApp.exception.UnAuthorisedException;
+import com.projects.airBnbApp.gateway.PaymentGatewayClient;
+import com.projects.airBnbApp.mapper.BookingMapper;
 import com.projects.airBnbApp.repository.*;
-import com.projects.airBnbApp.strategy.PricingService;
-import com.razorpay.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONObject;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -34,34 +38,32 @@ import static com.projects.airBnbApp.util.AppUtils.getCurrentUser;
 public class BookingServiceImplementation implements BookingService {
 
     private final GuestRepository guestRepository;
-    private final ModelMapper modelMapper;
+    private final BookingMapper bookingMapper;
     private final BookingRepository bookingRepository;
     private final HotelRepository hotelRepository;
     private final RoomRepository roomRepository;
     private final InventoryRepository inventoryRepository;
-    private final PricingService pricingService;
+    private final InventoryAnalyticsService inventoryAnalyticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaymentRepository paymentRepository;
+    private final PriceQuoteService priceQuoteService;
+
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final TransactionTemplate transactionTemplate;
 
     // Optional: allows backend-only runs without defining frontend.url
     @Value("${frontend.url:#{null}}")
     private String frontendUrl; // null -> return relative path [web:41][web:25]
 
-    // Optional: validated only when calling Razorpay flows
-    @Value("${razorpay.key.id:#{null}}")
-    private String razorpayKey; // validated lazily [web:27][web:33]
-
-    @Value("${razorpay.key.secret:#{null}}")
-    private String razorpaySecret; // validated lazily [web:27][web:33]
-
-    private RazorpayClient razorpayClient() throws RazorpayException {
-        if (razorpayKey == null || razorpaySecret == null) {
-            throw new IllegalStateException("Razorpay keys are not configured. Set razorpay.key.id and razorpay.key.secret to enable payments.");
-        }
-        return new RazorpayClient(razorpayKey, razorpaySecret);
+    @Override
+    @Transactional
+    public BookingDto initialiseBooking(BookingRequest bookingRequest) {
+        return initialiseBookingForUser(bookingRequest, getCurrentUser());
     }
 
     @Override
     @Transactional
-    public BookingDto initialiseBooking(BookingRequest bookingRequest) {
+    public BookingDto initialiseBookingForUser(BookingRequest bookingRequest, User user) {
         log.info("Initialising booking for hotel : {}, room: {}, date {}-{}", bookingRequest.getHotelId(),
                 bookingRequest.getRoomId(), bookingRequest.getCheckInDate(), bookingRequest.getCheckOutDate());
 
@@ -71,6 +73,10 @@ public class BookingServiceImplementation implements BookingService {
         Room room = roomRepository.findById(bookingRequest.getRoomId())
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + bookingRequest.getRoomId()));
 
+        // Verified or priced before taking the locks, so the locked section only compares a fingerprint
+        PriceQuoteService.QuotedPrice quotedPrice = bookingRequest.getQuoteToken() == null
+                ? priceQuoteService.price(room, bookingRequest) : priceQuoteService.verify(bookingRequest);
+
         List<Inventory> inventoryList = inventoryRepository.findAndLockAvailableInventory(
                 room.getId(),
                 bookingRequest.getCheckInDate(),
@@ -83,6 +89,13 @@ public class BookingServiceImplementation implements BookingService {
             throw new IllegalStateException("Room is not available anymore");
         }
 
+        if (!quotedPrice.fingerprint().equals(priceQuoteService.fingerprint(inventoryList, room.getBasePrice(),
+                room.getHotel().getPricingRulesVersion()))) {
+            throw new InvalidQuoteException(bookingRequest.getQuoteToken() == null
+                    ? "Prices changed while the booking was being placed, please try again"
+                    : "Prices have changed since the quote was issued, please request a new quote");
+        }
+
         inventoryRepository.initBooking(
                 room.getId(),
                 bookingRequest.getCheckInDate(),
@@ -90,22 +103,19 @@ public class BookingServiceImplementation implements BookingService {
                 bookingRequest.getRoomsCount()
         );
 
-        BigDecimal priceForOneRoom = pricingService.calculateTotalPrice(inventoryList);
-        BigDecimal totalPrice = priceForOneRoom.multiply(BigDecimal.valueOf(bookingRequest.getRoomsCount()));
-
         Booking booking = Booking.builder()
                 .bookingStatus(BookingStatus.RESERVED)
                 .hotel(hotel)
                 .room(room)
                 .checkInDate(bookingRequest.getCheckInDate())
                 .checkOutDate(bookingRequest.getCheckOutDate())
-                .user(getCurrentUser())
+                .user(user)
                 .roomsCount(bookingRequest.getRoomsCount())
-                .amount(totalPrice)
+                .amount(quotedPrice.totalPrice())
                 .build();
 
         booking = bookingRepository.save(booking);
-        return modelMapper.map(booking, BookingDto.class);
+        return bookingMapper.toDto(booking);
     }
 
     @Override
@@ -137,58 +147,75 @@ public class BookingServiceImplementation implements BookingService {
 
         booking.setBookingStatus(BookingStatus.GUESTS_ADDED);
         booking = bookingRepository.save(booking);
-        return modelMapper.map(booking, BookingDto.class);
+        return bookingMapper.toDto(booking);
     }
 
+    // Gateway calls run outside any DB transaction: validate in one short transaction,
+    // call the gateway, then record the order in a second one. The hold can expire while the
+    // gateway call is in flight, so the second transaction only moves a booking that is still held.
     @Override
-    @Transactional
     public String initiatePayments(Long bookingId) throws Exception {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
-
-        User user = getCurrentUser();
-        if (!user.equals(booking.getUser())) {
-            throw new UnAuthorisedException("Booking does not belong to this user with id: " + user.getId());
-        }
-        if (hasBookingExpired(booking)) {
-            throw new IllegalStateException("Booking has already expired");
+        BigDecimal amount = transactionTemplate.execute(status -> {
+            Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+
+            User user = getCurrentUser();
+            if (!user.equals(booking.getUser())) {
+                throw new UnAuthorisedException("Booking does not belong to this user with id: " + user.getId());
+            }
+            if (hasBookingExpired(booking)) {
+                throw new IllegalStateException("Booking has already expired");
+            }
+            if (booking.getBookingStatus() != BookingStatus.RESERVED
+                    && booking.getBookingStatus() != BookingStatus.GUESTS_ADDED) {
+                throw new InvalidBookingStateException("Booking is " + booking.getBookingStatus() + ", cannot start a payment");
+            }
+            return booking.getAmount();
+        });
+
+        String orderId = paymentGatewayClient.createOrder(amount, "INR", "order_" + bookingId);
+
+        Integer updated = transactionTemplate.execute(status -> bookingRepository.markPaymentsPending(bookingId, orderId));
+        if (updated == null || updated == 0) {
+            // The order is never handed to the client, so it cannot be paid and expires on the gateway
+            log.warn("Abandoning order: {} because booking: {} is no longer held", orderId, bookingId);
+            throw new InvalidBookingStateException("Booking is no longer held, cannot start a payment");
         }
 
-        RazorpayClient client = razorpayClient(); // validates keys lazily [web:27][web:33]
-
-        JSONObject options = new JSONObject();
-        options.put("amount", booking.getAmount().multiply(BigDecimal.valueOf(100)).intValue()); // paise
-        options.put("currency", "INR");
-        options.put("receipt", "order_" + booking.getId());
-
-        Order order = client.Orders.create(options);
-
-        booking.setPaymentOrderId(order.get("id").toString());
-        booking.setBookingStatus(BookingStatus.PAYMENTS_PENDING);
-        bookingRepository.save(booking);
-
-        String relative = "/payments/" + bookingId + "/status?orderId=" + order.get("id");
+        String relative = "/payments/" + bookingId + "/status?orderId=" + orderId;
         return (frontendUrl == null) ? relative : (frontendUrl + relative);
     }
 
+    // Only a PAYMENTS_PENDING booking is confirmed. A payment that lands after the booking was
+    // expired or cancelled (its rooms are already released) is queued for refund instead.
     @Override
     @Transactional
-    public void capturePayment(String paymentId, String orderId, String signature) throws Exception {
-        Booking booking = bookingRepository.findByPaymentOrderId(orderId)
+    public void capturePayment(String paymentId, String orderId) throws Exception {
+        Booking booking = bookingRepository.findAndLockByPaymentOrderId(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found for order ID: " + orderId));
 
-        JSONObject params = new JSONObject();
-        params.put("razorpay_order_id", orderId);
-        params.put("razorpay_payment_id", paymentId);
-        params.put("razorpay_signature", signature);
+        // Redelivered webhook for a payment that was already confirmed or queued for refund
+        if (paymentId.equals(booking.getPaymentId()) || paymentRepository.existsByTransactionId(paymentId)) {
+            log.info("Payment ID: {} for Booking ID: {} was already recorded", paymentId, booking.getId());
+            return;
+        }
 
-        // SDK helper validates HMAC signature [web:27]
-        Utils.verifyPaymentSignature(params, razorpaySecret);
+        if (booking.getBookingStatus() != BookingStatus.PAYMENTS_PENDING) {
+            refundLatePayment(booking, paymentId);
+            return;
+        }
 
         booking.setPaymentId(paymentId);
         booking.setBookingStatus(BookingStatus.CONFIRMED);
         bookingRepository.save(booking);
 
+        Payment payment = new Payment();
+        payment.setTransactionId(paymentId);
+        payment.setPaymentStatus(PaymentStatus.CONFIRMED);
+        payment.setAmount(booking.getAmount());
+        payment.setBooking(booking);
+        paymentRepository.save(payment);
+
         inventoryRepository.findAndLockReservedInventory(
                 booking.getRoom().getId(),
                 booking.getCheckInDate(),
@@ -202,49 +229,78 @@ public class BookingServiceImplementation implements BookingService {
                 booking.getCheckOutDate(),
                 booking.getRoomsCount()
         );
+        inventoryAnalyticsService.markDirty(booking.getHotel().getId(), booking.getCheckInDate(), booking.getCheckOutDate());
 
         log.info("Successfully confirmed the booking for Booking ID: {}", booking.getId());
     }
 
+    private void refundLatePayment(Booking booking, String paymentId) {
+        Payment payment = new Payment();
+        payment.setTransactionId(paymentId);
+        payment.setAmount(booking.getAmount());
+        // A booking links to one payment; a second charge on an already paid booking is refunded unlinked
+        if (paymentRepository.findByBooking(booking).isEmpty()) {
+            payment.setBooking(booking);
+        }
+        payment.setPaymentStatus(PaymentStatus.REFUND_PENDING);
+        payment.setNextAttemptAt(LocalDateTime.now());
+        paymentRepository.save(payment);
+
+        log.warn("Payment ID: {} arrived for Booking ID: {} in status {}, queued for refund", paymentId,
+                booking.getId(), booking.getBookingStatus());
+    }
+
+    // The cancellation commits locally together with a REFUND_PENDING payment;
+    // RefundProcessor submits the refund to the gateway afterwards.
     @Override
     @Transactional
     public void cancelBooking(Long bookingId) throws Exception {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking cancelledBooking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
 
         User user = getCurrentUser();
-        if (!user.equals(booking.getUser())) {
+        if (!user.equals(cancelledBooking.getUser())) {
             throw new UnAuthorisedException("Booking does not belong to this user with id: " + user.getId());
         }
 
-        if (booking.getBookingStatus() != BookingStatus.CONFIRMED) {
+        if (cancelledBooking.getBookingStatus() != BookingStatus.CONFIRMED) {
             throw new IllegalStateException("Only confirmed bookings can be cancelled");
         }
 
-        booking.setBookingStatus(BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
+        cancelledBooking.setBookingStatus(BookingStatus.CANCELLED);
+        bookingRepository.save(cancelledBooking);
 
         inventoryRepository.findAndLockReservedInventory(
-                booking.getRoom().getId(),
-                booking.getCheckInDate(),
-                booking.getCheckOutDate(),
-                booking.getRoomsCount()
+                cancelledBooking.getRoom().getId(),
+                cancelledBooking.getCheckInDate(),
+                cancelledBooking.getCheckOutDate(),
+                cancelledBooking.getRoomsCount()
         );
 
         inventoryRepository.cancelBooking(
-                booking.getRoom().getId(),
-                booking.getCheckInDate(),
-                booking.getCheckOutDate(),
-                booking.getRoomsCount()
+                cancelledBooking.getRoom().getId(),
+                cancelledBooking.getCheckInDate(),
+                cancelledBooking.getCheckOutDate(),
+                cancelledBooking.getRoomsCount()
         );
-
-        // Refund via Razorpay
-        RazorpayClient client = razorpayClient();
-        JSONObject refundOptions = new JSONObject();
-        refundOptions.put("amount", booking.getAmount().multiply(BigDecimal.valueOf(100)).intValue()); // paise
-        client.Payments.refund(booking.getPaymentId(), refundOptions);
-
-        log.info("Refund successful for Payment ID: {}", booking.getPaymentId());
+        inventoryAnalyticsService.markDirty(cancelledBooking.getHotel().getId(), cancelledBooking.getCheckInDate(),
+                cancelledBooking.getCheckOutDate());
+        eventPublisher.publishEvent(new InventoryReleasedEvent(cancelledBooking.getRoom().getId(),
+                cancelledBooking.getCheckInDate(), cancelledBooking.getCheckOutDate()));
+
+        // Bookings confirmed before payments were recorded have no Payment row yet
+        Payment payment = paymentRepository.findByBooking(cancelledBooking).orElseGet(() -> {
+            Payment legacyPayment = new Payment();
+            legacyPayment.setTransactionId(cancelledBooking.getPaymentId());
+            legacyPayment.setAmount(cancelledBooking.getAmount());
+            legacyPayment.setBooking(cancelledBooking);
+            return legacyPayment;
+        });
+        payment.setPaymentStatus(PaymentStatus.REFUND_PENDING);
+        payment.setNextAttemptAt(LocalDateTime.now());
+        paymentRepository.save(payment);
+
+        log.info("Queued refund for Payment ID: {}", cancelledBooking.getPaymentId());
     }
 
     @Override
@@ -271,7 +327,7 @@ public class BookingServiceImplementation implements BookingService {
         }
 
         return bookingRepository.findByHotel(hotel).stream()
-                .map(b -> modelMapper.map(b, BookingDto.class))
+                .map(bookingMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -309,7 +365,7 @@ public class BookingServiceImplementation implements BookingService {
     public List<BookingDto> getMyBookings() {
         User user = getCurrentUser();
         return bookingRepository.findByUser(user).stream()
-                .map(b -> modelMapper.map(b, BookingDto.class))
+                .map(bookingMapper::toDto)
                 .collect(Collectors.toList());
     }
 
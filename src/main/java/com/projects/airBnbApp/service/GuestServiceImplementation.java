@@ -3,11 +3,11 @@ package com.projects.airBnbApp.service;
 import com.projects.airBnbApp.dto.GuestDto;
 import com.projects.airBnbApp.entity.Guest;
 import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.mapper.GuestMapper;
 import com.projects.airBnbApp.repository.GuestRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
@@ -22,7 +22,7 @@ import static com.projects.airBnbApp.util.AppUtils.getCurrentUser;
 public class GuestServiceImplementation implements GuestService {
 
     private final GuestRepository guestRepository;
-    private final ModelMapper modelMapper;
+    private final GuestMapper guestMapper;
 
     @Override
     public List<GuestDto> getAllGuests() {
@@ -30,7 +30,7 @@ public class GuestServiceImplementation implements GuestService {
         log.info("Fetching all guests of user with id: {}", user.getId());
         List<Guest> guests = guestRepository.findByUser(user);
         return guests.stream()
-                .map(guest -> modelMapper.map(guest, GuestDto.class))
+                .map(guestMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -38,11 +38,11 @@ public class GuestServiceImplementation implements GuestService {
     public GuestDto addNewGuest(GuestDto guestDto) {
         log.info("Adding new guest: {}", guestDto);
         User user = getCurrentUser();
-        Guest guest = modelMapper.map(guestDto, Guest.class);
+        Guest guest = guestMapper.toEntity(guestDto);
         guest.setUser(user);
         Guest savedGuest = guestRepository.save(guest);
         log.info("Guest added with ID: {}", savedGuest.getId());
-        return modelMapper.map(savedGuest, GuestDto.class);
+        return guestMapper.toDto(savedGuest);
     }
 
     @Override
@@ -54,7 +54,7 @@ public class GuestServiceImplementation implements GuestService {
         User user = getCurrentUser();
         if(!user.equals(guest.getUser())) throw new AccessDeniedException("You are not the owner of this guest");
 
-        modelMapper.map(guestDto, guest);
+        guestMapper.updateEntity(guestDto, guest);
         guest.setUser(user);
         guest.setId(guestId);
 
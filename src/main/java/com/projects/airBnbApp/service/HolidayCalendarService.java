@@ -0,0 +1,205 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Holiday and event calendar used by holiday pricing. Loaded from {@code holidays.calendar.file}
+ * when set, otherwise from {@code holidays.csv} on the classpath, with rows
+ * {@code region,start_date,end_date,name}. Region {@code *} applies everywhere; any other region
+ * is matched against the inventory city, ignoring case. The file is re-read when it changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HolidayCalendarService {
+
+    private static final String ALL_REGIONS = "*";
+
+    private final InventoryRepository inventoryRepository;
+    private final WorkloadBulkhead workloadBulkhead;
+
+    @Value("${holidays.calendar.file:}")
+    private String calendarFile;
+
+    private volatile CalendarSnapshot snapshot = CalendarSnapshot.EMPTY;
+    private volatile FileTime loadedAt;
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (calendarFile.isBlank()) {
+            try (Reader reader = new InputStreamReader(new ClassPathResource("holidays.csv").getInputStream(),
+                    StandardCharsets.UTF_8)) {
+                snapshot = parse(reader);
+            }
+        } else {
+            Path path = Path.of(calendarFile);
+            loadedAt = Files.getLastModifiedTime(path);
+            try (Reader reader = Files.newBufferedReader(path)) {
+                snapshot = parse(reader);
+            }
+        }
+        log.info("Loaded holiday calendar with {} regions from {}", snapshot.regions.size(),
+                calendarFile.isBlank() ? "classpath:holidays.csv" : calendarFile);
+    }
+
+    @Scheduled(fixedDelayString = "${holidays.calendar.reload-check-ms:60000}")
+    public void reloadIfChanged() {
+        if (calendarFile.isBlank()) return;
+        try {
+            if (!Files.getLastModifiedTime(Path.of(calendarFile)).equals(loadedAt)) {
+                CalendarSnapshot previous = snapshot;
+                load();
+                CalendarSnapshot current = snapshot;
+                workloadBulkhead.run(WorkloadBulkhead.JOBS, () -> markChangedDatesDirty(previous, current));
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Keep serving the previous calendar until the file is fixed
+            log.error("Could not reload holiday calendar from {}", calendarFile, ex);
+        }
+    }
+
+    public boolean isHoliday(String city, LocalDate date) {
+        return snapshot.isHoliday(city, date);
+    }
+
+    // Canonical text of the loaded calendar, equal for calendars with the same holidays per region
+    public String calendarContent() {
+        return snapshot.content();
+    }
+
+    // Column form for batch pricing: result[i] is set for each of the first count epoch days
+    public void markHolidays(String city, int[] epochDays, int count, boolean[] result) {
+        snapshot.markHolidays(city, epochDays, count, result);
+    }
+
+    // Inventory on days that became or stopped being holidays needs repricing
+    private void markChangedDatesDirty(CalendarSnapshot previous, CalendarSnapshot current) {
+        long today = LocalDate.now().toEpochDay();
+        Set<String> regions = new HashSet<>(previous.regions.keySet());
+        regions.addAll(current.regions.keySet());
+
+        int marked = 0;
+        for (String region : regions) {
+            Set<Long> changed = previous.epochDays(region);
+            Set<Long> now = current.epochDays(region);
+            for (Long day : now) {
+                if (!changed.remove(day)) changed.add(day);
+            }
+            changed.removeIf(day -> day < today);
+            if (changed.isEmpty()) continue;
+
+            List<LocalDate> dates = changed.stream().map(LocalDate::ofEpochDay).toList();
+            marked += ALL_REGIONS.equals(region)
+                    ? inventoryRepository.markPriceDirtyOnDates(dates)
+                    : inventoryRepository.markPriceDirtyOnDatesInCity(region, dates);
+        }
+        log.info("Holiday calendar changed, marked {} inventory rows for repricing", marked);
+    }
+
+    private static CalendarSnapshot parse(Reader source) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        long minEpochDay = Long.MAX_VALUE;
+        try (BufferedReader reader = new BufferedReader(source)) {
+            reader.readLine(); // header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] columns = line.split(",", 4);
+                rows.add(columns);
+                minEpochDay = Math.min(minEpochDay, LocalDate.parse(columns[1].trim()).toEpochDay());
+            }
+        }
+        if (rows.isEmpty()) return CalendarSnapshot.EMPTY;
+
+        Map<String, BitSet> regions = new HashMap<>();
+        for (String[] columns : rows) {
+            String region = columns[0].trim().toLowerCase(Locale.ROOT);
+            LocalDate start = LocalDate.parse(columns[1].trim());
+            LocalDate end = columns.length > 2 && !columns[2].isBlank() ? LocalDate.parse(columns[2].trim()) : start;
+            if (end.isBefore(start)) {
+                throw new IllegalArgumentException("Holiday ends before it starts: " + String.join(",", columns));
+            }
+            regions.computeIfAbsent(region, key -> new BitSet())
+                    .set((int) (start.toEpochDay() - minEpochDay), (int) (end.toEpochDay() - minEpochDay) + 1);
+        }
+        return new CalendarSnapshot(minEpochDay, regions);
+    }
+
+    /**
+     * One bit per day per region, offset from the earliest date in the calendar.
+     */
+    private static final class CalendarSnapshot {
+
+        static final CalendarSnapshot EMPTY = new CalendarSnapshot(0, Map.of());
+
+        private final long baseEpochDay;
+        private final Map<String, BitSet> regions;
+        private final BitSet allRegions;
+
+        CalendarSnapshot(long baseEpochDay, Map<String, BitSet> regions) {
+            this.baseEpochDay = baseEpochDay;
+            this.regions = regions;
+            this.allRegions = regions.getOrDefault(ALL_REGIONS, new BitSet());
+        }
+
+        boolean isHoliday(String city, LocalDate date) {
+            long offset = date.toEpochDay() - baseEpochDay;
+            if (offset < 0 || offset > Integer.MAX_VALUE) return false;
+            if (allRegions.get((int) offset)) return true;
+            if (city == null) return false;
+            BitSet region = regions.get(city.toLowerCase(Locale.ROOT));
+            return region != null && region.get((int) offset);
+        }
+
+        void markHolidays(String city, int[] epochDays, int count, boolean[] result) {
+            BitSet region = city == null ? null : regions.get(city.toLowerCase(Locale.ROOT));
+            for (int i = 0; i < count; i++) {
+                long offset = epochDays[i] - baseEpochDay;
+                result[i] = offset >= 0 && offset <= Integer.MAX_VALUE
+                        && (allRegions.get((int) offset) || region != null && region.get((int) offset));
+            }
+        }
+
+        String content() {
+            StringBuilder content = new StringBuilder().append(baseEpochDay);
+            new TreeMap<>(regions).forEach((region, bits) -> content.append('|').append(region).append(bits));
+            return content.toString();
+        }
+
+        Set<Long> epochDays(String region) {
+            Set<Long> days = new HashSet<>();
+            BitSet bits = regions.get(region);
+            if (bits != null) {
+                bits.stream().forEach(offset -> days.add(baseEpochDay + offset));
+            }
+            return days;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.projects.airBnbApp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projects.airBnbApp.advice.ApiResponse;
+import com.projects.airBnbApp.dto.HotelInfoDto;
+import com.projects.airBnbApp.dto.RoomDto;
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.mapper.HotelMapper;
+import com.projects.airBnbApp.mapper.RoomMapper;
+import com.projects.airBnbApp.repository.HotelRepository;
+import com.projects.airBnbApp.repository.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Public hotel info (hotel and rooms) serialised once, already wrapped in ApiResponse, and served
+ * as bytes until a hotel or room write evicts it. The ETag is a hash of the hotel's and its rooms'
+ * ids and updatedAt, so it changes whenever the content can.
+ * <p>
+ * Entries also expire after {@code hotel-info.cache.ttl-ms}, which bounds staleness when another
+ * node made the write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotelInfoCache {
+
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final HotelMapper hotelMapper;
+    private final RoomMapper roomMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${hotel-info.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${hotel-info.cache.max-entries:10000}")
+    private int maxEntries;
+
+    private Cache<Long, CachedHotelInfo> entries;
+
+    @PostConstruct
+    public void initCache() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    // Concurrent misses for the same hotel wait for one load instead of each querying the database
+    public CachedHotelInfo get(Long hotelId) {
+        return entries.get(hotelId, this::load);
+    }
+
+    // Runs after commit when called inside a transaction, so a concurrent read cannot re-cache the old state
+    public void evict(Long hotelId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.invalidate(hotelId);
+                }
+            });
+        } else {
+            entries.invalidate(hotelId);
+        }
+    }
+
+    private CachedHotelInfo load(Long hotelId) {
+        log.info("Loading info of hotel with id: {}", hotelId);
+        Hotel hotel = hotelRepository
+                .findById(hotelId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID:" + hotelId));
+        List<Room> rooms = roomRepository.findByHotelIdOrderByIdAsc(hotelId);
+
+        StringBuilder version = new StringBuilder().append(hotel.getId()).append(':').append(hotel.getUpdatedAt());
+        for (Room room : rooms) {
+            version.append('|').append(room.getId()).append(':').append(room.getUpdatedAt());
+        }
+
+        List<RoomDto> roomDtos = rooms.stream().map(roomMapper::toDto).toList();
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new ApiResponse<>(new HotelInfoDto(hotelMapper.toDto(hotel), roomDtos)));
+            return new CachedHotelInfo(body, "\"" + hash(version.toString()) + "\"");
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialise info of hotel with id: " + hotelId, ex);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public record CachedHotelInfo(byte[] body, String etag) {
+    }
+}
@@ -1,7 +1,6 @@
 package com.projects.airBnbApp.service;
 
 import com.projects.airBnbApp.dto.HotelDto;
-import com.projects.airBnbApp.dto.HotelInfoDto;
 import com.projects.airBnbApp.entity.Hotel;
 
 import java.util.List;
@@ -16,6 +15,4 @@ public interface HotelService {
     void activateHotel(Long hotelId);
 
     List<HotelDto> getAllHotels();
-
-    HotelInfoDto getHotelInfoById(Long hotelId);
 }
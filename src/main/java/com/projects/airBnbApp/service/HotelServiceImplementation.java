@@ -1,17 +1,15 @@
 package com.projects.airBnbApp.service;
 
 import com.projects.airBnbApp.dto.HotelDto;
-import com.projects.airBnbApp.dto.HotelInfoDto;
-import com.projects.airBnbApp.dto.RoomDto;
 import com.projects.airBnbApp.entity.Hotel;
 import com.projects.airBnbApp.entity.Room;
 import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.mapper.HotelMapper;
 import com.projects.airBnbApp.repository.HotelRepository;
 import com.projects.airBnbApp.repository.RoomRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -24,7 +22,8 @@ import java.util.stream.Collectors;
 
 public class HotelServiceImplementation implements HotelService {
     private final HotelRepository hotelRepository;
-    private final ModelMapper modelMapper;
+    private final HotelMapper hotelMapper;
+    private final HotelInfoCache hotelInfoCache;
     private final InventoryService inventoryService;
     private final RoomRepository roomRepository;
 
@@ -34,11 +33,11 @@ public class HotelServiceImplementation implements HotelService {
     @Override
     public HotelDto createNewHotel(HotelDto hotelDto){
         log.info("Creating a new Hotel with name: {}", hotelDto.getName());
-        Hotel hotel = modelMapper.map(hotelDto, Hotel.class);
+        Hotel hotel = hotelMapper.toEntity(hotelDto);
         hotel.setActive(false);
         hotel = hotelRepository.save(hotel);
         log.info("Hotel with id: {} has been created", hotel.getId());
-        return modelMapper.map(hotel, HotelDto.class);
+        return hotelMapper.toDto(hotel);
     }
 
     @Override
@@ -47,7 +46,7 @@ public class HotelServiceImplementation implements HotelService {
        Hotel hotel = hotelRepository
                .findById(id)
                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID:"+id));
-       return modelMapper.map(hotel, HotelDto.class);
+       return hotelMapper.toDto(hotel);
     }
 
     @Override
@@ -58,12 +57,11 @@ public class HotelServiceImplementation implements HotelService {
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID:"+id));
 
         // map fields except ID
-        Long hotelId = hotel.getId();  // keep the existing id
-        modelMapper.map(hotelDto, hotel);
-        hotel.setId(hotelId);          // restore id just in case
+        hotelMapper.updateEntity(hotelDto, hotel);
 
         hotel = hotelRepository.save(hotel);
-        return modelMapper.map(hotel, HotelDto.class);
+        hotelInfoCache.evict(id);
+        return hotelMapper.toDto(hotel);
     }
 
 
@@ -85,6 +83,7 @@ public class HotelServiceImplementation implements HotelService {
             roomRepository.deleteById(room.getId());
         }
         hotelRepository.deleteById(id);
+        hotelInfoCache.evict(id);
 
     }
 
@@ -96,6 +95,7 @@ public class HotelServiceImplementation implements HotelService {
                 .findById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID:"+hotelId));
         hotel.setActive(true);
+        hotelInfoCache.evict(hotelId);
         //assuminh only do it once
         for(Room room : hotel.getRooms()){
             inventoryService.initializeRoomForAYear(room);
@@ -107,23 +107,10 @@ public class HotelServiceImplementation implements HotelService {
     public List<HotelDto> getAllHotels() {
         List<Hotel> hotels = hotelRepository.findAll();
         return hotels.stream()
-                .map(hotel -> modelMapper.map(hotel, HotelDto.class))
+                .map(hotelMapper::toDto)
                 .toList();
     }
 
-    @Override
-    public HotelInfoDto getHotelInfoById(Long hotelId){
-        Hotel hotel = hotelRepository
-                .findById(hotelId)
-                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID:"+hotelId));
-                List<RoomDto> rooms = hotel.getRooms()
-                        .stream()
-                        .map((element) -> modelMapper.map(element, RoomDto.class))
-                        .toList();
-                return new HotelInfoDto(modelMapper.map(hotel,HotelDto.class),rooms);
-
-    }
-
 
 
 
@@ -0,0 +1,23 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.dto.HotelOccupancyReportDto;
+import com.projects.airBnbApp.enums.AnalyticsGranularity;
+
+import java.time.LocalDate;
+
+public interface InventoryAnalyticsService {
+
+    HotelOccupancyReportDto getOccupancyReport(Long hotelId, LocalDate startDate, LocalDate endDate,
+                                               AnalyticsGranularity granularity);
+
+    /**
+     * Marks the given date range of a hotel as changed, so cached reports recompute only those days.
+     * When called inside a transaction the range is marked after commit.
+     */
+    void markDirty(Long hotelId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Drops every cached report of the hotel, e.g. when rooms are added or removed.
+     */
+    void invalidateHotel(Long hotelId);
+}
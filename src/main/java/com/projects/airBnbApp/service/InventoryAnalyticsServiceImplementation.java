@@ -0,0 +1,308 @@
+package com.projects.airBnbApp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projects.airBnbApp.dto.HotelOccupancyReportDto;
+import com.projects.airBnbApp.dto.InventoryStatsDto;
+import com.projects.airBnbApp.dto.OccupancyMetricsDto;
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.enums.AnalyticsGranularity;
+import com.projects.airBnbApp.exception.InvalidAnalyticsRangeException;
+import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.repository.HotelRepository;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.projects.airBnbApp.util.AppUtils.getCurrentUser;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryAnalyticsServiceImplementation implements InventoryAnalyticsService {
+
+    private final HotelRepository hotelRepository;
+    private final InventoryRepository inventoryRepository;
+
+    @Value("${analytics.cache.max-entries:256}")
+    private int maxCacheEntries;
+
+    // markDirty and invalidateHotel only reach this node, so bounds how long another node's changes go unseen
+    @Value("${analytics.cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    // Every cached period holds a column per day and room, so the span is capped
+    @Value("${analytics.max-range-days:731}")
+    private long maxRangeDays;
+
+    private Cache<StatsKey, HotelDailyStats> cache;
+
+    @PostConstruct
+    public void initCache() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxCacheEntries)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    @Override
+    public HotelOccupancyReportDto getOccupancyReport(Long hotelId, LocalDate startDate, LocalDate endDate,
+                                                      AnalyticsGranularity granularity) {
+        log.info("Computing occupancy report for hotel with id: {} between {} - {} by {}", hotelId, startDate, endDate, granularity);
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID: " + hotelId));
+
+        User user = getCurrentUser();
+        if (!user.equals(hotel.getOwner())) {
+            throw new AccessDeniedException("You are not the owner of hotel with id: " + hotelId);
+        }
+
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidAnalyticsRangeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) + 1 > maxRangeDays) {
+            throw new InvalidAnalyticsRangeException("Date range must not exceed " + maxRangeDays + " days");
+        }
+
+        StatsKey key = new StatsKey(hotelId, startDate, endDate);
+        HotelDailyStats stats = cache.get(key, k -> new HotelDailyStats(startDate, endDate));
+
+        // A lock rather than synchronized: the refresh queries the database, and a virtual thread
+        // blocking inside a monitor would pin its carrier thread
+        stats.lock.lock();
+        try {
+            stats.refresh(hotelId, inventoryRepository);
+            return stats.toReport(hotelId, granularity);
+        } finally {
+            stats.lock.unlock();
+        }
+    }
+
+    @Override
+    public void markDirty(Long hotelId, LocalDate startDate, LocalDate endDate) {
+        runAfterCommit(() -> cache.asMap().forEach((key, stats) -> {
+            if (key.hotelId().equals(hotelId)) {
+                stats.markDirty(startDate, endDate);
+            }
+        }));
+    }
+
+    @Override
+    public void invalidateHotel(Long hotelId) {
+        runAfterCommit(() -> cache.asMap().keySet().removeIf(key -> key.hotelId().equals(hotelId)));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record StatsKey(Long hotelId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    /**
+     * Daily columns per room for one (hotel, period). Only days flagged in {@code dirtyDays} are re-read.
+     */
+    private static final class HotelDailyStats {
+
+        private final LocalDate startDate;
+        private final int days;
+        private final Map<Long, RoomSeries> rooms = new LinkedHashMap<>();
+        private final BitSet dirtyDays;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        HotelDailyStats(LocalDate startDate, LocalDate endDate) {
+            this.startDate = startDate;
+            this.days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+            this.dirtyDays = new BitSet(days);
+            this.dirtyDays.set(0, days);
+        }
+
+        void markDirty(LocalDate from, LocalDate to) {
+            long fromIndex = Math.max(0, ChronoUnit.DAYS.between(startDate, from));
+            long toIndex = Math.min(days - 1, ChronoUnit.DAYS.between(startDate, to));
+            if (fromIndex > toIndex) return;
+            synchronized (dirtyDays) {
+                dirtyDays.set((int) fromIndex, (int) toIndex + 1);
+            }
+        }
+
+        void refresh(Long hotelId, InventoryRepository inventoryRepository) {
+            BitSet pending;
+            synchronized (dirtyDays) {
+                pending = (BitSet) dirtyDays.clone();
+                dirtyDays.clear();
+            }
+
+            try {
+                for (int from = pending.nextSetBit(0); from >= 0; from = pending.nextSetBit(from)) {
+                    int to = pending.nextClearBit(from);
+                    for (RoomSeries series : rooms.values()) {
+                        series.clear(from, to);
+                    }
+
+                    List<InventoryStatsDto> rows = inventoryRepository.findInventoryStats(hotelId,
+                            startDate.plusDays(from), startDate.plusDays(to - 1));
+                    for (InventoryStatsDto row : rows) {
+                        int day = (int) ChronoUnit.DAYS.between(startDate, row.getDate());
+                        rooms.computeIfAbsent(row.getRoomId(), id -> new RoomSeries(id, row.getRoomType(), days))
+                                .set(day, row);
+                    }
+                    from = to;
+                }
+            } catch (RuntimeException ex) {
+                synchronized (dirtyDays) {
+                    dirtyDays.or(pending);
+                }
+                throw ex;
+            }
+        }
+
+        HotelOccupancyReportDto toReport(Long hotelId, AnalyticsGranularity granularity) {
+            List<LocalDate> bucketStarts = new ArrayList<>();
+            int[] bucketOf = new int[days];
+            LocalDate currentBucket = null;
+            for (int day = 0; day < days; day++) {
+                LocalDate bucket = bucketStart(startDate.plusDays(day), granularity);
+                if (!bucket.equals(currentBucket)) {
+                    currentBucket = bucket;
+                    bucketStarts.add(day == 0 ? startDate : bucket);
+                }
+                bucketOf[day] = bucketStarts.size() - 1;
+            }
+            int bucketCount = bucketStarts.size();
+
+            List<long[][]> perRoom = rooms.values().parallelStream()
+                    .map(series -> series.rollUp(bucketOf, bucketCount))
+                    .toList();
+
+            long[][] hotelTotals = new long[3][bucketCount];
+            List<OccupancyMetricsDto> roomMetrics = new ArrayList<>();
+            int index = 0;
+            for (RoomSeries series : rooms.values()) {
+                long[][] totals = perRoom.get(index++);
+                for (int bucket = 0; bucket < bucketCount; bucket++) {
+                    if (totals[0][bucket] == 0 && totals[1][bucket] == 0) continue;
+                    hotelTotals[0][bucket] += totals[0][bucket];
+                    hotelTotals[1][bucket] += totals[1][bucket];
+                    hotelTotals[2][bucket] += totals[2][bucket];
+                    roomMetrics.add(toMetrics(series.roomId, series.roomType, bucketStarts, bucket, totals));
+                }
+            }
+            roomMetrics.sort(Comparator.comparing(OccupancyMetricsDto::getPeriodStart));
+
+            List<OccupancyMetricsDto> hotelMetrics = new ArrayList<>(bucketCount);
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                hotelMetrics.add(toMetrics(null, null, bucketStarts, bucket, hotelTotals));
+            }
+
+            return new HotelOccupancyReportDto(hotelId, startDate, startDate.plusDays(days - 1), granularity,
+                    roomMetrics, hotelMetrics);
+        }
+
+        private OccupancyMetricsDto toMetrics(Long roomId, String roomType, List<LocalDate> bucketStarts,
+                                              int bucket, long[][] totals) {
+            long available = totals[0][bucket];
+            long sold = totals[1][bucket];
+            BigDecimal revenue = BigDecimal.valueOf(totals[2][bucket], 2);
+
+            LocalDate periodStart = bucketStarts.get(bucket);
+            LocalDate periodEnd = bucket + 1 < bucketStarts.size()
+                    ? bucketStarts.get(bucket + 1).minusDays(1)
+                    : startDate.plusDays(days - 1);
+
+            return new OccupancyMetricsDto(roomId, roomType, periodStart, periodEnd, available, sold, revenue,
+                    ratio(BigDecimal.valueOf(sold * 100), available),
+                    ratio(revenue, sold),
+                    ratio(revenue, available));
+        }
+
+        private static BigDecimal ratio(BigDecimal numerator, long denominator) {
+            return denominator == 0 ? BigDecimal.ZERO
+                    : numerator.divide(BigDecimal.valueOf(denominator), 2, RoundingMode.HALF_UP);
+        }
+
+        private static LocalDate bucketStart(LocalDate date, AnalyticsGranularity granularity) {
+            return switch (granularity) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+    }
+
+    private static final class RoomSeries {
+
+        private final Long roomId;
+        private final String roomType;
+        private final int[] available;
+        private final int[] sold;
+        private final long[] revenueMinor;
+
+        RoomSeries(Long roomId, String roomType, int days) {
+            this.roomId = roomId;
+            this.roomType = roomType;
+            this.available = new int[days];
+            this.sold = new int[days];
+            this.revenueMinor = new long[days];
+        }
+
+        void clear(int from, int to) {
+            Arrays.fill(available, from, to, 0);
+            Arrays.fill(sold, from, to, 0);
+            Arrays.fill(revenueMinor, from, to, 0L);
+        }
+
+        void set(int day, InventoryStatsDto row) {
+            int booked = row.getBookedCount();
+            sold[day] = booked;
+            available[day] = Boolean.TRUE.equals(row.getClosed()) ? booked : row.getTotalCount();
+            revenueMinor[day] = row.getPrice().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() * booked;
+        }
+
+        long[][] rollUp(int[] bucketOf, int bucketCount) {
+            long[][] totals = new long[3][bucketCount];
+            long[] availableTotals = totals[0];
+            long[] soldTotals = totals[1];
+            long[] revenueTotals = totals[2];
+            for (int day = 0; day < bucketOf.length; day++) {
+                int bucket = bucketOf[day];
+                availableTotals[bucket] += available[day];
+                soldTotals[bucket] += sold[day];
+                revenueTotals[bucket] += revenueMinor[day];
+            }
+            return totals;
+        }
+    }
+}
@@ -6,12 +6,13 @@ import com.projects.airBnbApp.entity.Inventory;
 import com.projects.airBnbApp.entity.Room;
 import com.projects.airBnbApp.entity.User;
 import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.mapper.HotelMapper;
+import com.projects.airBnbApp.mapper.InventoryMapper;
 import com.projects.airBnbApp.repository.HotelMinPriceRepository;
 import com.projects.airBnbApp.repository.InventoryRepository;
 import com.projects.airBnbApp.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -32,10 +33,12 @@ import static com.projects.airBnbApp.util.AppUtils.getCurrentUser;
 @Slf4j
 public class InventoryServiceImplementation implements InventoryService{
     private final RoomRepository roomRepository;
-    private final ModelMapper modelMapper;
+    private final InventoryMapper inventoryMapper;
+    private final HotelMapper hotelMapper;
 
     private final InventoryRepository inventoryRepository;
     private final HotelMinPriceRepository hotelMinPriceRepository;
+    private final InventoryAnalyticsService inventoryAnalyticsService;
 
     @Override
     public void initializeRoomForAYear(Room room) {
@@ -56,12 +59,14 @@ public class InventoryServiceImplementation implements InventoryService{
                     .build();
             inventoryRepository.save(inventory);
         }
+        inventoryAnalyticsService.invalidateHotel(room.getHotel().getId());
     }
 
     @Override
     public void deleteAllInventories(Room room) {
         log.info("Deleting the inventories of room with id: {}", room.getId());
         inventoryRepository.deleteByRoom(room);
+        inventoryAnalyticsService.invalidateHotel(room.getHotel().getId());
     }
 
     @Override
@@ -77,11 +82,8 @@ public class InventoryServiceImplementation implements InventoryService{
                         hotelSearchRequest.getStartDate(), hotelSearchRequest.getEndDate(), hotelSearchRequest.getRoomsCount(),
                         dateCount, pageable);
 
-        return hotelPage.map(hotelPriceDto -> {
-            HotelPriceResponseDto hotelPriceResponseDto = modelMapper.map(hotelPriceDto.getHotel(), HotelPriceResponseDto.class);
-            hotelPriceResponseDto.setPrice(hotelPriceDto.getPrice());
-            return hotelPriceResponseDto;
-        });
+        return hotelPage.map(hotelPriceDto ->
+                hotelMapper.toPriceResponseDto(hotelPriceDto.getHotel(), hotelPriceDto.getPrice()));
 
     }
 
@@ -95,8 +97,7 @@ public class InventoryServiceImplementation implements InventoryService{
         if(!user.equals(room.getHotel().getOwner())) throw new AccessDeniedException("You are not the owner of room with id: "+roomId);
 
         return inventoryRepository.findByRoomOrderByDate(room).stream()
-                .map((element) -> modelMapper.map(element,
-                        InventoryDto.class))
+                .map(inventoryMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -118,5 +119,7 @@ public class InventoryServiceImplementation implements InventoryService{
         inventoryRepository.updateInventory(roomId, updateInventoryRequestDto.getStartDate(),
                 updateInventoryRequestDto.getEndDate(), updateInventoryRequestDto.getClosed(),
                 updateInventoryRequestDto.getSurgeFactor());
+        inventoryAnalyticsService.markDirty(room.getHotel().getId(), updateInventoryRequestDto.getStartDate(),
+                updateInventoryRequestDto.getEndDate());
     }
 }
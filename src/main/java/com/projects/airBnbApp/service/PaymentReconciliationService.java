@@ -0,0 +1,244 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.Booking;
+import com.projects.airBnbApp.entity.Payment;
+import com.projects.airBnbApp.enums.BookingStatus;
+import com.projects.airBnbApp.enums.PaymentStatus;
+import com.projects.airBnbApp.event.InventoryReleasedEvent;
+import com.projects.airBnbApp.gateway.LedgerOrder;
+import com.projects.airBnbApp.gateway.PaymentLedger;
+import com.projects.airBnbApp.repository.BookingRepository;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import com.projects.airBnbApp.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentReconciliationService {
+
+    // Cross-checks PAYMENTS_PENDING and recently CONFIRMED bookings against the provider's orders.
+    // Bookings are paged by id, each page is looked up in the ledger with no transaction open,
+    // and repairs for the page are applied as set-based updates in one short transaction.
+    // Pending bookings that were paid are confirmed, pending bookings whose order is still unpaid
+    // after the grace period are expired, and anything else that disagrees is only reported.
+
+    private static final DateTimeFormatter REPORT_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final BookingRepository bookingRepository;
+    private final InventoryRepository inventoryRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentLedger paymentLedger;
+    private final InventoryAnalyticsService inventoryAnalyticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkloadBulkhead workloadBulkhead;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.reconciliation.page-size:200}")
+    private int pageSize;
+
+    @Value("${payment.reconciliation.pending-expiry-minutes:30}")
+    private long pendingExpiryMinutes;
+
+    @Value("${payment.reconciliation.confirmed-lookback-days:7}")
+    private long confirmedLookbackDays;
+
+    @Value("${payment.reconciliation.report-dir:reconciliation-reports}")
+    private Path reportDir;
+
+    @Scheduled(cron = "${payment.reconciliation.cron:0 */15 * * * *}")
+    public void reconcile() {
+        long start = System.nanoTime();
+        LocalDateTime pendingCutoff = LocalDateTime.now().minusMinutes(pendingExpiryMinutes);
+        LocalDateTime confirmedSince = LocalDateTime.now().minusDays(confirmedLookbackDays);
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        long scanned = 0;
+        long lastId = 0;
+
+        while (true) {
+            // Database work takes a jobs permit; the ledger lookup in between does not
+            long afterId = lastId;
+            List<Booking> page = workloadBulkhead.call(WorkloadBulkhead.JOBS, () ->
+                    bookingRepository.findPageForReconciliation(afterId, confirmedSince, PageRequest.of(0, pageSize)));
+            if (page.isEmpty()) break;
+            lastId = page.get(page.size() - 1).getId();
+            scanned += page.size();
+
+            Map<String, LedgerOrder> orders;
+            try {
+                orders = paymentLedger.fetchOrders(page.stream().map(Booking::getPaymentOrderId).toList());
+            } catch (Exception ex) {
+                log.error("Payment ledger lookup failed, stopping reconciliation after booking id: {}", lastId, ex);
+                meterRegistry.counter("reconciliation.ledger.failures").increment();
+                break;
+            }
+
+            discrepancies.addAll(workloadBulkhead.call(WorkloadBulkhead.JOBS, () -> reconcilePage(page, orders, pendingCutoff)));
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        Timer.builder("reconciliation.run").register(meterRegistry).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("reconciliation.bookings.scanned").increment(scanned);
+        discrepancies.forEach(discrepancy ->
+                meterRegistry.counter("reconciliation.discrepancies", "type", discrepancy.type()).increment());
+
+        double seconds = Math.max(elapsedNanos / 1e9, 1e-3);
+        log.info("Reconciled {} bookings in {} ms ({} bookings/s), found {} discrepancies", scanned,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(scanned / seconds), discrepancies.size());
+
+        if (!discrepancies.isEmpty()) {
+            writeReport(discrepancies);
+        }
+    }
+
+    private List<Discrepancy> reconcilePage(List<Booking> page, Map<String, LedgerOrder> orders,
+                                            LocalDateTime pendingCutoff) {
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        Map<Long, String> toConfirm = new HashMap<>();
+        List<Long> toExpire = new ArrayList<>();
+
+        for (Booking booking : page) {
+            LedgerOrder order = orders.get(booking.getPaymentOrderId());
+            if (order == null) {
+                // Lookup timed out or failed; nothing is known about the order until the next run
+                meterRegistry.counter("reconciliation.ledger.unfetched").increment();
+            } else if (order.isNotFound()) {
+                discrepancies.add(new Discrepancy(booking, null, "ORDER_NOT_FOUND", "NONE"));
+            } else if (booking.getBookingStatus() == BookingStatus.PAYMENTS_PENDING) {
+                if (order.isPaid()) {
+                    toConfirm.put(booking.getId(), order.paymentId());
+                    discrepancies.add(new Discrepancy(booking, order, "PAID_NOT_CONFIRMED", "CONFIRMED"));
+                } else if (booking.getUpdatedAt() != null && booking.getUpdatedAt().isBefore(pendingCutoff)) {
+                    toExpire.add(booking.getId());
+                    discrepancies.add(new Discrepancy(booking, order, "PENDING_NOT_PAID", "EXPIRED"));
+                }
+            } else if (!order.isPaid()) {
+                discrepancies.add(new Discrepancy(booking, order, "CONFIRMED_NOT_PAID", "NONE"));
+            } else if (!order.paymentId().equals(booking.getPaymentId())) {
+                discrepancies.add(new Discrepancy(booking, order, "PAYMENT_ID_MISMATCH", "NONE"));
+            }
+        }
+
+        if (!toConfirm.isEmpty() || !toExpire.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!toConfirm.isEmpty()) confirmPaid(toConfirm);
+                if (!toExpire.isEmpty()) expireUnpaid(toExpire);
+            });
+        }
+        return discrepancies;
+    }
+
+    private void confirmPaid(Map<Long, String> paymentIds) {
+        // Only bookings still pending once locked; a webhook may have confirmed some meanwhile
+        List<Booking> bookings = bookingRepository.findAndLockByIdInAndStatus(paymentIds.keySet(),
+                BookingStatus.PAYMENTS_PENDING);
+        if (bookings.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("""
+                        UPDATE booking
+                        SET booking_status = 'CONFIRMED', payment_id = ?, updated_at = now()
+                        WHERE id = ? AND booking_status = 'PAYMENTS_PENDING'
+                        """,
+                bookings.stream().map(booking -> new Object[]{paymentIds.get(booking.getId()), booking.getId()}).toList());
+
+        List<Payment> payments = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            Payment payment = new Payment();
+            payment.setTransactionId(paymentIds.get(booking.getId()));
+            payment.setPaymentStatus(PaymentStatus.CONFIRMED);
+            payment.setAmount(booking.getAmount());
+            payment.setBooking(booking);
+            payments.add(payment);
+
+            Long roomId = booking.getRoom().getId();
+            inventoryRepository.findAndLockReservedInventory(roomId, booking.getCheckInDate(), booking.getCheckOutDate(),
+                    booking.getRoomsCount());
+            inventoryRepository.confirmBooking(roomId, booking.getCheckInDate(), booking.getCheckOutDate(),
+                    booking.getRoomsCount());
+            inventoryAnalyticsService.markDirty(booking.getHotel().getId(), booking.getCheckInDate(),
+                    booking.getCheckOutDate());
+        }
+        paymentRepository.saveAll(payments);
+        log.info("Reconciliation confirmed {} paid bookings", bookings.size());
+    }
+
+    private void expireUnpaid(List<Long> bookingIds) {
+        List<Booking> bookings = bookingRepository.findAndLockByIdInAndStatus(bookingIds, BookingStatus.PAYMENTS_PENDING);
+        if (bookings.isEmpty()) return;
+
+        bookingRepository.transitionStatus(bookings.stream().map(Booking::getId).toList(),
+                BookingStatus.PAYMENTS_PENDING, BookingStatus.EXPIRED);
+
+        for (Booking booking : bookings) {
+            Long roomId = booking.getRoom().getId();
+            inventoryRepository.getInventoryAndLockBeforeUpdate(roomId, booking.getCheckInDate(), booking.getCheckOutDate());
+            inventoryRepository.releaseReservedInventory(roomId, booking.getCheckInDate(), booking.getCheckOutDate(),
+                    booking.getRoomsCount());
+            eventPublisher.publishEvent(new InventoryReleasedEvent(roomId, booking.getCheckInDate(), booking.getCheckOutDate()));
+        }
+        log.info("Reconciliation expired {} unpaid bookings", bookings.size());
+    }
+
+    private void writeReport(List<Discrepancy> discrepancies) {
+        Path report = reportDir.resolve("reconciliation-" + LocalDateTime.now().format(REPORT_NAME_FORMAT) + ".csv");
+        try {
+            Files.createDirectories(reportDir);
+            try (Writer writer = Files.newBufferedWriter(report)) {
+                writer.write("booking_id,order_id,booking_status,gateway_status,booking_payment_id,gateway_payment_id,type,action\n");
+                for (Discrepancy discrepancy : discrepancies) {
+                    writer.write(discrepancy.toCsvRow());
+                    writer.write('\n');
+                }
+            }
+            log.info("Wrote reconciliation report: {}", report);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write reconciliation report " + report, ex);
+        }
+    }
+
+    private record Discrepancy(Long bookingId, String orderId, BookingStatus bookingStatus, String gatewayStatus,
+                               String bookingPaymentId, String gatewayPaymentId, String type, String action) {
+
+        Discrepancy(Booking booking, LedgerOrder order, String type, String action) {
+            this(booking.getId(), booking.getPaymentOrderId(), booking.getBookingStatus(),
+                    order == null ? null : order.status(), booking.getPaymentId(),
+                    order == null ? null : order.paymentId(), type, action);
+        }
+
+        String toCsvRow() {
+            return String.join(",", String.valueOf(bookingId), orderId, bookingStatus.name(),
+                    valueOrEmpty(gatewayStatus), valueOrEmpty(bookingPaymentId), valueOrEmpty(gatewayPaymentId),
+                    type, action);
+        }
+
+        private static String valueOrEmpty(String value) {
+            return value == null ? "" : value;
+        }
+    }
+}
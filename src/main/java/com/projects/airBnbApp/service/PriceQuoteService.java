@@ -0,0 +1,189 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.dto.BookingRequest;
+import com.projects.airBnbApp.dto.NightlyPriceDto;
+import com.projects.airBnbApp.dto.PriceQuoteDto;
+import com.projects.airBnbApp.dto.PriceQuoteRequestDto;
+import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.exception.InvalidQuoteException;
+import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import com.projects.airBnbApp.repository.RoomRepository;
+import com.projects.airBnbApp.strategy.PricingService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Issues and verifies signed price quotes, so a booking is charged the price the guest was shown
+ * and initialiseBooking does not run the pricing chain while it holds inventory locks.
+ * <p>
+ * A quote is a JWS carrying the stay, the nightly prices, an expiry and a fingerprint of the
+ * owner-controlled pricing inputs (surge factor, room count, closed flag, base price, pricing rule
+ * set version). A booking
+ * made with the quote is rejected if those inputs changed since it was issued; changes in booked
+ * counts within the quote's lifetime are honoured at the quoted price.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceQuoteService {
+
+    private final RoomRepository roomRepository;
+    private final InventoryRepository inventoryRepository;
+    private final PricingService pricingService;
+
+    // Deliberately separate from jwt.secretKey, so a leaked key cannot mint both sessions and prices
+    @Value("${quote.secret-key}")
+    private String quoteSecretKey;
+
+    @Value("${quote.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    private SecretKey secretKey;
+
+    @PostConstruct
+    public void initKey() {
+        secretKey = Keys.hmacShaKeyFor(quoteSecretKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public PriceQuoteDto createQuote(Long hotelId, PriceQuoteRequestDto priceQuoteRequestDto) {
+        log.info("Quoting room: {} of hotel: {} for {}-{}", priceQuoteRequestDto.getRoomId(), hotelId,
+                priceQuoteRequestDto.getCheckInDate(), priceQuoteRequestDto.getCheckOutDate());
+        Room room = roomRepository.findById(priceQuoteRequestDto.getRoomId())
+                .filter(r -> r.getHotel().getId().equals(hotelId))
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + priceQuoteRequestDto.getRoomId()));
+
+        PricedStay pricedStay = priceStay(room, priceQuoteRequestDto.getCheckInDate(),
+                priceQuoteRequestDto.getCheckOutDate(), priceQuoteRequestDto.getRoomsCount());
+        List<NightlyPriceDto> nightlyPrices = pricedStay.nightlyPrices();
+        BigDecimal totalPrice = pricedStay.totalPrice();
+        Date expiresAt = new Date(System.currentTimeMillis() + ttlSeconds * 1000);
+
+        String token = Jwts.builder()
+                .subject("quote")
+                .claim("hotelId", hotelId)
+                .claim("roomId", room.getId())
+                .claim("checkIn", priceQuoteRequestDto.getCheckInDate().toString())
+                .claim("checkOut", priceQuoteRequestDto.getCheckOutDate().toString())
+                .claim("roomsCount", priceQuoteRequestDto.getRoomsCount())
+                .claim("nights", nightlyPrices.stream().map(night -> night.getPrice().toPlainString()).toList())
+                .claim("total", totalPrice.toPlainString())
+                .claim("fp", pricedStay.fingerprint())
+                .issuedAt(new Date())
+                .expiration(expiresAt)
+                .signWith(secretKey)
+                .compact();
+
+        PriceQuoteDto quote = new PriceQuoteDto();
+        quote.setHotelId(hotelId);
+        quote.setRoomId(room.getId());
+        quote.setCheckInDate(priceQuoteRequestDto.getCheckInDate());
+        quote.setCheckOutDate(priceQuoteRequestDto.getCheckOutDate());
+        quote.setRoomsCount(priceQuoteRequestDto.getRoomsCount());
+        quote.setNightlyPrices(nightlyPrices);
+        quote.setTotalPrice(totalPrice);
+        quote.setExpiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+        quote.setQuoteToken(token);
+        return quote;
+    }
+
+    // Unsigned quote for a booking made without a token, e.g. by the waitlist matcher. Priced from an
+    // unlocked read, so initialiseBooking only has to compare the fingerprint under its locks.
+    public QuotedPrice price(Room room, BookingRequest bookingRequest) {
+        PricedStay pricedStay = priceStay(room, bookingRequest.getCheckInDate(), bookingRequest.getCheckOutDate(),
+                bookingRequest.getRoomsCount());
+        return new QuotedPrice(pricedStay.totalPrice(), pricedStay.fingerprint());
+    }
+
+    // Checks signature, expiry and that the quote is for this stay; needs no database access
+    public QuotedPrice verify(BookingRequest bookingRequest) {
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                    .verifyWith(secretKey)
+                    .build()
+                    .parseSignedClaims(bookingRequest.getQuoteToken())
+                    .getPayload();
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new InvalidQuoteException("Price quote is invalid or has expired, please request a new quote");
+        }
+
+        boolean sameStay = "quote".equals(claims.getSubject())
+                && Objects.equals(claims.get("hotelId", Long.class), bookingRequest.getHotelId())
+                && Objects.equals(claims.get("roomId", Long.class), bookingRequest.getRoomId())
+                && Objects.equals(claims.get("checkIn", String.class), String.valueOf(bookingRequest.getCheckInDate()))
+                && Objects.equals(claims.get("checkOut", String.class), String.valueOf(bookingRequest.getCheckOutDate()))
+                && Objects.equals(claims.get("roomsCount", Integer.class), bookingRequest.getRoomsCount());
+        if (!sameStay) {
+            throw new InvalidQuoteException("Price quote does not match the booking request");
+        }
+        return new QuotedPrice(new BigDecimal(claims.get("total", String.class)), claims.get("fp", String.class));
+    }
+
+    public String fingerprint(List<Inventory> inventoryList, BigDecimal basePrice, Long pricingRulesVersion) {
+        StringBuilder inputs = new StringBuilder(basePrice.stripTrailingZeros().toPlainString())
+                .append('|').append(pricingRulesVersion);
+        inventoryList.stream()
+                .sorted((a, b) -> a.getDate().compareTo(b.getDate()))
+                .forEach(inventory -> inputs.append('|').append(inventory.getId())
+                        .append(':').append(inventory.getSurgeFactor().stripTrailingZeros().toPlainString())
+                        .append(':').append(inventory.getTotalCount())
+                        .append(':').append(inventory.getClosed()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(inputs.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private PricedStay priceStay(Room room, LocalDate checkInDate, LocalDate checkOutDate, Integer roomsCount) {
+        List<Inventory> inventoryList = inventoryRepository.findAvailableInventory(room.getId(), checkInDate,
+                checkOutDate, roomsCount);
+        long daysCount = ChronoUnit.DAYS.between(checkInDate, checkOutDate) + 1;
+        if (inventoryList.size() != daysCount) {
+            throw new IllegalStateException("Room is not available for the selected dates");
+        }
+
+        List<NightlyPriceDto> nightlyPrices = new ArrayList<>(inventoryList.size());
+        BigDecimal priceForOneRoom = BigDecimal.ZERO;
+        for (Inventory inventory : inventoryList) {
+            BigDecimal price = pricingService.calculateDynamicPricing(inventory).setScale(2, RoundingMode.HALF_UP);
+            nightlyPrices.add(new NightlyPriceDto(inventory.getDate(), price));
+            priceForOneRoom = priceForOneRoom.add(price);
+        }
+        BigDecimal totalPrice = priceForOneRoom.multiply(BigDecimal.valueOf(roomsCount));
+        return new PricedStay(nightlyPrices, totalPrice,
+                fingerprint(inventoryList, room.getBasePrice(), room.getHotel().getPricingRulesVersion()));
+    }
+
+    public record QuotedPrice(BigDecimal totalPrice, String fingerprint) {
+    }
+
+    private record PricedStay(List<NightlyPriceDto> nightlyPrices, BigDecimal totalPrice, String fingerprint) {
+    }
+}
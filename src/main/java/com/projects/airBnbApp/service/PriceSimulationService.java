@@ -0,0 +1,9 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.dto.PriceSimulationRequestDto;
+import com.projects.airBnbApp.dto.PriceSimulationResponseDto;
+
+public interface PriceSimulationService {
+
+    PriceSimulationResponseDto simulate(Long roomId, PriceSimulationRequestDto priceSimulationRequestDto);
+}
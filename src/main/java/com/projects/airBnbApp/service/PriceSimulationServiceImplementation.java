@@ -0,0 +1,230 @@
+package com.projects.airBnbApp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projects.airBnbApp.dto.PriceSimulationRequestDto;
+import com.projects.airBnbApp.dto.PriceSimulationResponseDto;
+import com.projects.airBnbApp.dto.SimulatedPriceDto;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.exception.InvalidPriceSimulationException;
+import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.repository.RoomRepository;
+import com.projects.airBnbApp.strategy.PriceColumns;
+import com.projects.airBnbApp.strategy.PricingService;
+import com.projects.airBnbApp.strategy.PricingStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.projects.airBnbApp.util.AppUtils.getCurrentUser;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceSimulationServiceImplementation implements PriceSimulationService {
+
+    private static final String ROOM_INVENTORY_SQL = """
+            SELECT i.date, i.booked_count, i.total_count, i.surge_factor, i.price, i.city, r.base_price
+            FROM inventory i
+            JOIN room r ON r.id = i.room_id
+            WHERE i.room_id = ?
+              AND i.date >= ?
+            ORDER BY i.date
+            """;
+
+    // Runs a proposed pricing chain over a room's future inventory without writing anything.
+    // The room's inventory is read once into primitive columns and cached for a short time, so an
+    // owner trying several proposals in a row does not hit the database again; dates are priced in
+    // chunks on the simulation pool through the same column path as the repricing job.
+
+    private final RoomRepository roomRepository;
+    private final PricingService pricingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("pricingSimulationExecutor")
+    private ThreadPoolTaskExecutor pricingSimulationExecutor;
+
+    @Value("${pricing.simulation.chunk-size:64}")
+    private int chunkSize;
+
+    @Value("${pricing.simulation.snapshot-ttl-ms:300000}")
+    private long snapshotTtlMs;
+
+    @Value("${pricing.simulation.cache.max-entries:256}")
+    private int maxCacheEntries;
+
+    private Cache<Long, RoomSnapshot> snapshots;
+
+    @PostConstruct
+    public void initCache() {
+        snapshots = Caffeine.newBuilder()
+                .maximumSize(maxCacheEntries)
+                .expireAfterWrite(Duration.ofMillis(snapshotTtlMs))
+                .build();
+    }
+
+    @Override
+    public PriceSimulationResponseDto simulate(Long roomId, PriceSimulationRequestDto priceSimulationRequestDto) {
+        log.info("Simulating prices for room with id: {}", roomId);
+        Room room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + roomId));
+
+        User user = getCurrentUser();
+        if (!user.equals(room.getHotel().getOwner())) throw new AccessDeniedException("You are not the owner of room with id: " + roomId);
+
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = priceSimulationRequestDto.getStartDate() == null || priceSimulationRequestDto.getStartDate().isBefore(today)
+                ? today : priceSimulationRequestDto.getStartDate();
+        LocalDate endDate = priceSimulationRequestDto.getEndDate() == null ? today.plusYears(1) : priceSimulationRequestDto.getEndDate();
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidPriceSimulationException("End date must not be before start date");
+        }
+
+        long surgeOverride = -1;
+        if (priceSimulationRequestDto.getSurgeFactor() != null) {
+            if (priceSimulationRequestDto.getSurgeFactor().signum() <= 0) {
+                throw new InvalidPriceSimulationException("Surge factor must be positive");
+            }
+            try {
+                surgeOverride = PriceColumns.toMinorUnits(priceSimulationRequestDto.getSurgeFactor().setScale(2, RoundingMode.HALF_UP));
+            } catch (ArithmeticException ex) {
+                throw new InvalidPriceSimulationException("Surge factor is too large");
+            }
+        }
+
+        Long hotelId = room.getHotel().getId();
+        PricingStrategy chain = pricingService.simulationChain(hotelId, priceSimulationRequestDto.getChain(),
+                priceSimulationRequestDto.getParams(), priceSimulationRequestDto.getRules());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        RoomSnapshot snapshot = snapshotFor(roomId, today);
+        int from = snapshot.indexOf((int) startDate.toEpochDay());
+        int to = snapshot.indexOf((int) endDate.toEpochDay() + 1);
+
+        long[] simulated = new long[to - from];
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int chunkStart = from; chunkStart < to; chunkStart += chunkSize) {
+            int start = chunkStart, end = Math.min(chunkStart + chunkSize, to);
+            long surge = surgeOverride;
+            chunks.add(CompletableFuture.runAsync(
+                    () -> priceChunk(snapshot, hotelId, chain, start, end, surge, simulated, start - from),
+                    pricingSimulationExecutor));
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+
+        List<SimulatedPriceDto> prices = new ArrayList<>(simulated.length);
+        long currentRevenue = 0;
+        long projectedRevenue = 0;
+        for (int i = from; i < to; i++) {
+            long current = snapshot.priceMinor[i];
+            long proposed = simulated[i - from];
+            prices.add(new SimulatedPriceDto(LocalDate.ofEpochDay(snapshot.epochDays[i]), BigDecimal.valueOf(current, 2),
+                    BigDecimal.valueOf(proposed, 2), BigDecimal.valueOf(proposed - current, 2)));
+            currentRevenue += current * snapshot.bookedCounts[i];
+            projectedRevenue += proposed * snapshot.bookedCounts[i];
+        }
+        sample.stop(meterRegistry.timer("pricing.simulation.duration"));
+
+        return new PriceSimulationResponseDto(roomId, prices, BigDecimal.valueOf(currentRevenue, 2),
+                BigDecimal.valueOf(projectedRevenue, 2), BigDecimal.valueOf(projectedRevenue - currentRevenue, 2));
+    }
+
+    private void priceChunk(RoomSnapshot snapshot, Long hotelId, PricingStrategy chain, int start, int end,
+                            long surgeOverride, long[] result, int resultOffset) {
+        PriceColumns columns = new PriceColumns(end - start);
+        columns.clear(snapshot.city);
+        for (int i = start; i < end; i++) {
+            columns.add(snapshot.basePriceMinor, surgeOverride < 0 ? snapshot.surgeHundredths[i] : surgeOverride,
+                    snapshot.bookedCounts[i], snapshot.totalCounts[i], snapshot.epochDays[i]);
+        }
+        pricingService.calculatePrices(chain, hotelId, columns);
+        for (int i = 0; i < columns.size(); i++) {
+            result[resultOffset + i] = columns.priceMinor(i);
+        }
+    }
+
+    private RoomSnapshot snapshotFor(Long roomId, LocalDate today) {
+        RoomSnapshot snapshot = snapshots.get(roomId, id -> loadSnapshot(id, today));
+        // A snapshot starts at the day it was loaded, so one from yesterday is replaced
+        if (!snapshot.loadedOn.equals(today)) {
+            snapshot = loadSnapshot(roomId, today);
+            snapshots.put(roomId, snapshot);
+        }
+        return snapshot;
+    }
+
+    private RoomSnapshot loadSnapshot(Long roomId, LocalDate today) {
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query(ROOM_INVENTORY_SQL, rs -> {
+            rows.add(new Object[]{rs.getObject("date", LocalDate.class), rs.getInt("booked_count"),
+                    rs.getInt("total_count"), rs.getBigDecimal("surge_factor"), rs.getBigDecimal("price"),
+                    rs.getString("city"), rs.getBigDecimal("base_price")});
+        }, roomId, today);
+
+        RoomSnapshot snapshot = new RoomSnapshot(rows.size(), today);
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            snapshot.epochDays[i] = (int) ((LocalDate) row[0]).toEpochDay();
+            snapshot.bookedCounts[i] = (Integer) row[1];
+            snapshot.totalCounts[i] = (Integer) row[2];
+            snapshot.surgeHundredths[i] = PriceColumns.toMinorUnits((BigDecimal) row[3]);
+            snapshot.priceMinor[i] = PriceColumns.toMinorUnits((BigDecimal) row[4]);
+            snapshot.city = (String) row[5];
+            snapshot.basePriceMinor = PriceColumns.toMinorUnits((BigDecimal) row[6]);
+        }
+        log.debug("Loaded simulation snapshot of {} days for room with id: {}", rows.size(), roomId);
+        return snapshot;
+    }
+
+    /**
+     * A room's future inventory as primitive columns in date order. Never modified once loaded, so
+     * concurrent simulations share it.
+     */
+    private static final class RoomSnapshot {
+
+        private final LocalDate loadedOn;
+        private final int[] epochDays;
+        private final int[] bookedCounts;
+        private final int[] totalCounts;
+        private final long[] surgeHundredths;
+        private final long[] priceMinor;
+        private long basePriceMinor;
+        private String city;
+
+        RoomSnapshot(int days, LocalDate loadedOn) {
+            this.loadedOn = loadedOn;
+            this.epochDays = new int[days];
+            this.bookedCounts = new int[days];
+            this.totalCounts = new int[days];
+            this.surgeHundredths = new long[days];
+            this.priceMinor = new long[days];
+        }
+
+        // Index of the first date on or after epochDay
+        int indexOf(int epochDay) {
+            int index = Arrays.binarySearch(epochDays, epochDay);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.dto.PricingRuleDto;
+
+import java.util.List;
+
+public interface PricingRuleService {
+    List<PricingRuleDto> getRules(Long hotelId);
+    PricingRuleDto createRule(Long hotelId, PricingRuleDto pricingRuleDto);
+    PricingRuleDto updateRule(Long hotelId, Long ruleId, PricingRuleDto pricingRuleDto);
+    void deleteRule(Long hotelId, Long ruleId);
+}
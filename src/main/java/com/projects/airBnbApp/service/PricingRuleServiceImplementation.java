@@ -0,0 +1,114 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.dto.PricingRuleDto;
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.PricingRule;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.mapper.PricingRuleMapper;
+import com.projects.airBnbApp.repository.HotelRepository;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import com.projects.airBnbApp.repository.PricingRuleRepository;
+import com.projects.airBnbApp.strategy.PricingRuleParser;
+import com.projects.airBnbApp.strategy.PricingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.projects.airBnbApp.util.AppUtils.getCurrentUser;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PricingRuleServiceImplementation implements PricingRuleService {
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final HotelRepository hotelRepository;
+    private final InventoryRepository inventoryRepository;
+    private final PricingService pricingService;
+    private final PricingRuleMapper pricingRuleMapper;
+
+    @Override
+    public List<PricingRuleDto> getRules(Long hotelId) {
+        log.info("Getting pricing rules of hotel with id: {}", hotelId);
+        getOwnedHotel(hotelId);
+        return pricingRuleRepository.findByHotelIdOrderByPriorityAscIdAsc(hotelId)
+                .stream()
+                .map(pricingRuleMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public PricingRuleDto createRule(Long hotelId, PricingRuleDto pricingRuleDto) {
+        log.info("Creating a pricing rule in hotel with id: {}", hotelId);
+        Hotel hotel = getOwnedHotel(hotelId);
+        // Rejects the rule with a 400 before anything is stored
+        PricingRuleParser.parse(pricingRuleDto.getExpression());
+
+        PricingRule rule = new PricingRule();
+        rule.setHotel(hotel);
+        applyDto(rule, pricingRuleDto);
+        rule = pricingRuleRepository.save(rule);
+
+        rulesChanged(hotelId);
+        return pricingRuleMapper.toDto(rule);
+    }
+
+    @Override
+    public PricingRuleDto updateRule(Long hotelId, Long ruleId, PricingRuleDto pricingRuleDto) {
+        log.info("Updating pricing rule with id: {} of hotel with id: {}", ruleId, hotelId);
+        getOwnedHotel(hotelId);
+        PricingRule rule = getRule(hotelId, ruleId);
+        PricingRuleParser.parse(pricingRuleDto.getExpression());
+
+        applyDto(rule, pricingRuleDto);
+        rule = pricingRuleRepository.save(rule);
+
+        rulesChanged(hotelId);
+        return pricingRuleMapper.toDto(rule);
+    }
+
+    @Override
+    public void deleteRule(Long hotelId, Long ruleId) {
+        log.info("Deleting pricing rule with id: {} of hotel with id: {}", ruleId, hotelId);
+        getOwnedHotel(hotelId);
+        pricingRuleRepository.delete(getRule(hotelId, ruleId));
+        rulesChanged(hotelId);
+    }
+
+    private Hotel getOwnedHotel(Long hotelId) {
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID: " + hotelId));
+
+        User user = getCurrentUser();
+        if (!user.equals(hotel.getOwner())) {
+            throw new AccessDeniedException("You are not the owner of hotel with id: " + hotelId);
+        }
+        return hotel;
+    }
+
+    private PricingRule getRule(Long hotelId, Long ruleId) {
+        return pricingRuleRepository.findById(ruleId)
+                .filter(rule -> rule.getHotel().getId().equals(hotelId))
+                .orElseThrow(() -> new ResourceNotFoundException("Pricing rule not found with ID: " + ruleId));
+    }
+
+    private void applyDto(PricingRule rule, PricingRuleDto pricingRuleDto) {
+        rule.setExpression(pricingRuleDto.getExpression().trim());
+        rule.setPriority(pricingRuleDto.getPriority() == null ? 0 : pricingRuleDto.getPriority());
+        rule.setActive(pricingRuleDto.getActive() == null || pricingRuleDto.getActive());
+    }
+
+    // Runs after the rule is committed, so a chain rebuilt from here on sees the new rules
+    private void rulesChanged(Long hotelId) {
+        // Outstanding quotes priced with the old rules no longer match and are refused at booking
+        hotelRepository.incrementPricingRulesVersion(hotelId);
+        pricingService.evict(hotelId);
+        int marked = inventoryRepository.markPriceDirtyForHotel(hotelId, LocalDate.now());
+        log.info("Pricing rules of hotel with id: {} changed, marked {} inventory rows for repricing", hotelId, marked);
+    }
+}
@@ -1,100 +1,336 @@
 package com.projects.airBnbApp.service;
 
-import com.projects.airBnbApp.entity.Hotel;
-import com.projects.airBnbApp.entity.HotelMinPrice;
-import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.config.WorkloadBulkhead;
 import com.projects.airBnbApp.repository.HotelMinPriceRepository;
 import com.projects.airBnbApp.repository.HotelRepository;
 import com.projects.airBnbApp.repository.InventoryRepository;
+import com.projects.airBnbApp.repository.JobLeaseRepository;
+import com.projects.airBnbApp.strategy.PriceColumns;
 import com.projects.airBnbApp.strategy.PricingService;
-import com.projects.airBnbApp.strategy.PricingStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class PricingUpdateService {
 
-    // Scheduler to update the inventory and HotelMinPrice tables every hour
+    private static final String CONFIG_LEASE_PREFIX = "pricing-config:";
+
+    private static final String DIRTY_HOTELS_SQL = """
+            SELECT DISTINCT i.hotel_id
+            FROM inventory i
+            WHERE i.price_dirty = true
+              AND i.hotel_id BETWEEN ? AND ?
+              AND i.date >= ?
+            ORDER BY i.hotel_id
+            """;
+
+    private static final String DIRTY_INVENTORY_SQL = """
+            SELECT i.id, i.hotel_id, i.room_id, i.date, i.booked_count, i.total_count, i.surge_factor,
+                   i.city, i.price, r.base_price
+            FROM inventory i
+            JOIN room r ON r.id = i.room_id
+            WHERE i.price_dirty = true
+              AND i.hotel_id = ?
+              AND i.date >= ?
+            ORDER BY i.id
+            LIMIT ?
+            FOR UPDATE OF i
+            """;
+
+    // Scheduler to reprice inventory rows whose pricing inputs changed and refresh HotelMinPrice for them.
+    // Rows are flagged price_dirty by the updates that change booked count or surge factor, by room base
+    // price changes and by holiday calendar reloads; rows entering an urgency window are flagged here.
+    //
+    // Hotels are split into id ranges. Each range is claimed through a job_lease row keyed by the run,
+    // so nodes running the same hourly run share the ranges, and is repriced on the pricing job pool.
+    // Within a range each hotel is repriced in transactions of at most rows-per-transaction rows, so
+    // row locks are held on one hotel's slice at a time and bookings elsewhere are never blocked.
 
     private final HotelRepository hotelRepository;
     private final InventoryRepository inventoryRepository;
     private final HotelMinPriceRepository hotelMinPriceRepository;
+    private final JobLeaseRepository jobLeaseRepository;
     private final PricingService pricingService;
+    private final InventoryAnalyticsService inventoryAnalyticsService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final WorkloadBulkhead workloadBulkhead;
+
+    @Autowired
+    @Qualifier("pricingJobExecutor")
+    private ThreadPoolTaskExecutor pricingJobExecutor;
+
+    @Value("${pricing.update.batch-size:500}")
+    private int batchSize;
+
+    @Value("${pricing.job.partition-size:50}")
+    private long partitionSize;
+
+    @Value("${pricing.job.rows-per-transaction:5000}")
+    private int rowsPerTransaction;
+
+    @Value("${pricing.job.lease-ms:900000}")
+    private long leaseMs;
+
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    // The startup reprice waits on partitions it submits to pricingJobExecutor, so it must not run on
+    // one of that pool's workers; it gets a thread of its own
+    private Executor startupExecutor = new SimpleAsyncTaskExecutor("pricing-startup-");
+
+    // Last day the urgency windows were advanced for
+    private volatile LocalDate urgencyMarkedOn;
+
+    // Separate template so only the dirty-row scan uses a cursor fetch size
+    private JdbcTemplate streamingJdbcTemplate;
+
+    @PostConstruct
+    public void initStreamingTemplate() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(batchSize);
+    }
+
+    // Pricing configuration or the holiday calendar may have changed while the app was down. The
+    // fingerprint of both is kept as a completed lease, so only the first node to start on a new
+    // fingerprint reprices everything, and restarts on the same one skip it.
+    @EventListener(ApplicationReadyEvent.class)
+    public void repriceAllOnConfigChange() {
+        String leaseKey = CONFIG_LEASE_PREFIX + pricingService.configFingerprint();
+        LocalDateTime now = LocalDateTime.now();
+        if (jobLeaseRepository.tryAcquire(leaseKey, nodeId, now.plus(Duration.ofMillis(leaseMs)), now) == 0) {
+            log.info("Pricing configuration unchanged or already being applied, skipping the startup reprice");
+            return;
+        }
+
+        // Off the startup thread, so readiness does not wait for a full reprice
+        CompletableFuture.runAsync(() -> repriceAll(leaseKey), startupExecutor).exceptionally(ex -> {
+            // The lease expires uncompleted, so the next node to start retries; dirty rows go in the hourly run
+            log.error("Startup reprice for pricing configuration {} failed", leaseKey, ex);
+            return null;
+        });
+    }
+
+    private void repriceAll(String leaseKey) {
+        LocalDate today = LocalDate.now();
+        int marked = workloadBulkhead.call(WorkloadBulkhead.JOBS,
+                () -> inventoryRepository.markPriceDirtyBetween(today, today.plusYears(1)));
+        urgencyMarkedOn = today;
+        log.info("Pricing configuration changed, marked {} inventory rows for repricing", marked);
+        runPartitions("pricing-startup:" + nodeId + ":" + LocalDateTime.now());
+
+        jobLeaseRepository.markCompleted(leaseKey, nodeId, LocalDateTime.now());
+        jobLeaseRepository.deleteOthersWithPrefix(CONFIG_LEASE_PREFIX, leaseKey);
+    }
 
     //    @Scheduled(cron = "*/5 * * * * *")
     @Scheduled(cron = "0 0 * * * *")
     public void updatePrices() {
-        int page = 0;
-        int batchSize = 100;
+        runPartitions("pricing:" + LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeOldLeases() {
+        workloadBulkhead.run(WorkloadBulkhead.JOBS,
+                () -> jobLeaseRepository.deleteExpiredBefore(LocalDateTime.now().minusDays(1), CONFIG_LEASE_PREFIX));
+    }
+
+    private void runPartitions(String runKey) {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        workloadBulkhead.run(WorkloadBulkhead.JOBS, () -> markRowsEnteringUrgencyWindows(today));
+
+        long maxHotelId = hotelRepository.findMaxId();
+        LongAdder scanned = new LongAdder();
+        LongAdder changed = new LongAdder();
+        List<CompletableFuture<Void>> partitions = new ArrayList<>();
 
-        while(true) {
-            Page<Hotel> hotelPage = hotelRepository.findAll(PageRequest.of(page, batchSize));
-            if(hotelPage.isEmpty()) {
-                break;
+        for (long fromHotelId = 1; fromHotelId <= maxHotelId; fromHotelId += partitionSize) {
+            long toHotelId = fromHotelId + partitionSize - 1;
+            String leaseKey = runKey + ":" + fromHotelId + "-" + toHotelId;
+            LocalDateTime now = LocalDateTime.now();
+            if (jobLeaseRepository.tryAcquire(leaseKey, nodeId, now.plus(Duration.ofMillis(leaseMs)), now) == 0) {
+                continue;
             }
-            hotelPage.getContent().forEach(this::updateHotelPrices);
 
-            page++;
+            long from = fromHotelId;
+            partitions.add(CompletableFuture.runAsync(() -> workloadBulkhead.run(WorkloadBulkhead.JOBS, () -> {
+                runPartition(from, toHotelId, today, scanned, changed);
+                jobLeaseRepository.markCompleted(leaseKey, nodeId, LocalDateTime.now());
+            }), pricingJobExecutor).exceptionally(ex -> {
+                // The lease expires and the rows stay dirty, so the next run picks this range up again
+                log.error("Repricing hotels {}-{} failed", from, toHotelId, ex);
+                return null;
+            }));
         }
+        CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new)).join();
+
+        meterRegistry.counter("pricing.rows.scanned").increment(scanned.sum());
+        meterRegistry.counter("pricing.rows.changed").increment(changed.sum());
+        log.info("Repricing run {} on node {} took {} partitions, scanned {} dirty inventory rows and changed {} prices in {} ms",
+                runKey, nodeId, partitions.size(), scanned.sum(), changed.sum(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void runPartition(long fromHotelId, long toHotelId, LocalDate today, LongAdder scanned, LongAdder changed) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Long> hotelIds = jdbcTemplate.queryForList(DIRTY_HOTELS_SQL, Long.class, fromHotelId, toHotelId, today);
+        for (Long hotelId : hotelIds) {
+            long repriced;
+            do {
+                repriced = repriceHotelSlice(hotelId, today, scanned, changed);
+            } while (repriced == rowsPerTransaction);
+        }
+        sample.stop(meterRegistry.timer("pricing.partition.duration", "node", nodeId));
     }
 
-    private void updateHotelPrices(Hotel hotel) {
-        log.info("Updating hotel prices for hotel ID: {}", hotel.getId());
-        LocalDate startDate = LocalDate.now();
-        LocalDate endDate = LocalDate.now().plusYears(1);
+    // One short transaction: lock, reprice and clear up to rowsPerTransaction dirty rows of the hotel
+    private long repriceHotelSlice(Long hotelId, LocalDate today, LongAdder scanned, LongAdder changed) {
+        return transactionTemplate.execute(status -> {
+            PartitionPass pass = new PartitionPass();
+            streamingJdbcTemplate.query(DIRTY_INVENTORY_SQL, pass::reprice, hotelId, today, rowsPerTransaction);
+            pass.finish();
+
+            scanned.add(pass.scanned);
+            changed.add(pass.changed);
+            pass.changedDates.forEach(this::updateHotelMinPrice);
+            return pass.scanned;
+        });
+    }
+
+    /**
+     * Reprices the rows of one hotel slice as they stream from the cursor. Rows are gathered into
+     * primitive columns and priced a chunk at a time, so memory does not grow with hotel
+     * size, and results are written back in JDBC batches.
+     */
+    private final class PartitionPass {
+
+        private final PriceColumns columns = new PriceColumns(batchSize);
+        private final long[] inventoryIds = new long[batchSize];
+        private final long[] currentPriceMinor = new long[batchSize];
+        private long chunkHotelId = -1;
+
+        private final List<Object[]> priceUpdates = new ArrayList<>(batchSize);
+        private final List<Object[]> unchangedIds = new ArrayList<>(batchSize);
+        private final Map<Long, Set<LocalDate>> changedDates = new HashMap<>();
+        private long scanned;
+        private long changed;
+
+        void reprice(ResultSet rs) throws SQLException {
+            long hotelId = rs.getLong("hotel_id");
+            if (hotelId != chunkHotelId || columns.isFull()) {
+                priceChunk();
+                chunkHotelId = hotelId;
+                columns.clear(rs.getString("city"));
+            }
+
+            int row = columns.add(
+                    PriceColumns.toMinorUnits(rs.getBigDecimal("base_price")),
+                    PriceColumns.toMinorUnits(rs.getBigDecimal("surge_factor")),
+                    rs.getInt("booked_count"),
+                    rs.getInt("total_count"),
+                    (int) rs.getObject("date", LocalDate.class).toEpochDay());
+            inventoryIds[row] = rs.getLong("id");
+            BigDecimal currentPrice = rs.getBigDecimal("price");
+            currentPriceMinor[row] = currentPrice == null ? Long.MIN_VALUE : PriceColumns.toMinorUnits(currentPrice);
+        }
 
-        List<Inventory> inventoryList = inventoryRepository.findByHotelAndDateBetween(hotel, startDate, endDate);
+        void finish() {
+            priceChunk();
+            writeBack();
+        }
 
-        updateInventoryPrices(inventoryList);
+        private void priceChunk() {
+            if (columns.size() == 0) return;
+            pricingService.calculatePrices(chunkHotelId, columns);
 
-        updateHotelMinPrice(hotel, inventoryList, startDate, endDate);
+            for (int i = 0; i < columns.size(); i++) {
+                long priceMinor = columns.priceMinor(i);
+                if (priceMinor != currentPriceMinor[i]) {
+                    priceUpdates.add(new Object[]{BigDecimal.valueOf(priceMinor, 2), inventoryIds[i]});
+                    changedDates.computeIfAbsent(chunkHotelId, id -> new TreeSet<>())
+                            .add(LocalDate.ofEpochDay(columns.epochDay(i)));
+                    changed++;
+                } else {
+                    unchangedIds.add(new Object[]{inventoryIds[i]});
+                }
+            }
+            scanned += columns.size();
+            columns.clear(columns.city());
+            writeBack();
+        }
+
+        private void writeBack() {
+            if (!priceUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE inventory SET price = ?, price_dirty = false WHERE id = ?", priceUpdates);
+                priceUpdates.clear();
+            }
+            if (!unchangedIds.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE inventory SET price_dirty = false WHERE id = ?", unchangedIds);
+                unchangedIds.clear();
+            }
+        }
     }
 
-    private void updateHotelMinPrice(Hotel hotel, List<Inventory> inventoryList, LocalDate startDate, LocalDate endDate) {
-        // Compute minimum price per day for the hotel
-        Map<LocalDate, BigDecimal> dailyMinPrices = inventoryList.stream()
-                .collect(Collectors.groupingBy(
-                        Inventory::getDate,
-                        Collectors.mapping(Inventory::getPrice, Collectors.minBy(Comparator.naturalOrder()))
-                ))
-                .entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().orElse(BigDecimal.ZERO)));
-
-        // Prepare HotelPrice entities in bulk
-        List<HotelMinPrice> hotelPrices = new ArrayList<>();
-        dailyMinPrices.forEach((date, price) -> {
-            HotelMinPrice hotelPrice = hotelMinPriceRepository.findByHotelAndDate(hotel, date)
-                    .orElse(new HotelMinPrice(hotel, date));
-            hotelPrice.setPrice(price);
-            hotelPrices.add(hotelPrice);
-        });
+    // A row's urgency uplift starts the day its date comes within the window, without any other input changing
+    private void markRowsEnteringUrgencyWindows(LocalDate today) {
+        LocalDate lastMarked = urgencyMarkedOn;
+        if (lastMarked != null && !today.isAfter(lastMarked)) return;
 
-        // Save all HotelPrice entities in bulk
-        hotelMinPriceRepository.saveAll(hotelPrices);
+        List<LocalDate> entering = new ArrayList<>();
+        for (int windowDays : pricingService.urgencyWindowDays()) {
+            LocalDate from = lastMarked == null ? today : lastMarked.plusDays(windowDays);
+            for (LocalDate date = from; date.isBefore(today.plusDays(windowDays)); date = date.plusDays(1)) {
+                entering.add(date);
+            }
+        }
+        if (!entering.isEmpty()) {
+            inventoryRepository.markPriceDirtyOnDates(entering);
+        }
+        urgencyMarkedOn = today;
     }
 
-    private void updateInventoryPrices(List<Inventory> inventoryList) {
-        inventoryList.forEach(inventory -> {
-            BigDecimal dynamicPrice = pricingService.calculateDynamicPricing(inventory);
-            inventory.setPrice(dynamicPrice);
-        });
-        inventoryRepository.saveAll(inventoryList);
+    private void updateHotelMinPrice(Long hotelId, Set<LocalDate> dates) {
+        hotelMinPriceRepository.upsertDailyMinPrices(hotelId, dates);
+        inventoryAnalyticsService.markDirty(hotelId, Collections.min(dates), Collections.max(dates));
     }
 
 }
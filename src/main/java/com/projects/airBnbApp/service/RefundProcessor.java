@@ -0,0 +1,181 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.Payment;
+import com.projects.airBnbApp.enums.PaymentStatus;
+import com.projects.airBnbApp.gateway.PaymentGatewayClient;
+import com.projects.airBnbApp.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefundProcessor {
+
+    // Submits REFUND_PENDING payments to the gateway. A batch is claimed and leased in one short
+    // transaction, the gateway is called with no transaction open, and each outcome is written back
+    // as soon as it is known. Every refund carries a receipt derived from the payment id, and a payment
+    // that was claimed before (a failed attempt or a crashed node's expired lease) is first looked up
+    // on the gateway by that receipt, so a refund that went through is recorded instead of resubmitted.
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final WorkloadBulkhead workloadBulkhead;
+
+    @Value("${payment.refund.batch-size:20}")
+    private int batchSize;
+
+    @Value("${payment.refund.rate-per-second:5}")
+    private double ratePerSecond;
+
+    @Value("${payment.refund.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${payment.refund.backoff-ms:5000}")
+    private long backoffMs;
+
+    @Value("${payment.refund.lease-ms:300000}")
+    private long leaseMs;
+
+    private Counter submittedCounter;
+    private Counter succeededCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Timer gatewayTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        submittedCounter = meterRegistry.counter("refunds.submitted");
+        succeededCounter = meterRegistry.counter("refunds.succeeded");
+        retriedCounter = meterRegistry.counter("refunds.retried");
+        failedCounter = meterRegistry.counter("refunds.failed");
+        gatewayTimer = meterRegistry.timer("refunds.gateway.latency");
+    }
+
+    @Scheduled(fixedDelayString = "${payment.refund.poll-ms:2000}")
+    public void processDueRefunds() {
+        List<RefundTask> tasks = claimDueRefunds();
+        if (tasks.isEmpty()) return;
+
+        log.info("Submitting {} refunds to the payment gateway", tasks.size());
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long nextPermit = System.nanoTime();
+
+        for (RefundTask task : tasks) {
+            long waitNanos = nextPermit - System.nanoTime();
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException ex) {
+                    // Unsubmitted refunds keep their lease and are retried once it expires
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            nextPermit = Math.max(nextPermit, System.nanoTime()) + intervalNanos;
+            recordOutcome(task.paymentId(), submit(task));
+        }
+    }
+
+    // Claims and outcomes take a jobs permit; the gateway call in between does not hold a connection
+    private List<RefundTask> claimDueRefunds() {
+        return workloadBulkhead.call(WorkloadBulkhead.JOBS, () -> transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Payment> payments = paymentRepository.findAndLockDueRefunds(now, batchSize);
+            LocalDateTime leaseUntil = now.plus(Duration.ofMillis(leaseMs));
+            return payments.stream()
+                    .map(payment -> {
+                        // Counted on claim, so a lease that expires without an outcome still shows up as an attempt
+                        boolean claimedBefore = payment.getRefundAttempts() > 0;
+                        payment.setRefundAttempts(payment.getRefundAttempts() + 1);
+                        payment.setNextAttemptAt(leaseUntil);
+                        return new RefundTask(payment.getId(), payment.getTransactionId(), payment.getAmount(),
+                                claimedBefore);
+                    })
+                    .toList();
+        }));
+    }
+
+    private RefundOutcome submit(RefundTask task) {
+        submittedCounter.increment();
+        long start = System.nanoTime();
+        try {
+            String receipt = receiptFor(task.paymentId());
+            if (task.claimedBefore()) {
+                Optional<String> existing = paymentGatewayClient.findRefund(task.transactionId(), receipt);
+                if (existing.isPresent()) {
+                    log.info("Refund of payment: {} already exists as {}", task.transactionId(), existing.get());
+                    return new RefundOutcome(existing.get(), null);
+                }
+            }
+            String refundId = paymentGatewayClient.refund(task.transactionId(), task.amount(), receipt);
+            return new RefundOutcome(refundId, null);
+        } catch (Exception ex) {
+            log.warn("Refund of payment: {} failed: {}", task.transactionId(), ex.getMessage());
+            return new RefundOutcome(null, ex.getMessage());
+        } finally {
+            gatewayTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordOutcome(Long paymentId, RefundOutcome outcome) {
+        workloadBulkhead.run(WorkloadBulkhead.JOBS, () -> transactionTemplate.executeWithoutResult(status -> {
+            paymentRepository.findById(paymentId).ifPresent(payment -> {
+                if (outcome.refundId() != null) {
+                    succeededCounter.increment();
+                    payment.setPaymentStatus(PaymentStatus.REFUNDED);
+                    payment.setRefundId(outcome.refundId());
+                    payment.setNextAttemptAt(null);
+                    payment.setLastError(null);
+                    log.info("Refunded payment: {} with refund id: {}", payment.getTransactionId(), outcome.refundId());
+                } else if (payment.getRefundAttempts() >= maxAttempts) {
+                    failedCounter.increment();
+                    payment.setPaymentStatus(PaymentStatus.REFUND_FAILED);
+                    payment.setNextAttemptAt(null);
+                    payment.setLastError(truncate(outcome.error()));
+                    log.error("Giving up on refund of payment: {} after {} attempts", payment.getTransactionId(),
+                            payment.getRefundAttempts());
+                } else {
+                    retriedCounter.increment();
+                    long delay = backoffMs << Math.min(payment.getRefundAttempts() - 1, 16);
+                    payment.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delay)));
+                    payment.setLastError(truncate(outcome.error()));
+                }
+            });
+        }));
+    }
+
+    // Razorpay caps receipts at 40 characters; the payment id is stable across retries and nodes
+    private static String receiptFor(Long paymentId) {
+        return "refund_" + paymentId;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private record RefundTask(Long paymentId, String transactionId, BigDecimal amount, boolean claimedBefore) {
+    }
+
+    private record RefundOutcome(String refundId, String error) {
+    }
+}
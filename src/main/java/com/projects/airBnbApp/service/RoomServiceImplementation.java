@@ -3,14 +3,16 @@ package com.projects.airBnbApp.service;
 import com.projects.airBnbApp.dto.RoomDto;
 import com.projects.airBnbApp.entity.Hotel;
 import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.mapper.RoomMapper;
 import com.projects.airBnbApp.repository.HotelRepository;
+import com.projects.airBnbApp.repository.InventoryRepository;
 import com.projects.airBnbApp.repository.RoomRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,8 +23,10 @@ public class RoomServiceImplementation implements RoomService {
 
     private final RoomRepository roomRepository;
     private final HotelRepository hotelRepository;
-    private final ModelMapper modelMapper;
+    private final RoomMapper roomMapper;
+    private final HotelInfoCache hotelInfoCache;
     private final InventoryService inventoryService;
+    private final InventoryRepository inventoryRepository;
 
     @Override
     public RoomDto createNewRoom(Long hotelId, RoomDto roomDto) {
@@ -30,15 +34,16 @@ public class RoomServiceImplementation implements RoomService {
         Hotel hotel = hotelRepository
                 .findById(hotelId)
                 .orElseThrow(() -> new RuntimeException("Hotel with id: " + hotelId + " not found"));
-        Room room = modelMapper.map(roomDto, Room.class);
+        Room room = roomMapper.toEntity(roomDto);
         room.setHotel(hotel);
         room = roomRepository.save(room);
+        hotelInfoCache.evict(hotelId);
         if(hotel.getActive()){
             inventoryService.initializeRoomForAYear(room);
 
 
         }
-        return modelMapper.map(room, RoomDto.class);
+        return roomMapper.toDto(room);
 
     }
 
@@ -50,7 +55,7 @@ public class RoomServiceImplementation implements RoomService {
                 .orElseThrow(() -> new RuntimeException("Hotel with id: " + hotelId + " not found"));
         return hotel.getRooms()
                 .stream()
-                .map((element) -> modelMapper.map(element, RoomDto.class)).collect(Collectors.toList());
+                .map(roomMapper::toDto).collect(Collectors.toList());
 
 
     }
@@ -61,7 +66,7 @@ public class RoomServiceImplementation implements RoomService {
         Room room = roomRepository
                 .findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Room with id: " + roomId + " not found"));
-        return modelMapper.map(room, RoomDto.class);
+        return roomMapper.toDto(room);
     }
 
     @Override
@@ -74,6 +79,7 @@ public class RoomServiceImplementation implements RoomService {
 
         inventoryService.deleteAllInventories(room);
         roomRepository.deleteById(roomId);
+        hotelInfoCache.evict(room.getHotel().getId());
 
     }
 
@@ -92,6 +98,8 @@ public class RoomServiceImplementation implements RoomService {
         // Update fields using your entity's actual field names
         room.setType(roomDto.getType());
         room.setCapacity(roomDto.getCapacity());
+        boolean basePriceChanged = room.getBasePrice() == null
+                || room.getBasePrice().compareTo(roomDto.getBasePrice()) != 0;
         room.setBasePrice(roomDto.getBasePrice());
         room.setTotalCount(roomDto.getTotalCount());
         room.setPhotos(roomDto.getPhotos());
@@ -99,13 +107,17 @@ public class RoomServiceImplementation implements RoomService {
 
         // Save updated room
         Room updatedRoom = roomRepository.save(room);
+        hotelInfoCache.evict(updatedRoom.getHotel().getId());
+        if (basePriceChanged) {
+            inventoryRepository.markPriceDirtyForRoom(roomId, LocalDate.now());
+        }
 
         // If the room's totalCount > 0, we can consider it active and update inventory
         if (updatedRoom.getTotalCount() > 0) {
             inventoryService.initializeRoomForAYear(updatedRoom);
         }
 
-        return modelMapper.map(updatedRoom, RoomDto.class);
+        return roomMapper.toDto(updatedRoom);
     }
 
 
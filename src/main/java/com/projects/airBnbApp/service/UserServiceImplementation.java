@@ -4,10 +4,12 @@ import com.projects.airBnbApp.dto.ProfileUpdateRequestDto;
 import com.projects.airBnbApp.dto.UserDto;
 import com.projects.airBnbApp.entity.User;
 import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.mapper.UserMapper;
 import com.projects.airBnbApp.repository.UserRepository;
+import com.projects.airBnbApp.securities.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -16,10 +18,11 @@ import static com.projects.airBnbApp.util.AppUtils.getCurrentUser;
 
 @Service
 @RequiredArgsConstructor
-public class UserServiceImplementation implements UserService, UserDetailsService {
+public class UserServiceImplementation implements UserService, UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     public User getUserById(Long id) {
@@ -32,17 +35,29 @@ public class UserServiceImplementation implements UserService, UserDetailsServic
         return userRepository.findByEmail(username).orElse(null);
     }
 
+    // Called by Spring Security after a successful login when the stored hash uses an outdated BCrypt cost
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        user = userRepository.save(user);
+        userPrincipalCache.evict(user.getId());
+        return user;
+    }
+
     // New method: get my profile
     @Override
     public UserDto getMyProfile() {
-        User user = getCurrentUser();
-        return modelMapper.map(user, UserDto.class);
+        // The principal may be cached or built from token claims, so read the profile itself
+        User user = getUserById(getCurrentUser().getId());
+        return userMapper.toDto(user);
     }
 
     // New method: update my profile
     @Override
     public void updateProfile(ProfileUpdateRequestDto profileUpdateRequestDto) {
-        User user = getCurrentUser();
+        User user = getUserById(getCurrentUser().getId());
 
         if (profileUpdateRequestDto.getName() != null) {
             user.setName(profileUpdateRequestDto.getName());
@@ -55,6 +70,7 @@ public class UserServiceImplementation implements UserService, UserDetailsServic
         }
 
         userRepository.save(user);
+        userPrincipalCache.evict(user.getId());
     }
 
 }
@@ -0,0 +1,21 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.dto.BookingRequest;
+import com.projects.airBnbApp.dto.WaitlistEntryDto;
+import com.projects.airBnbApp.event.InventoryReleasedEvent;
+
+import java.util.List;
+
+public interface WaitlistService {
+
+    WaitlistEntryDto joinWaitlist(BookingRequest bookingRequest);
+
+    List<WaitlistEntryDto> getMyWaitlist();
+
+    void leaveWaitlist(Long entryId);
+
+    /**
+     * Places holds for the oldest eligible waitlist entries that fit into the released room-nights.
+     */
+    void matchReleasedInventory(InventoryReleasedEvent event);
+}
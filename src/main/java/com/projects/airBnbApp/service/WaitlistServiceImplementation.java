@@ -0,0 +1,316 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.dto.BookingDto;
+import com.projects.airBnbApp.dto.BookingRequest;
+import com.projects.airBnbApp.dto.WaitlistEntryDto;
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.entity.WaitlistEntry;
+import com.projects.airBnbApp.enums.WaitlistStatus;
+import com.projects.airBnbApp.event.InventoryReleasedEvent;
+import com.projects.airBnbApp.exception.InvalidQuoteException;
+import com.projects.airBnbApp.exception.InvalidWaitlistRequestException;
+import com.projects.airBnbApp.exception.ResourceNotFoundException;
+import com.projects.airBnbApp.exception.UnAuthorisedException;
+import com.projects.airBnbApp.mapper.WaitlistEntryMapper;
+import com.projects.airBnbApp.repository.HotelRepository;
+import com.projects.airBnbApp.repository.RoomRepository;
+import com.projects.airBnbApp.repository.WaitlistEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+import static com.projects.airBnbApp.util.AppUtils.getCurrentUser;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistServiceImplementation implements WaitlistService {
+
+    // Releases are matched through an in-memory index of this node's entries. The index only sees
+    // entries joined or loaded here, so a periodic sweep also matches waiting entries straight from
+    // the database (entries joined on other nodes, releases this node never heard of) and returns
+    // entries stuck in MATCHING after a crash to WAITING. It also expires waiting entries whose stay
+    // has started and drops past nights from the index. Matching and the sweep's queries take jobs
+    // permits one step at a time, never nested, so they cannot wait on a permit they already hold.
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final BookingService bookingService;
+    private final WaitlistEntryMapper waitlistEntryMapper;
+    private final WorkloadBulkhead workloadBulkhead;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("waitlistExecutor")
+    private ThreadPoolTaskExecutor waitlistExecutor;
+
+    @Value("${waitlist.match.max-attempts:20}")
+    private int maxMatchAttempts;
+
+    @Value("${waitlist.sweep.batch-size:100}")
+    private int sweepBatchSize;
+
+    // Longer than any single match takes, so another node's in-flight match is never reset
+    @Value("${waitlist.match.stale-after-ms:300000}")
+    private long staleMatchingMs;
+
+    // Each night of an entry is an index key, so the stay length bounds what one request can add
+    @Value("${waitlist.max-stay-days:30}")
+    private long maxStayDays;
+
+    // (room, night) -> ids of open entries covering that night; ids are IDENTITY so ascending id is FIFO
+    private final Map<RoomNight, NavigableSet<Long>> index = new ConcurrentHashMap<>();
+
+    // Releases the matcher queue had no room for, matched by the next sweep
+    private final Set<InventoryReleasedEvent> deferredReleases = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        resetStaleMatching();
+        waitlistEntryRepository.expireWaitingBefore(LocalDate.now());
+        List<WaitlistEntry> open = waitlistEntryRepository.findByStatusIn(List.of(WaitlistStatus.WAITING,
+                WaitlistStatus.MATCHING));
+        open.forEach(this::addToIndex);
+        log.info("Loaded {} open entries into the waitlist index", open.size());
+    }
+
+    @Override
+    public WaitlistEntryDto joinWaitlist(BookingRequest bookingRequest) {
+        log.info("Adding waitlist entry for hotel : {}, room: {}, date {}-{}", bookingRequest.getHotelId(),
+                bookingRequest.getRoomId(), bookingRequest.getCheckInDate(), bookingRequest.getCheckOutDate());
+
+        Hotel hotel = hotelRepository.findById(bookingRequest.getHotelId())
+                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + bookingRequest.getHotelId()));
+
+        Room room = roomRepository.findById(bookingRequest.getRoomId())
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + bookingRequest.getRoomId()));
+
+        if (!room.getHotel().getId().equals(hotel.getId())) {
+            throw new InvalidWaitlistRequestException("Room " + room.getId() + " does not belong to hotel " + hotel.getId());
+        }
+        if (bookingRequest.getCheckInDate() == null || bookingRequest.getCheckOutDate() == null) {
+            throw new InvalidWaitlistRequestException("Check-in and check-out dates are required");
+        }
+        if (bookingRequest.getCheckInDate().isBefore(LocalDate.now())) {
+            throw new InvalidWaitlistRequestException("Check-in date must not be in the past");
+        }
+        if (bookingRequest.getCheckOutDate().isBefore(bookingRequest.getCheckInDate())) {
+            throw new InvalidWaitlistRequestException("Check-out date must not be before check-in date");
+        }
+        if (ChronoUnit.DAYS.between(bookingRequest.getCheckInDate(), bookingRequest.getCheckOutDate()) + 1 > maxStayDays) {
+            throw new InvalidWaitlistRequestException("A waitlisted stay must not exceed " + maxStayDays + " days");
+        }
+        if (bookingRequest.getRoomsCount() == null || bookingRequest.getRoomsCount() < 1) {
+            throw new InvalidWaitlistRequestException("Rooms count must be at least 1");
+        }
+
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .hotel(hotel)
+                .room(room)
+                .user(getCurrentUser())
+                .checkInDate(bookingRequest.getCheckInDate())
+                .checkOutDate(bookingRequest.getCheckOutDate())
+                .roomsCount(bookingRequest.getRoomsCount())
+                .status(WaitlistStatus.WAITING)
+                .build();
+
+        entry = waitlistEntryRepository.save(entry);
+        addToIndex(entry);
+        return waitlistEntryMapper.toDto(entry);
+    }
+
+    @Override
+    public List<WaitlistEntryDto> getMyWaitlist() {
+        User user = getCurrentUser();
+        return waitlistEntryRepository.findByUserOrderByCreatedAtDesc(user).stream()
+                .map(waitlistEntryMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void leaveWaitlist(Long entryId) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + entryId));
+
+        User user = getCurrentUser();
+        if (!user.equals(entry.getUser())) {
+            throw new UnAuthorisedException("Waitlist entry does not belong to this user with id: " + user.getId());
+        }
+
+        if (waitlistEntryRepository.transitionStatus(entryId, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED) == 0) {
+            throw new IllegalStateException("Waitlist entry is no longer waiting");
+        }
+        removeFromIndex(entry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryReleased(InventoryReleasedEvent event) {
+        try {
+            waitlistExecutor.execute(() -> matchReleasedInventory(event));
+        } catch (TaskRejectedException ex) {
+            // Not matched on the publishing thread, which is still inside the committed transaction's afterCommit
+            deferredReleases.add(event);
+            log.warn("Waitlist matcher queue is full, deferring release of room: {}, date {}-{} to the next sweep",
+                    event.roomId(), event.startDate(), event.endDate());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${waitlist.sweep-ms:60000}")
+    public void sweep() {
+        workloadBulkhead.run(WorkloadBulkhead.JOBS, this::resetStaleMatching);
+        expirePastStays(LocalDate.now());
+
+        List<InventoryReleasedEvent> deferred = new ArrayList<>(deferredReleases);
+        deferredReleases.removeAll(deferred);
+        deferred.forEach(this::matchReleasedInventory);
+
+        List<WaitlistEntry> matchable = workloadBulkhead.call(WorkloadBulkhead.JOBS,
+                () -> waitlistEntryRepository.findWaitingWithAvailableInventory(sweepBatchSize));
+        int fulfilled = 0;
+        for (WaitlistEntry entry : matchable) {
+            if (tryMatch(entry)) fulfilled++;
+        }
+        if (fulfilled > 0) {
+            log.info("Waitlist sweep placed holds for {} of {} matchable entries", fulfilled, matchable.size());
+        }
+    }
+
+    @Override
+    public void matchReleasedInventory(InventoryReleasedEvent event) {
+        NavigableSet<Long> candidates = new TreeSet<>();
+        for (LocalDate date = event.startDate(); !date.isAfter(event.endDate()); date = date.plusDays(1)) {
+            NavigableSet<Long> ids = index.get(new RoomNight(event.roomId(), date));
+            if (ids != null) candidates.addAll(ids);
+        }
+        if (candidates.isEmpty()) return;
+
+        log.info("Matching {} waitlist entries against released inventory of room: {}, date {}-{}",
+                candidates.size(), event.roomId(), event.startDate(), event.endDate());
+
+        int attempts = 0;
+        for (Long entryId : candidates) {
+            if (attempts++ >= maxMatchAttempts) break;
+
+            WaitlistEntry entry = workloadBulkhead.call(WorkloadBulkhead.JOBS,
+                    () -> waitlistEntryRepository.findById(entryId).orElse(null));
+            if (entry == null) continue;
+            // Expired entries and those the sweep has yet to expire
+            if (entry.getStatus() != WaitlistStatus.WAITING && entry.getStatus() != WaitlistStatus.MATCHING
+                    || entry.getCheckInDate().isBefore(LocalDate.now())) {
+                removeFromIndex(entry);
+                continue;
+            }
+            tryMatch(entry);
+        }
+    }
+
+    private boolean tryMatch(WaitlistEntry entry) {
+        return workloadBulkhead.call(WorkloadBulkhead.JOBS, () -> claimAndBook(entry));
+    }
+
+    // Claims the entry by moving it from WAITING to MATCHING, so each entry is matched by one thread across nodes
+    private boolean claimAndBook(WaitlistEntry entry) {
+        Long entryId = entry.getId();
+        if (waitlistEntryRepository.transitionStatus(entryId, WaitlistStatus.WAITING, WaitlistStatus.MATCHING) == 0) {
+            return false;
+        }
+
+        boolean fulfilled = false;
+        try {
+            // The hold and FULFILLED commit together, so an entry can never be back in WAITING with a live hold
+            BookingDto booking = transactionTemplate.execute(status -> {
+                BookingDto placed = bookingService.initialiseBookingForUser(toBookingRequest(entry), entry.getUser());
+                waitlistEntryRepository.markFulfilled(entryId, placed.getId());
+                return placed;
+            });
+            fulfilled = true;
+            removeFromIndex(entry);
+            log.info("Placed hold with booking id: {} for waitlist entry: {}", booking.getId(), entryId);
+        } catch (IllegalStateException | InvalidQuoteException ex) {
+            // Not enough released capacity, or prices moved between quoting and locking; keep it waiting
+        } catch (RuntimeException ex) {
+            // Any other failure only affects this entry; it goes back to waiting and matching continues
+            log.warn("Matching waitlist entry: {} failed, keeping it waiting", entryId, ex);
+        } finally {
+            if (!fulfilled) {
+                waitlistEntryRepository.transitionStatus(entryId, WaitlistStatus.MATCHING, WaitlistStatus.WAITING);
+            }
+        }
+        return fulfilled;
+    }
+
+    // Past nights leave the index here; an expired entry's remaining nights go when a release reaches them
+    private void expirePastStays(LocalDate today) {
+        int expired = workloadBulkhead.call(WorkloadBulkhead.JOBS, () -> waitlistEntryRepository.expireWaitingBefore(today));
+        if (expired > 0) {
+            log.info("Expired {} waitlist entries whose stay has started", expired);
+        }
+        index.keySet().removeIf(roomNight -> roomNight.date().isBefore(today));
+    }
+
+    private void resetStaleMatching() {
+        int reset = waitlistEntryRepository.resetStaleMatching(LocalDateTime.now().minus(Duration.ofMillis(staleMatchingMs)));
+        if (reset > 0) {
+            log.warn("Returned {} waitlist entries left in matching to waiting", reset);
+        }
+    }
+
+    // No quote token: initialiseBookingForUser quotes the stay itself before taking the inventory locks
+    private BookingRequest toBookingRequest(WaitlistEntry entry) {
+        BookingRequest bookingRequest = new BookingRequest();
+        bookingRequest.setHotelId(entry.getHotel().getId());
+        bookingRequest.setRoomId(entry.getRoom().getId());
+        bookingRequest.setCheckInDate(entry.getCheckInDate());
+        bookingRequest.setCheckOutDate(entry.getCheckOutDate());
+        bookingRequest.setRoomsCount(entry.getRoomsCount());
+        return bookingRequest;
+    }
+
+    private void addToIndex(WaitlistEntry entry) {
+        Long roomId = entry.getRoom().getId();
+        for (LocalDate date = entry.getCheckInDate(); !date.isAfter(entry.getCheckOutDate()); date = date.plusDays(1)) {
+            index.computeIfAbsent(new RoomNight(roomId, date), key -> new ConcurrentSkipListSet<>()).add(entry.getId());
+        }
+    }
+
+    private void removeFromIndex(WaitlistEntry entry) {
+        Long roomId = entry.getRoom().getId();
+        for (LocalDate date = entry.getCheckInDate(); !date.isAfter(entry.getCheckOutDate()); date = date.plusDays(1)) {
+            index.computeIfPresent(new RoomNight(roomId, date), (key, ids) -> {
+                ids.remove(entry.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private record RoomNight(Long roomId, LocalDate date) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.WebhookEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookEventProcessor {
+
+    // Drains the webhook inbox. Events are hashed by order id onto single-threaded lanes, so events
+    // of one order run in arrival order while different orders run in parallel. The lane count caps
+    // how many DB connections webhook processing can take away from user traffic.
+    // Only captured payments confirm a booking; other event types are acknowledged and skipped.
+    // Every database step takes a jobs permit, so the lanes share the jobs budget with the other workers.
+
+    private static final Set<String> CAPTURE_EVENTS = Set.of("payment.captured", "order.paid");
+
+    private final WebhookInboxService webhookInboxService;
+    private final BookingService bookingService;
+    private final WorkloadBulkhead workloadBulkhead;
+
+    @Value("${webhook.worker.lanes:4}")
+    private int laneCount;
+
+    @Value("${webhook.worker.batch-size:50}")
+    private int batchSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final List<ThreadPoolTaskExecutor> lanes = new ArrayList<>();
+
+    @PostConstruct
+    public void startLanes() {
+        for (int i = 0; i < laneCount; i++) {
+            ThreadPoolTaskExecutor lane = new ThreadPoolTaskExecutor();
+            lane.setCorePoolSize(1);
+            lane.setMaxPoolSize(1);
+            lane.setQueueCapacity(batchSize);
+            lane.setThreadNamePrefix("webhook-worker-" + i + "-");
+            lane.setVirtualThreads(virtualThreads);
+            lane.initialize();
+            lanes.add(lane);
+        }
+    }
+
+    @PreDestroy
+    public void stopLanes() {
+        lanes.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.worker.poll-ms:1000}")
+    public void processDueEvents() {
+        List<WebhookEvent> events = workloadBulkhead.call(WorkloadBulkhead.JOBS,
+                () -> webhookInboxService.claimDueEvents(batchSize));
+        if (events.isEmpty()) return;
+
+        // Wait for the batch so the lanes never hold more than one batch of claimed events
+        CompletableFuture.allOf(events.stream()
+                .map(event -> CompletableFuture.runAsync(() -> process(event), laneFor(event.getOrderId())))
+                .toArray(CompletableFuture[]::new)).join();
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.worker.stale-check-ms:60000}")
+    public void requeueStaleEvents() {
+        int requeued = workloadBulkhead.call(WorkloadBulkhead.JOBS, webhookInboxService::requeueStaleEvents);
+        if (requeued > 0) {
+            log.warn("Re-queued {} webhook events left in processing", requeued);
+        }
+    }
+
+    private void process(WebhookEvent event) {
+        if (!CAPTURE_EVENTS.contains(event.getEventType())) {
+            log.info("Skipping webhook event: {} of type: {} for order: {}", event.getId(), event.getEventType(), event.getOrderId());
+            workloadBulkhead.run(WorkloadBulkhead.JOBS, () -> webhookInboxService.markSkipped(event.getId()));
+            return;
+        }
+        try {
+            workloadBulkhead.callChecked(WorkloadBulkhead.JOBS, () -> {
+                bookingService.capturePayment(event.getPaymentId(), event.getOrderId());
+                webhookInboxService.markProcessed(event.getId());
+                return null;
+            });
+        } catch (Exception ex) {
+            // Also reached when no permit came in time; the event is retried like any other failure
+            webhookInboxService.markFailed(event.getId(), ex);
+        }
+    }
+
+    private ThreadPoolTaskExecutor laneFor(String orderId) {
+        return lanes.get(Math.floorMod(orderId.hashCode(), lanes.size()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.entity.WebhookEvent;
+
+import java.util.List;
+
+public interface WebhookInboxService {
+
+    /**
+     * Appends a verified webhook event to the inbox.
+     *
+     * @return false when an event with the same event/payment id was already received
+     */
+    boolean enqueue(String eventId, String eventType, String paymentId, String orderId, String signature, String payload);
+
+    /**
+     * Claims up to {@code limit} due events for processing on this node.
+     */
+    List<WebhookEvent> claimDueEvents(int limit);
+
+    void markProcessed(Long eventId);
+
+    /**
+     * Closes an event whose type does not change any booking.
+     */
+    void markSkipped(Long eventId);
+
+    void markFailed(Long eventId, Exception cause);
+
+    int requeueStaleEvents();
+}
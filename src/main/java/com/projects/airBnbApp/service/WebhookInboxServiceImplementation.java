@@ -0,0 +1,117 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.entity.WebhookEvent;
+import com.projects.airBnbApp.enums.WebhookEventStatus;
+import com.projects.airBnbApp.repository.WebhookEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookInboxServiceImplementation implements WebhookInboxService {
+
+    private final WebhookEventRepository webhookEventRepository;
+
+    @Value("${webhook.worker.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${webhook.worker.backoff-ms:2000}")
+    private long backoffMs;
+
+    @Value("${webhook.worker.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Override
+    public boolean enqueue(String eventId, String eventType, String paymentId, String orderId, String signature, String payload) {
+        String dedupKey = eventId != null ? eventId : eventType + ":" + paymentId;
+        if (webhookEventRepository.existsByDedupKey(dedupKey)) {
+            log.info("Ignoring duplicate webhook event: {}", dedupKey);
+            return false;
+        }
+
+        WebhookEvent event = WebhookEvent.builder()
+                .dedupKey(dedupKey)
+                .eventType(eventType)
+                .paymentId(paymentId)
+                .orderId(orderId)
+                .signature(signature)
+                .payload(payload)
+                .status(WebhookEventStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        try {
+            webhookEventRepository.save(event);
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            // Concurrent delivery of the same event won the insert
+            log.info("Ignoring duplicate webhook event: {}", dedupKey);
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<WebhookEvent> claimDueEvents(int limit) {
+        List<WebhookEvent> events = webhookEventRepository.findAndLockDueEvents(LocalDateTime.now(), limit);
+        events.forEach(event -> event.setStatus(WebhookEventStatus.PROCESSING));
+        return webhookEventRepository.saveAll(events);
+    }
+
+    @Override
+    @Transactional
+    public void markProcessed(Long eventId) {
+        webhookEventRepository.findById(eventId).ifPresent(event -> {
+            event.setStatus(WebhookEventStatus.PROCESSED);
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(null);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void markSkipped(Long eventId) {
+        webhookEventRepository.findById(eventId).ifPresent(event -> {
+            event.setStatus(WebhookEventStatus.SKIPPED);
+            event.setLastError(null);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void markFailed(Long eventId, Exception cause) {
+        webhookEventRepository.findById(eventId).ifPresent(event -> {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(abbreviate(String.valueOf(cause.getMessage())));
+
+            if (attempts >= maxAttempts) {
+                event.setStatus(WebhookEventStatus.FAILED);
+                log.error("Giving up on webhook event: {} for order: {} after {} attempts", event.getId(), event.getOrderId(), attempts, cause);
+            } else {
+                event.setStatus(WebhookEventStatus.PENDING);
+                event.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoffMs * (1L << (attempts - 1)))));
+                log.warn("Webhook event: {} for order: {} failed on attempt {}, retrying later: {}", event.getId(), event.getOrderId(), attempts, cause.getMessage());
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public int requeueStaleEvents() {
+        return webhookEventRepository.requeueStaleEvents(LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs)));
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
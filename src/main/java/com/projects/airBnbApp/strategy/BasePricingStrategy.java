@@ -9,4 +9,9 @@ public class BasePricingStrategy implements PricingStrategy{
     public BigDecimal calculatePrice(Inventory inventory){
         return inventory.getRoom().getBasePrice();
     }
+
+    @Override
+    public void applyColumns(PriceColumns columns) {
+        columns.start(columns.basePriceMinor, 2);
+    }
 }
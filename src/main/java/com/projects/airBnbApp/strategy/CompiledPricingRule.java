@@ -0,0 +1,14 @@
+package com.projects.airBnbApp.strategy;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * A parsed rule: when {@code condition} holds, multiply the price by {@code multiplier}, or raise
+ * it to {@code floor}. Exactly one of the two is set. {@code leadTimeWindows} holds, for each
+ * {@code leadTime} comparison, the window length in days whose newly entering rows may flip the
+ * condition as dates get closer, in the same sense as the urgency strategy's window.
+ */
+public record CompiledPricingRule(RuleCondition condition, BigDecimal multiplier, BigDecimal floor,
+                                  Set<Integer> leadTimeWindows) {
+}
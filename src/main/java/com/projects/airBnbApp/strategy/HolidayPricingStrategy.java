@@ -1,28 +1,41 @@
 package com.projects.airBnbApp.strategy;
 
 import com.projects.airBnbApp.entity.Inventory;
-import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Service;
+import com.projects.airBnbApp.service.HolidayCalendarService;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 
-@RequiredArgsConstructor
-
 public class HolidayPricingStrategy implements PricingStrategy{
     private final PricingStrategy wrapped;
+    private final BigDecimal multiplier;
+    private final HolidayCalendarService holidayCalendarService;
+
+    public HolidayPricingStrategy(PricingStrategy wrapped, Map<String, BigDecimal> params,
+                                  HolidayCalendarService holidayCalendarService) {
+        this.wrapped = wrapped;
+        this.multiplier = params.getOrDefault("multiplier", new BigDecimal("1.25"));
+        this.holidayCalendarService = holidayCalendarService;
+    }
 
     @Override
     public BigDecimal calculatePrice(Inventory inventory){
         BigDecimal price = wrapped.calculatePrice(inventory);
-        boolean isTodayHoliday = true; //call API or check with local date
 
-        if(isTodayHoliday){
-            price = price.multiply(BigDecimal.valueOf(1.25));
+        if(holidayCalendarService.isHoliday(inventory.getCity(), inventory.getDate())){
+            price = price.multiply(multiplier);
         }
         return price;
 
     }
 
+    @Override
+    public void applyColumns(PriceColumns columns) {
+        wrapped.applyColumns(columns);
+        holidayCalendarService.markHolidays(columns.city(), columns.epochDay, columns.size(), columns.applies);
+        columns.multiplyWhereApplies(multiplier);
+    }
+
 
 }
@@ -2,22 +2,37 @@ package com.projects.airBnbApp.strategy;
 
 
 import com.projects.airBnbApp.entity.Inventory;
-import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
-//@Service
-@RequiredArgsConstructor
 public class OccupancyPricingStrategy implements PricingStrategy {
 
     private final PricingStrategy wrapped;
+    private final double threshold;
+    private final BigDecimal multiplier;
+
+    public OccupancyPricingStrategy(PricingStrategy wrapped, Map<String, BigDecimal> params) {
+        this.wrapped = wrapped;
+        this.threshold = params.getOrDefault("threshold", new BigDecimal("0.8")).doubleValue();
+        this.multiplier = params.getOrDefault("multiplier", new BigDecimal("1.2"));
+    }
+
     public BigDecimal calculatePrice(Inventory inventory){
         BigDecimal price = wrapped.calculatePrice(inventory);
         double occupancyRate = (double) inventory.getBookedCount()/inventory.getTotalCount();
-        if(occupancyRate > 0.8){
-            price = price.multiply(BigDecimal.valueOf(1.2));
+        if(occupancyRate > threshold){
+            price = price.multiply(multiplier);
         }
         return price;
     }
+
+    @Override
+    public void applyColumns(PriceColumns columns) {
+        wrapped.applyColumns(columns);
+        for (int i = 0; i < columns.size(); i++) {
+            columns.applies[i] = (double) columns.bookedCount[i] / columns.totalCount[i] > threshold;
+        }
+        columns.multiplyWhereApplies(multiplier);
+    }
 }
@@ -0,0 +1,187 @@
+package com.projects.airBnbApp.strategy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Pricing inputs for a batch of inventory rows of one hotel, stored as primitive columns.
+ * <p>
+ * Money is in minor units (paise) and dates are epoch days. While a chain runs, each row's exact
+ * price is {@code numerator[i] / 10^scale}: every strategy multiplies all numerators by its factor
+ * (or by the factor's power of ten where it does not apply) and adds the factor's scale, so rows
+ * share one denominator and no BigDecimal is created. The result is rounded HALF_UP to paise at
+ * the end, which matches the BigDecimal path exactly. Rows whose numerator would overflow a long
+ * are flagged and priced through the BigDecimal path instead.
+ */
+public final class PriceColumns {
+
+    private static final int MAX_SCALE = 18;
+
+    private final int capacity;
+    private int size;
+
+    final long[] basePriceMinor;
+    final long[] surgeFactorHundredths;
+    final int[] bookedCount;
+    final int[] totalCount;
+    final int[] epochDay;
+    String city;
+
+    final long[] numerator;
+    int scale;
+    final boolean[] overflow;
+    boolean anyOverflow;
+
+    // Scratch column a strategy fills with its condition before calling multiplyWhereApplies
+    final boolean[] applies;
+    // Scratch column for holiday flags when a strategy needs them alongside applies
+    final boolean[] holiday;
+
+    private final long[] priceMinor;
+
+    public PriceColumns(int capacity) {
+        this.capacity = capacity;
+        this.basePriceMinor = new long[capacity];
+        this.surgeFactorHundredths = new long[capacity];
+        this.bookedCount = new int[capacity];
+        this.totalCount = new int[capacity];
+        this.epochDay = new int[capacity];
+        this.numerator = new long[capacity];
+        this.overflow = new boolean[capacity];
+        this.applies = new boolean[capacity];
+        this.holiday = new boolean[capacity];
+        this.priceMinor = new long[capacity];
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public void clear(String city) {
+        this.city = city;
+        this.size = 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String city() {
+        return city;
+    }
+
+    /**
+     * @return the row index
+     */
+    public int add(long basePriceMinor, long surgeFactorHundredths, int bookedCount, int totalCount, int epochDay) {
+        int row = size++;
+        this.basePriceMinor[row] = basePriceMinor;
+        this.surgeFactorHundredths[row] = surgeFactorHundredths;
+        this.bookedCount[row] = bookedCount;
+        this.totalCount[row] = totalCount;
+        this.epochDay[row] = epochDay;
+        return row;
+    }
+
+    public int epochDay(int row) {
+        return epochDay[row];
+    }
+
+    public long priceMinor(int row) {
+        return priceMinor[row];
+    }
+
+    public boolean isOverflow(int row) {
+        return overflow[row];
+    }
+
+    void start(long[] initialNumerators, int initialScale) {
+        System.arraycopy(initialNumerators, 0, numerator, 0, size);
+        Arrays.fill(overflow, 0, size, false);
+        anyOverflow = false;
+        scale = initialScale;
+    }
+
+    // Multiplies each row by the column value; used for per-row factors such as the surge factor
+    void multiplyByColumn(long[] factors, int factorScale) {
+        for (int i = 0; i < size; i++) {
+            multiply(i, factors[i]);
+        }
+        scale += factorScale;
+    }
+
+    // Multiplies rows flagged in applies by the factor and the others by one at the same scale
+    void multiplyWhereApplies(BigDecimal factor) {
+        if (factor.scale() < 0) factor = factor.setScale(0);
+        long applied = factor.unscaledValue().longValueExact();
+        long notApplied = pow10(factor.scale());
+        for (int i = 0; i < size; i++) {
+            multiply(i, applies[i] ? applied : notApplied);
+        }
+        scale += factor.scale();
+    }
+
+    // Raises rows flagged in applies to at least floorMinor; rows already overflowed are left to the fallback
+    void raiseWhereApplies(long floorMinor) {
+        if (scale < 2) {
+            long factor = pow10(2 - scale);
+            for (int i = 0; i < size; i++) {
+                multiply(i, factor);
+            }
+            scale = 2;
+        }
+        long scaleFactor = scale - 2 > MAX_SCALE ? -1 : pow10(scale - 2);
+        long floorNumerator = floorMinor * scaleFactor;
+        boolean floorOverflow = scaleFactor < 0 || Math.multiplyHigh(floorMinor, scaleFactor) != 0 || floorNumerator < 0;
+        for (int i = 0; i < size; i++) {
+            if (!applies[i] || overflow[i]) continue;
+            if (floorOverflow) {
+                overflow[i] = true;
+                anyOverflow = true;
+            } else if (numerator[i] < floorNumerator) {
+                numerator[i] = floorNumerator;
+            }
+        }
+    }
+
+    void multiply(int row, long factor) {
+        long result = numerator[row] * factor;
+        long high = Math.multiplyHigh(numerator[row], factor);
+        if ((high != 0 || result < 0) && !overflow[row]) {
+            overflow[row] = true;
+            anyOverflow = true;
+        }
+        numerator[row] = result;
+    }
+
+    void roundToMinorUnits() {
+        if (scale - 2 > MAX_SCALE) {
+            Arrays.fill(overflow, 0, size, true);
+            anyOverflow = true;
+            return;
+        }
+        long divisor = pow10(scale - 2);
+        for (int i = 0; i < size; i++) {
+            long quotient = numerator[i] / divisor;
+            long remainder = numerator[i] - quotient * divisor;
+            priceMinor[i] = remainder >= divisor - remainder ? quotient + 1 : quotient;
+        }
+    }
+
+    void setPriceMinor(int row, long price) {
+        priceMinor[row] = price;
+    }
+
+    static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,48 @@
+package com.projects.airBnbApp.strategy;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strategy chain applied on top of the room base price, e.g.
+ * <pre>
+ * pricing.chain=surge,occupancy,urgency,holiday,rules
+ * pricing.strategies.occupancy.params.threshold=0.8
+ * pricing.hotels.42.strategies.holiday.enabled=false
+ * </pre>
+ * Hotels without an entry use the default chain and settings. The {@code rules} entry applies the
+ * hotel's stored pricing rules and is skipped for hotels that have none.
+ */
+@ConfigurationProperties(prefix = "pricing")
+@Getter
+@Setter
+public class PricingProperties {
+
+    private List<String> chain = new ArrayList<>(List.of("surge", "occupancy", "urgency", "holiday", "rules"));
+
+    private Map<String, StrategySettings> strategies = new HashMap<>();
+
+    private Map<Long, HotelSettings> hotels = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class StrategySettings {
+        private boolean enabled = true;
+        private Map<String, BigDecimal> params = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class HotelSettings {
+        // Overrides the default chain order when set
+        private List<String> chain;
+        private Map<String, StrategySettings> strategies = new HashMap<>();
+    }
+}
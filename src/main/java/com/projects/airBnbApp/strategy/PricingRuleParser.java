@@ -0,0 +1,237 @@
+package com.projects.airBnbApp.strategy;
+
+import com.projects.airBnbApp.exception.InvalidPricingRuleException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Parses pricing rules into {@link CompiledPricingRule}s. Grammar:
+ * <pre>
+ * rule      := 'when' condition 'then' action | action
+ * action    := ('+' | '-') number '%' | 'floor' number
+ * condition := and ('or' and)*
+ * and       := unary ('and' unary)*
+ * unary     := 'not' unary | '(' condition ')' | 'weekend' | 'holiday' | metric compare number ['%']
+ * metric    := 'occupancy' | 'leadtime'
+ * compare   := '&lt;' | '&lt;=' | '&gt;' | '&gt;=' | '='
+ * </pre>
+ * Examples: {@code when weekend then +15%}, {@code when occupancy > 70% and leadTime < 3 then +20%},
+ * {@code floor 2500}. Each condition node becomes one lambda over primitive arguments, so a rule is
+ * parsed once and evaluating it costs a few calls per row.
+ */
+public final class PricingRuleParser {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final String source;
+    private final List<String> tokens;
+    private final Set<Integer> leadTimeWindows = new TreeSet<>();
+    private int position;
+
+    private PricingRuleParser(String source) {
+        this.source = source;
+        this.tokens = tokenize(source);
+    }
+
+    public static CompiledPricingRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new InvalidPricingRuleException("Pricing rule must not be empty");
+        }
+        PricingRuleParser parser = new PricingRuleParser(rule);
+        CompiledPricingRule compiled = parser.parseRule();
+        if (parser.position < parser.tokens.size()) {
+            throw parser.error("Unexpected '" + parser.tokens.get(parser.position) + "'");
+        }
+        return compiled;
+    }
+
+    private CompiledPricingRule parseRule() {
+        RuleCondition condition = RuleCondition.ALWAYS;
+        if (accept("when")) {
+            condition = parseOr();
+            expect("then");
+        }
+
+        if (accept("floor")) {
+            BigDecimal floor = parseNumber();
+            return new CompiledPricingRule(condition, null, floor.setScale(2, RoundingMode.HALF_UP),
+                    Set.copyOf(leadTimeWindows));
+        }
+
+        boolean increase;
+        if (accept("+")) {
+            increase = true;
+        } else if (accept("-")) {
+            increase = false;
+        } else {
+            throw error("Expected '+N%', '-N%' or 'floor N'");
+        }
+        BigDecimal percent = parseNumber();
+        expect("%");
+        BigDecimal multiplier = BigDecimal.ONE.add((increase ? percent : percent.negate()).divide(HUNDRED));
+        if (multiplier.signum() < 0) {
+            throw error("A rule cannot reduce a price by more than 100%");
+        }
+        return new CompiledPricingRule(condition, multiplier, null, Set.copyOf(leadTimeWindows));
+    }
+
+    private RuleCondition parseOr() {
+        RuleCondition left = parseAnd();
+        while (accept("or")) {
+            RuleCondition a = left, b = parseAnd();
+            left = (dow, holiday, occupancy, leadTime) ->
+                    a.test(dow, holiday, occupancy, leadTime) || b.test(dow, holiday, occupancy, leadTime);
+        }
+        return left;
+    }
+
+    private RuleCondition parseAnd() {
+        RuleCondition left = parseUnary();
+        while (accept("and")) {
+            RuleCondition a = left, b = parseUnary();
+            left = (dow, holiday, occupancy, leadTime) ->
+                    a.test(dow, holiday, occupancy, leadTime) && b.test(dow, holiday, occupancy, leadTime);
+        }
+        return left;
+    }
+
+    private RuleCondition parseUnary() {
+        if (accept("not")) {
+            RuleCondition inner = parseUnary();
+            return (dow, holiday, occupancy, leadTime) -> !inner.test(dow, holiday, occupancy, leadTime);
+        }
+        if (accept("(")) {
+            RuleCondition inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        if (accept("weekend")) {
+            return (dow, holiday, occupancy, leadTime) -> dow >= 6;
+        }
+        if (accept("holiday")) {
+            return (dow, holiday, occupancy, leadTime) -> holiday;
+        }
+        if (accept("occupancy")) {
+            String operator = parseOperator();
+            double value = parseNumber().doubleValue();
+            accept("%");
+            return switch (operator) {
+                case "<" -> (dow, holiday, occupancy, leadTime) -> occupancy < value;
+                case "<=" -> (dow, holiday, occupancy, leadTime) -> occupancy <= value;
+                case ">" -> (dow, holiday, occupancy, leadTime) -> occupancy > value;
+                case ">=" -> (dow, holiday, occupancy, leadTime) -> occupancy >= value;
+                default -> (dow, holiday, occupancy, leadTime) -> occupancy == value;
+            };
+        }
+        if (accept("leadtime")) {
+            String operator = parseOperator();
+            int value = parseWholeNumber();
+            trackLeadTimeWindows(operator, value);
+            return switch (operator) {
+                case "<" -> (dow, holiday, occupancy, leadTime) -> leadTime < value;
+                case "<=" -> (dow, holiday, occupancy, leadTime) -> leadTime <= value;
+                case ">" -> (dow, holiday, occupancy, leadTime) -> leadTime > value;
+                case ">=" -> (dow, holiday, occupancy, leadTime) -> leadTime >= value;
+                default -> (dow, holiday, occupancy, leadTime) -> leadTime == value;
+            };
+        }
+        throw error("Expected a condition (weekend, holiday, occupancy, leadTime, not, '(')");
+    }
+
+    // A row at lead time L is newly in a window of W days when L = W - 1, so the window is the first
+    // lead time on the far side of the comparison plus one
+    private void trackLeadTimeWindows(String operator, int value) {
+        switch (operator) {
+            case "<", ">=" -> addLeadTimeWindow(value);
+            case "<=", ">" -> addLeadTimeWindow(value + 1);
+            default -> {
+                addLeadTimeWindow(value);
+                addLeadTimeWindow(value + 1);
+            }
+        }
+    }
+
+    private void addLeadTimeWindow(int days) {
+        // Rows are never priced at a negative lead time, so a zero-day window never changes
+        if (days > 0) leadTimeWindows.add(days);
+    }
+
+    private String parseOperator() {
+        for (String operator : List.of("<=", ">=", "<", ">", "=")) {
+            if (accept(operator)) return operator;
+        }
+        throw error("Expected a comparison operator");
+    }
+
+    private BigDecimal parseNumber() {
+        if (position >= tokens.size()) throw error("Expected a number");
+        try {
+            BigDecimal number = new BigDecimal(tokens.get(position));
+            if (number.signum() < 0) throw error("Numbers must not be negative");
+            position++;
+            return number;
+        } catch (NumberFormatException ex) {
+            throw error("Expected a number but found '" + tokens.get(position) + "'");
+        }
+    }
+
+    private int parseWholeNumber() {
+        BigDecimal number = parseNumber();
+        try {
+            return number.intValueExact();
+        } catch (ArithmeticException ex) {
+            throw error("Expected a whole number of days");
+        }
+    }
+
+    private boolean accept(String token) {
+        if (position < tokens.size() && tokens.get(position).equals(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) throw error("Expected '" + token + "'");
+    }
+
+    private InvalidPricingRuleException error(String message) {
+        return new InvalidPricingRuleException(message + " in pricing rule: " + source);
+    }
+
+    private static List<String> tokenize(String source) {
+        List<String> tokens = new ArrayList<>();
+        String text = source.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isLetter(c)) {
+                int start = i;
+                while (i < text.length() && Character.isLetter(text.charAt(i))) i++;
+                tokens.add(text.substring(start, i));
+            } else if (Character.isDigit(c) || c == '.') {
+                int start = i;
+                while (i < text.length() && (Character.isDigit(text.charAt(i)) || text.charAt(i) == '.')) i++;
+                tokens.add(text.substring(start, i));
+            } else if ((c == '<' || c == '>') && i + 1 < text.length() && text.charAt(i + 1) == '=') {
+                tokens.add(text.substring(i, i + 2));
+                i += 2;
+            } else if ("<>=()%+-".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else {
+                throw new InvalidPricingRuleException("Unexpected character '" + c + "' in pricing rule: " + source);
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,25 +1,84 @@
 package com.projects.airBnbApp.strategy;
 
+import com.projects.airBnbApp.entity.Hotel;
 import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.entity.PricingRule;
+import com.projects.airBnbApp.exception.InvalidPriceSimulationException;
+import com.projects.airBnbApp.exception.InvalidPricingRuleException;
+import com.projects.airBnbApp.repository.HotelRepository;
+import com.projects.airBnbApp.repository.PricingRuleRepository;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.service.HolidayCalendarService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class PricingService {
 
-    public BigDecimal calculateDynamicPricing(Inventory inventory) {
-        PricingStrategy pricingStrategy = new BasePricingStrategy();
+    private static final PricingStrategy BASE_PRICING = new BasePricingStrategy();
+    // Chain entry for the hotel's own rules, which are loaded from pricing_rule rather than configured
+    private static final String RULES = "rules";
+
+    private final PricingProperties pricingProperties;
+    private final HolidayCalendarService holidayCalendarService;
+    private final PricingRuleRepository pricingRuleRepository;
+    private final HotelRepository hotelRepository;
+
+    private final Map<String, BiFunction<PricingStrategy, Map<String, BigDecimal>, PricingStrategy>> strategies = Map.of(
+            "surge", (wrapped, params) -> new SurgePricingStrategy(wrapped),
+            "occupancy", OccupancyPricingStrategy::new,
+            "urgency", UrgencyPricingStrategy::new,
+            "holiday", this::holidayStrategy
+    );
+
+    // Bounds how long a chain can outlive a rule change whose version bump this node has not seen
+    @Value("${pricing.chain.ttl-ms:300000}")
+    private long chainTtlMs;
 
-        // apply the additional strategies
-        pricingStrategy = new SurgePricingStrategy(pricingStrategy);
-        pricingStrategy = new OccupancyPricingStrategy(pricingStrategy);
-        pricingStrategy = new UrgencyPricingStrategy(pricingStrategy);
-        pricingStrategy = new HolidayPricingStrategy(pricingStrategy);
+    @Value("${pricing.chain.max-entries:10000}")
+    private int chainMaxEntries;
 
-        return pricingStrategy.calculatePrice(inventory);
+    // Strategies are stateless, so each hotel's chain is built once and shared by all callers.
+    // Entries carry the pricingRulesVersion they were built under and are rebuilt when the hotel's
+    // version moves on, since evict only reaches the node that changed the rules.
+    private Cache<Long, CachedChain> chains;
+
+    @PostConstruct
+    public void initCache() {
+        chains = Caffeine.newBuilder()
+                .maximumSize(chainMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(chainTtlMs))
+                .build();
+    }
+
+    public BigDecimal calculateDynamicPricing(Inventory inventory) {
+        Hotel hotel = inventory.getHotel();
+        return pricingFor(hotel.getId(), hotel.getPricingRulesVersion()).calculatePrice(inventory);
     }
 
     //    Return the sum of price of this inventory list
@@ -28,4 +87,219 @@ public class PricingService {
                 .map(this::calculateDynamicPricing)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
+
+    // Batch form of calculateDynamicPricing for rows of one hotel; prices end up in columns.priceMinor
+    public void calculatePrices(Long hotelId, PriceColumns columns) {
+        calculatePrices(pricingFor(hotelId), hotelId, columns);
+    }
+
+    // Same as above with an explicit chain, e.g. one from simulationChain
+    public void calculatePrices(PricingStrategy pricingStrategy, Long hotelId, PriceColumns columns) {
+        pricingStrategy.applyColumns(columns);
+        columns.roundToMinorUnits();
+        if (!columns.anyOverflow) return;
+
+        Hotel hotel = new Hotel();
+        hotel.setId(hotelId);
+        Room room = new Room();
+        room.setHotel(hotel);
+        Inventory inventory = new Inventory();
+        inventory.setHotel(hotel);
+        inventory.setRoom(room);
+        inventory.setCity(columns.city());
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (!columns.isOverflow(i)) continue;
+            room.setBasePrice(BigDecimal.valueOf(columns.basePriceMinor[i], 2));
+            inventory.setSurgeFactor(BigDecimal.valueOf(columns.surgeFactorHundredths[i], 2));
+            inventory.setBookedCount(columns.bookedCount[i]);
+            inventory.setTotalCount(columns.totalCount[i]);
+            inventory.setDate(LocalDate.ofEpochDay(columns.epochDay[i]));
+            BigDecimal price = pricingStrategy.calculatePrice(inventory).setScale(2, RoundingMode.HALF_UP);
+            columns.setPriceMinor(i, PriceColumns.toMinorUnits(price));
+        }
+    }
+
+    // Reads the hotel's current rules version; callers holding a loaded Hotel should pass its version instead
+    public PricingStrategy pricingFor(Long hotelId) {
+        return pricingFor(hotelId, hotelRepository.findPricingRulesVersion(hotelId).orElse(0L));
+    }
+
+    public PricingStrategy pricingFor(Long hotelId, Long rulesVersion) {
+        long version = rulesVersion == null ? 0L : rulesVersion;
+        CachedChain cached = chains.getIfPresent(hotelId);
+        if (cached != null && cached.rulesVersion() == version) return cached.chain();
+
+        // The version is read before the rules, so a chain can only be tagged older than its rules, never newer
+        CachedChain built = new CachedChain(version, buildChain(hotelId));
+        // A caller holding an older Hotel must not replace a chain built for a newer version
+        chains.asMap().merge(hotelId, built,
+                (current, candidate) -> candidate.rulesVersion() >= current.rulesVersion() ? candidate : current);
+        return built.chain();
+    }
+
+    public void evict(Long hotelId) {
+        chains.invalidate(hotelId);
+    }
+
+    public void evictAll() {
+        chains.invalidateAll();
+    }
+
+    // Distinct urgency window lengths across hotels, including the leadTime thresholds of active rules;
+    // rows entering a window each day must be repriced
+    public Set<Integer> urgencyWindowDays() {
+        Set<Integer> windows = new TreeSet<>();
+        windows.add(urgencyDays(pricingProperties.getStrategies().get("urgency")));
+        for (PricingProperties.HotelSettings hotelSettings : pricingProperties.getHotels().values()) {
+            PricingProperties.StrategySettings settings = hotelSettings.getStrategies().get("urgency");
+            if (settings != null) windows.add(urgencyDays(settings));
+        }
+        for (String expression : pricingRuleRepository.findActiveExpressions()) {
+            try {
+                windows.addAll(PricingRuleParser.parse(expression).leadTimeWindows());
+            } catch (InvalidPricingRuleException ex) {
+                // Skipped from the chain as well, and logged when the chain is built
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Digest of the configured inputs to every hotel's price: chain order, strategy settings and
+     * the holiday calendar. Stored rules are left out, since saving them marks the hotel for repricing.
+     */
+    public String configFingerprint() {
+        StringBuilder config = new StringBuilder().append(pricingProperties.getChain());
+        appendStrategies(config, pricingProperties.getStrategies());
+        new TreeMap<>(pricingProperties.getHotels()).forEach((hotelId, hotelSettings) -> {
+            config.append("|hotel ").append(hotelId).append(':').append(hotelSettings.getChain());
+            appendStrategies(config, hotelSettings.getStrategies());
+        });
+        config.append("|holidays:").append(holidayCalendarService.calendarContent());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(config.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static void appendStrategies(StringBuilder config, Map<String, PricingProperties.StrategySettings> strategies) {
+        new TreeMap<>(strategies).forEach((name, settings) -> {
+            config.append('|').append(name).append(settings.isEnabled() ? "" : " disabled");
+            new TreeMap<>(settings.getParams()).forEach((param, value) ->
+                    config.append(' ').append(param).append('=').append(value.stripTrailingZeros().toPlainString()));
+        });
+    }
+
+    private static int urgencyDays(PricingProperties.StrategySettings settings) {
+        if (settings == null || !settings.getParams().containsKey("days")) {
+            return UrgencyPricingStrategy.DEFAULT_WINDOW_DAYS;
+        }
+        return settings.getParams().get("days").intValueExact();
+    }
+
+    /**
+     * Builds an uncached chain for a what-if simulation. {@code chain} replaces the hotel's chain
+     * order when set, {@code params} are merged over the configured parameters (and enable the
+     * strategies they name), and {@code ruleExpressions} replace the hotel's stored rules when set.
+     * Unknown strategy names and malformed parameters are the caller's input and are rejected with
+     * {@link InvalidPriceSimulationException}.
+     */
+    public PricingStrategy simulationChain(Long hotelId, List<String> chain, Map<String, Map<String, BigDecimal>> params,
+                                           List<String> ruleExpressions) {
+        PricingProperties.HotelSettings hotelSettings = pricingProperties.getHotels().get(hotelId);
+        Map<String, Map<String, BigDecimal>> overrides = params == null ? Map.of() : params;
+        if (chain != null) {
+            for (String name : chain) {
+                if (!RULES.equals(name) && !strategies.containsKey(name)) {
+                    throw new InvalidPriceSimulationException("Unknown pricing strategy '" + name + "'");
+                }
+            }
+        }
+
+        try {
+            return buildChain(hotelId, chain != null ? chain : chainOrder(hotelSettings), name -> {
+                PricingProperties.StrategySettings configured = settingsFor(hotelSettings, name);
+                if (!overrides.containsKey(name)) return configured;
+
+                PricingProperties.StrategySettings merged = new PricingProperties.StrategySettings();
+                if (configured != null) merged.getParams().putAll(configured.getParams());
+                merged.getParams().putAll(overrides.get(name));
+                return merged;
+            }, ruleExpressions == null ? () -> hotelRules(hotelId)
+                    : () -> ruleExpressions.stream().map(PricingRuleParser::parse).toList());
+        } catch (ArithmeticException ex) {
+            // A parameter such as urgency days that must be a whole number was not
+            throw new InvalidPriceSimulationException("Invalid pricing strategy parameter: " + ex.getMessage());
+        }
+    }
+
+    private PricingStrategy buildChain(Long hotelId) {
+        PricingProperties.HotelSettings hotelSettings = pricingProperties.getHotels().get(hotelId);
+        return buildChain(hotelId, chainOrder(hotelSettings), name -> settingsFor(hotelSettings, name),
+                () -> hotelRules(hotelId));
+    }
+
+    private PricingStrategy buildChain(Long hotelId, List<String> order,
+                                       Function<String, PricingProperties.StrategySettings> settingsLookup,
+                                       Supplier<List<CompiledPricingRule>> rulesLookup) {
+        PricingStrategy pricingStrategy = BASE_PRICING;
+        for (String name : order) {
+            PricingProperties.StrategySettings settings = settingsLookup.apply(name);
+            if (settings != null && !settings.isEnabled()) continue;
+
+            if (RULES.equals(name)) {
+                // Hotels without rules get no extra step
+                List<CompiledPricingRule> rules = rulesLookup.get();
+                if (!rules.isEmpty()) {
+                    pricingStrategy = new RulePricingStrategy(pricingStrategy, rules, holidayCalendarService);
+                }
+                continue;
+            }
+
+            var factory = strategies.get(name);
+            if (factory == null) {
+                throw new IllegalStateException("Unknown pricing strategy '" + name + "' configured for hotel " + hotelId);
+            }
+            pricingStrategy = factory.apply(pricingStrategy, settings == null ? Map.of() : settings.getParams());
+        }
+        log.debug("Built pricing chain {} for hotel ID: {}", order, hotelId);
+        return pricingStrategy;
+    }
+
+    // Reads holidayCalendarService when a chain is built, after the constructor has assigned it
+    private PricingStrategy holidayStrategy(PricingStrategy wrapped, Map<String, BigDecimal> params) {
+        return new HolidayPricingStrategy(wrapped, params, holidayCalendarService);
+    }
+
+    private List<String> chainOrder(PricingProperties.HotelSettings hotelSettings) {
+        return hotelSettings != null && hotelSettings.getChain() != null
+                ? hotelSettings.getChain()
+                : pricingProperties.getChain();
+    }
+
+    private List<CompiledPricingRule> hotelRules(Long hotelId) {
+        List<CompiledPricingRule> rules = new ArrayList<>();
+        for (PricingRule rule : pricingRuleRepository.findByHotelIdAndActiveTrueOrderByPriorityAscIdAsc(hotelId)) {
+            try {
+                rules.add(PricingRuleParser.parse(rule.getExpression()));
+            } catch (InvalidPricingRuleException ex) {
+                // Rules are validated on save, so this only happens if the rule language changed since
+                log.error("Skipping pricing rule ID: {} of hotel ID: {}", rule.getId(), hotelId, ex);
+            }
+        }
+        return rules;
+    }
+
+    private PricingProperties.StrategySettings settingsFor(PricingProperties.HotelSettings hotelSettings, String name) {
+        if (hotelSettings != null && hotelSettings.getStrategies().containsKey(name)) {
+            return hotelSettings.getStrategies().get(name);
+        }
+        return pricingProperties.getStrategies().get(name);
+    }
+
+    private record CachedChain(long rulesVersion, PricingStrategy chain) {
+    }
 }
@@ -0,0 +1,13 @@
+package com.projects.airBnbApp.strategy;
+
+/**
+ * Compiled condition of a pricing rule, evaluated on primitive row attributes.
+ * {@code dayOfWeek} runs from 1 (Monday) to 7 (Sunday).
+ */
+@FunctionalInterface
+public interface RuleCondition {
+
+    RuleCondition ALWAYS = (dayOfWeek, holiday, occupancyPercent, leadTimeDays) -> true;
+
+    boolean test(int dayOfWeek, boolean holiday, double occupancyPercent, long leadTimeDays);
+}
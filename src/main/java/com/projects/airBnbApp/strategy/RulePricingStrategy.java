@@ -0,0 +1,67 @@
+package com.projects.airBnbApp.strategy;
+
+import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.service.HolidayCalendarService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Applies a hotel's compiled pricing rules in priority order on top of the configured chain
+public class RulePricingStrategy implements PricingStrategy {
+
+    private final PricingStrategy wrapped;
+    private final CompiledPricingRule[] rules;
+    private final HolidayCalendarService holidayCalendarService;
+
+    public RulePricingStrategy(PricingStrategy wrapped, List<CompiledPricingRule> rules,
+                               HolidayCalendarService holidayCalendarService) {
+        this.wrapped = wrapped;
+        this.rules = rules.toArray(CompiledPricingRule[]::new);
+        this.holidayCalendarService = holidayCalendarService;
+    }
+
+    @Override
+    public BigDecimal calculatePrice(Inventory inventory) {
+        BigDecimal price = wrapped.calculatePrice(inventory);
+
+        LocalDate date = inventory.getDate();
+        int dayOfWeek = date.getDayOfWeek().getValue();
+        boolean holiday = holidayCalendarService.isHoliday(inventory.getCity(), date);
+        double occupancyPercent = occupancyPercent(inventory.getBookedCount(), inventory.getTotalCount());
+        long leadTimeDays = ChronoUnit.DAYS.between(LocalDate.now(), date);
+
+        for (CompiledPricingRule rule : rules) {
+            if (!rule.condition().test(dayOfWeek, holiday, occupancyPercent, leadTimeDays)) continue;
+            price = rule.multiplier() != null ? price.multiply(rule.multiplier()) : price.max(rule.floor());
+        }
+        return price;
+    }
+
+    @Override
+    public void applyColumns(PriceColumns columns) {
+        wrapped.applyColumns(columns);
+        holidayCalendarService.markHolidays(columns.city(), columns.epochDay, columns.size(), columns.holiday);
+        long today = LocalDate.now().toEpochDay();
+
+        for (CompiledPricingRule rule : rules) {
+            RuleCondition condition = rule.condition();
+            for (int i = 0; i < columns.size(); i++) {
+                int epochDay = columns.epochDay[i];
+                // Epoch day 0 was a Thursday; ISO days run from 1 (Monday) to 7 (Sunday)
+                columns.applies[i] = condition.test(Math.floorMod(epochDay + 3, 7) + 1, columns.holiday[i],
+                        occupancyPercent(columns.bookedCount[i], columns.totalCount[i]), epochDay - today);
+            }
+            if (rule.multiplier() != null) {
+                columns.multiplyWhereApplies(rule.multiplier());
+            } else {
+                columns.raiseWhereApplies(PriceColumns.toMinorUnits(rule.floor()));
+            }
+        }
+    }
+
+    private static double occupancyPercent(int bookedCount, int totalCount) {
+        return totalCount == 0 ? 0 : bookedCount * 100.0 / totalCount;
+    }
+}
@@ -18,4 +18,10 @@ public class SurgePricingStrategy implements PricingStrategy{
 
     }
 
+    @Override
+    public void applyColumns(PriceColumns columns) {
+        wrapped.applyColumns(columns);
+        columns.multiplyByColumn(columns.surgeFactorHundredths, 2);
+    }
+
 }
@@ -1,27 +1,45 @@
 package com.projects.airBnbApp.strategy;
 
 import com.projects.airBnbApp.entity.Inventory;
-import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.Map;
 
 
-//@Service
-@RequiredArgsConstructor
 public class UrgencyPricingStrategy implements PricingStrategy{
 
+    public static final int DEFAULT_WINDOW_DAYS = 7;
+
     private final PricingStrategy wrapped;
+    private final int windowDays;
+    private final BigDecimal multiplier;
+
+    public UrgencyPricingStrategy(PricingStrategy wrapped, Map<String, BigDecimal> params) {
+        this.wrapped = wrapped;
+        this.windowDays = params.getOrDefault("days", BigDecimal.valueOf(DEFAULT_WINDOW_DAYS)).intValueExact();
+        this.multiplier = params.getOrDefault("multiplier", new BigDecimal("1.15"));
+    }
+
     public BigDecimal calculatePrice(Inventory inventory){
         BigDecimal price = wrapped.calculatePrice(inventory);
 
         LocalDate today = LocalDate.now();
 
-        if(!inventory.getDate().isBefore(today) && inventory.getDate().isBefore(today.plusDays(7))){
-            price = price.multiply(BigDecimal.valueOf(1.15));
+        if(!inventory.getDate().isBefore(today) && inventory.getDate().isBefore(today.plusDays(windowDays))){
+            price = price.multiply(multiplier);
         }
         return price;
     }
+
+    @Override
+    public void applyColumns(PriceColumns columns) {
+        wrapped.applyColumns(columns);
+        long today = LocalDate.now().toEpochDay();
+        long windowEnd = today + windowDays;
+        for (int i = 0; i < columns.size(); i++) {
+            columns.applies[i] = columns.epochDay[i] >= today && columns.epochDay[i] < windowEnd;
+        }
+        columns.multiplyWhereApplies(multiplier);
+    }
 }
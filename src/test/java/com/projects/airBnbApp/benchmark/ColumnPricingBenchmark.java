@@ -0,0 +1,76 @@
+package com.projects.airBnbApp.benchmark;
+
+import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.strategy.PriceColumns;
+import com.projects.airBnbApp.strategy.PricingService;
+import com.projects.airBnbApp.strategy.PricingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repricing throughput in rows per second for one chunk of a hotel's inventory, through the same
+ * cached chain: {@code bigDecimalRows} prices one Inventory at a time as the job did before,
+ * {@code columns} runs the chain over PriceColumns. Filling the columns from the result set is
+ * left out, as it replaces building the Inventory entities rather than adding to it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ColumnPricingBenchmark {
+
+    private static final int ROWS = 4096;
+
+    private List<Inventory> rows;
+    private PricingService pricingService;
+    private PricingStrategy chain;
+    private PriceColumns columns;
+
+    @Setup
+    public void setUp() throws IOException {
+        rows = PricingFixtures.rows(ROWS);
+        pricingService = PricingFixtures.pricingService(PricingFixtures.holidayCalendar());
+        chain = pricingService.pricingFor(PricingFixtures.HOTEL_ID, 0L);
+
+        columns = new PriceColumns(ROWS);
+        columns.clear(PricingFixtures.CITY);
+        for (Inventory inventory : rows) {
+            columns.add(PriceColumns.toMinorUnits(inventory.getRoom().getBasePrice()),
+                    PriceColumns.toMinorUnits(inventory.getSurgeFactor()),
+                    inventory.getBookedCount(), inventory.getTotalCount(), (int) inventory.getDate().toEpochDay());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bigDecimalRows(Blackhole blackhole) {
+        for (Inventory inventory : rows) {
+            blackhole.consume(chain.calculatePrice(inventory).setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+
+    // Every run starts again from the base price column, so the same columns can be priced repeatedly
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long columns() {
+        pricingService.calculatePrices(chain, PricingFixtures.HOTEL_ID, columns);
+        return columns.priceMinor(ROWS - 1);
+    }
+}
@@ -0,0 +1,139 @@
+package com.projects.airBnbApp.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.enums.Role;
+import com.projects.airBnbApp.securities.JWTAuthFilter;
+import com.projects.airBnbApp.securities.JWTService;
+import com.projects.airBnbApp.securities.UserPrincipalCache;
+import com.projects.airBnbApp.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-request overhead of JWTAuthFilter for a client that keeps presenting the same access token.
+ * {@code verifiedCache=false} swaps in a cache that keeps nothing, so every request verifies the
+ * signature and parses the claims again. {@code keyAndParserPerRequest} is the verification step
+ * as it was before, with the HMAC key and parser rebuilt for every request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-jwt-secret-key-of-at-least-32-bytes";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @State(Scope.Benchmark)
+    public static class FilterState {
+
+        @Param({"true", "false"})
+        public boolean verifiedCache;
+
+        // claims: principal from the token alone; database: principal from UserPrincipalCache (always a hit here)
+        @Param({"claims", "database"})
+        public String principalMode;
+
+        JWTAuthFilter filter;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp() {
+            JWTService jwtService = jwtService();
+            if (!verifiedCache) {
+                // Evicts on the calling thread, so nothing is ever served from it
+                ReflectionTestUtils.setField(jwtService, "verifiedTokens",
+                        Caffeine.newBuilder().maximumSize(0).executor(Runnable::run).build());
+            }
+
+            UserService userService = mock(UserService.class);
+            when(userService.getUserById(any())).thenReturn(user());
+            UserPrincipalCache userPrincipalCache = new UserPrincipalCache();
+            ReflectionTestUtils.setField(userPrincipalCache, "ttlMs", 3_600_000L);
+            ReflectionTestUtils.setField(userPrincipalCache, "maxEntries", 10_000);
+            userPrincipalCache.initCache();
+
+            filter = new JWTAuthFilter(jwtService, userService, userPrincipalCache);
+            ReflectionTestUtils.setField(filter, "principalMode", principalMode);
+
+            request = new MockHttpServletRequest("GET", "/bookings/me");
+            request.addHeader("Authorization", "Bearer " + jwtService.generateAccessToken(user()));
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TokenState {
+
+        String token;
+
+        @Setup
+        public void setUp() {
+            token = jwtService().generateAccessToken(user());
+        }
+    }
+
+    @Benchmark
+    public Object filter(FilterState state) throws ServletException, IOException {
+        state.filter.doFilter(state.request, state.response, NO_OP_CHAIN);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    @Benchmark
+    public Claims keyAndParserPerRequest(TokenState state) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(state.token)
+                .getPayload();
+    }
+
+    private static JWTService jwtService() {
+        JWTService jwtService = new JWTService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxEntries", 10_000);
+        jwtService.init();
+        return jwtService;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("guest@example.com");
+        user.setRoles(Set.of(Role.GUEST));
+        return user;
+    }
+}
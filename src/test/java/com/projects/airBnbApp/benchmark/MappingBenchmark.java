@@ -0,0 +1,160 @@
+package com.projects.airBnbApp.benchmark;
+
+import com.projects.airBnbApp.dto.BookingDto;
+import com.projects.airBnbApp.dto.HotelPriceResponseDto;
+import com.projects.airBnbApp.dto.InventoryDto;
+import com.projects.airBnbApp.entity.Booking;
+import com.projects.airBnbApp.entity.Guest;
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.HotelContactInfo;
+import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.enums.BookingStatus;
+import com.projects.airBnbApp.enums.Gender;
+import com.projects.airBnbApp.mapper.BookingMapper;
+import com.projects.airBnbApp.mapper.GuestMapper;
+import com.projects.airBnbApp.mapper.HotelMapper;
+import com.projects.airBnbApp.mapper.InventoryMapper;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-object cost of the generated mappers on the hot response paths (search results, bookings,
+ * inventory), next to a default {@code ModelMapper}, configured as the removed MapperConfig bean
+ * was. ModelMapper is a test dependency only, kept for this comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private HotelMapper hotelMapper;
+    private BookingMapper bookingMapper;
+    private InventoryMapper inventoryMapper;
+    private ModelMapper modelMapper;
+
+    private Hotel hotel;
+    private Booking booking;
+    private Inventory inventory;
+
+    @Setup
+    public void setUp() {
+        // The Spring component model injects GuestMapper into BookingMapperImpl; done by hand here
+        hotelMapper = Mappers.getMapper(HotelMapper.class);
+        bookingMapper = Mappers.getMapper(BookingMapper.class);
+        ReflectionTestUtils.setField(bookingMapper, "guestMapper", Mappers.getMapper(GuestMapper.class));
+        inventoryMapper = Mappers.getMapper(InventoryMapper.class);
+        modelMapper = new ModelMapper();
+
+        HotelContactInfo contactInfo = new HotelContactInfo();
+        contactInfo.setAddress("12 Marine Drive");
+        contactInfo.setPhoneNumber("+91 22 5555 0101");
+        contactInfo.setEmail("stay@example.com");
+        contactInfo.setLocation("18.94,72.82");
+        hotel = new Hotel();
+        hotel.setId(1L);
+        hotel.setName("Sea View");
+        hotel.setCity("Mumbai");
+        hotel.setPhotos(new String[]{"a.jpg", "b.jpg", "c.jpg", "d.jpg"});
+        hotel.setAmenities(new String[]{"wifi", "pool", "gym", "spa", "parking"});
+        hotel.setContactInfo(contactInfo);
+        hotel.setActive(true);
+
+        Room room = new Room();
+        room.setId(10L);
+        room.setHotel(hotel);
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("guest@example.com");
+
+        booking = new Booking();
+        booking.setId(100L);
+        booking.setHotel(hotel);
+        booking.setRoom(room);
+        booking.setUser(user);
+        booking.setRoomsCount(2);
+        booking.setCheckInDate(LocalDate.of(2030, 3, 1));
+        booking.setCheckOutDate(LocalDate.of(2030, 3, 4));
+        booking.setCreatedAt(LocalDateTime.now());
+        booking.setUpdatedAt(LocalDateTime.now());
+        booking.setBookingStatus(BookingStatus.CONFIRMED);
+        booking.setAmount(new BigDecimal("12000.00"));
+        booking.setGuests(Set.of(guest(1L, "Asha", user), guest(2L, "Ravi", user)));
+
+        inventory = new Inventory();
+        inventory.setId(1000L);
+        inventory.setHotel(hotel);
+        inventory.setRoom(room);
+        inventory.setDate(LocalDate.of(2030, 3, 1));
+        inventory.setBookedCount(3);
+        inventory.setReservedCount(1);
+        inventory.setTotalCount(10);
+        inventory.setSurgeFactor(new BigDecimal("1.10"));
+        inventory.setPrice(new BigDecimal("4400.00"));
+        inventory.setCity("Mumbai");
+        inventory.setClosed(false);
+    }
+
+    @Benchmark
+    public HotelPriceResponseDto searchResultGenerated() {
+        return hotelMapper.toPriceResponseDto(hotel, 4400.0);
+    }
+
+    @Benchmark
+    public HotelPriceResponseDto searchResultModelMapper() {
+        HotelPriceResponseDto dto = modelMapper.map(hotel, HotelPriceResponseDto.class);
+        dto.setPrice(4400.0);
+        return dto;
+    }
+
+    @Benchmark
+    public BookingDto bookingGenerated() {
+        return bookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public BookingDto bookingModelMapper() {
+        return modelMapper.map(booking, BookingDto.class);
+    }
+
+    @Benchmark
+    public InventoryDto inventoryGenerated() {
+        return inventoryMapper.toDto(inventory);
+    }
+
+    @Benchmark
+    public InventoryDto inventoryModelMapper() {
+        return modelMapper.map(inventory, InventoryDto.class);
+    }
+
+    private static Guest guest(Long id, String name, User user) {
+        Guest guest = new Guest();
+        guest.setId(id);
+        guest.setName(name);
+        guest.setGender(Gender.FEMALE);
+        guest.setAge(30);
+        guest.setUser(user);
+        return guest;
+    }
+}
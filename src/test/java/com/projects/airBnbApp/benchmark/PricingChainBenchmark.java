@@ -0,0 +1,80 @@
+package com.projects.airBnbApp.benchmark;
+
+import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.service.HolidayCalendarService;
+import com.projects.airBnbApp.strategy.BasePricingStrategy;
+import com.projects.airBnbApp.strategy.HolidayPricingStrategy;
+import com.projects.airBnbApp.strategy.OccupancyPricingStrategy;
+import com.projects.airBnbApp.strategy.PricingProperties;
+import com.projects.airBnbApp.strategy.PricingService;
+import com.projects.airBnbApp.strategy.PricingStrategy;
+import com.projects.airBnbApp.strategy.SurgePricingStrategy;
+import com.projects.airBnbApp.strategy.UrgencyPricingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of pricing one inventory row. {@code chainPerRow} allocates the decorator chain for
+ * every row, as calculateDynamicPricing did before chains were built once per hotel;
+ * {@code cachedChain} is the current path through PricingService. Run with {@code -prof gc} to see
+ * the allocation difference as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PricingChainBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private List<Inventory> rows;
+    private PricingService pricingService;
+    private HolidayCalendarService holidayCalendarService;
+    private PricingProperties properties;
+
+    @Setup
+    public void setUp() throws IOException {
+        rows = PricingFixtures.rows(ROWS);
+        holidayCalendarService = PricingFixtures.holidayCalendar();
+        pricingService = PricingFixtures.pricingService(holidayCalendarService);
+        properties = PricingFixtures.properties();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void chainPerRow(Blackhole blackhole) {
+        for (Inventory inventory : rows) {
+            PricingStrategy pricingStrategy = new BasePricingStrategy();
+            pricingStrategy = new SurgePricingStrategy(pricingStrategy);
+            pricingStrategy = new OccupancyPricingStrategy(pricingStrategy, properties.getStrategies().get("occupancy").getParams());
+            pricingStrategy = new UrgencyPricingStrategy(pricingStrategy, properties.getStrategies().get("urgency").getParams());
+            pricingStrategy = new HolidayPricingStrategy(pricingStrategy, properties.getStrategies().get("holiday").getParams(),
+                    holidayCalendarService);
+            blackhole.consume(pricingStrategy.calculatePrice(inventory));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void cachedChain(Blackhole blackhole) {
+        for (Inventory inventory : rows) {
+            blackhole.consume(pricingService.calculateDynamicPricing(inventory));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.projects.airBnbApp.benchmark;
+
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.repository.HotelRepository;
+import com.projects.airBnbApp.repository.PricingRuleRepository;
+import com.projects.airBnbApp.service.HolidayCalendarService;
+import com.projects.airBnbApp.strategy.PricingProperties;
+import com.projects.airBnbApp.strategy.PricingService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Pricing set up as application.properties configures it, with the classpath holiday calendar and no stored rules
+final class PricingFixtures {
+
+    static final Long HOTEL_ID = 1L;
+    static final String CITY = "Mumbai";
+
+    private PricingFixtures() {
+    }
+
+    static HolidayCalendarService holidayCalendar() throws IOException {
+        HolidayCalendarService holidayCalendarService = new HolidayCalendarService(null, null);
+        ReflectionTestUtils.setField(holidayCalendarService, "calendarFile", "");
+        holidayCalendarService.load();
+        return holidayCalendarService;
+    }
+
+    static PricingProperties properties() {
+        PricingProperties properties = new PricingProperties();
+        properties.getStrategies().put("occupancy", settings(Map.of("threshold", "0.8", "multiplier", "1.2")));
+        properties.getStrategies().put("urgency", settings(Map.of("days", "7", "multiplier", "1.15")));
+        properties.getStrategies().put("holiday", settings(Map.of("multiplier", "1.25")));
+        return properties;
+    }
+
+    static PricingService pricingService(HolidayCalendarService holidayCalendarService) {
+        PricingRuleRepository pricingRuleRepository = mock(PricingRuleRepository.class);
+        when(pricingRuleRepository.findByHotelIdAndActiveTrueOrderByPriorityAscIdAsc(any())).thenReturn(List.of());
+        HotelRepository hotelRepository = mock(HotelRepository.class);
+        when(hotelRepository.findPricingRulesVersion(any())).thenReturn(Optional.of(0L));
+
+        PricingService pricingService = new PricingService(properties(), holidayCalendarService, pricingRuleRepository,
+                hotelRepository);
+        ReflectionTestUtils.setField(pricingService, "chainTtlMs", 300_000L);
+        ReflectionTestUtils.setField(pricingService, "chainMaxEntries", 100);
+        pricingService.initCache();
+        return pricingService;
+    }
+
+    // A year of nights over a few rooms, with a spread of surge factors and occupancies
+    static List<Inventory> rows(int count) {
+        Hotel hotel = new Hotel();
+        hotel.setId(HOTEL_ID);
+        hotel.setCity(CITY);
+        hotel.setPricingRulesVersion(0L);
+
+        Random random = new Random(42);
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Room room = new Room();
+            room.setId((long) i + 1);
+            room.setHotel(hotel);
+            room.setBasePrice(BigDecimal.valueOf(150_000 + random.nextInt(1_000_000), 2));
+            rooms.add(room);
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Inventory> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setId((long) i + 1);
+            inventory.setHotel(hotel);
+            inventory.setRoom(rooms.get(i % rooms.size()));
+            inventory.setCity(CITY);
+            inventory.setDate(today.plusDays(i % 365));
+            inventory.setSurgeFactor(BigDecimal.valueOf(100 + random.nextInt(150), 2));
+            inventory.setTotalCount(10);
+            inventory.setBookedCount(random.nextInt(11));
+            inventory.setReservedCount(0);
+            inventory.setClosed(false);
+            rows.add(inventory);
+        }
+        return rows;
+    }
+
+    private static PricingProperties.StrategySettings settings(Map<String, String> params) {
+        PricingProperties.StrategySettings settings = new PricingProperties.StrategySettings();
+        params.forEach((name, value) -> settings.getParams().put(name, new BigDecimal(value)));
+        return settings;
+    }
+}
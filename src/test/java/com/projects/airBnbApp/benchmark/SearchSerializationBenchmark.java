@@ -0,0 +1,114 @@
+package com.projects.airBnbApp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.projects.airBnbApp.advice.ApiResponse;
+import com.projects.airBnbApp.dto.HotelPriceResponseDto;
+import com.projects.airBnbApp.entity.HotelContactInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of writing one search page as {@code POST /hotels/search} does: the page wrapped in
+ * ApiResponse, in JSON or CBOR, with every field or only {@code ?fields=id,name,price}. The
+ * payload size of each combination, raw and gzipped as server compression sends it, is printed
+ * once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SearchSerializationBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"all", "id,name,price"})
+    public String fields;
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private ApiResponse<Page<HotelPriceResponseDto>> response;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same builder settings as the application's converters, minus the Spring context
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+        ObjectMapper objectMapper = format.equals("cbor") ? builder.factory(new CBORFactory()).build() : builder.build();
+        writer = objectMapper.writer(new SimpleFilterProvider().addFilter(HotelPriceResponseDto.FIELDS_FILTER,
+                fields.equals("all")
+                        ? SimpleBeanPropertyFilter.serializeAll()
+                        : SimpleBeanPropertyFilter.filterOutAllExcept(Set.of(fields.split(",")))));
+
+        List<HotelPriceResponseDto> results = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            results.add(result(id));
+        }
+        response = new ApiResponse<>(new PageImpl<>(results, PageRequest.of(0, pageSize), 500));
+
+        byte[] body = writer.writeValueAsBytes(response);
+        System.out.printf("%n%s, fields=%s, %d results: %d bytes, %d gzipped%n",
+                format, fields, pageSize, body.length, gzip(body).length);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    // Server compression applies to responses above server.compression.min-response-size
+    @Benchmark
+    public byte[] writeAndGzipPage() throws IOException {
+        return gzip(writer.writeValueAsBytes(response));
+    }
+
+    private static HotelPriceResponseDto result(long id) {
+        HotelContactInfo contactInfo = new HotelContactInfo();
+        contactInfo.setAddress(id + " Marine Drive");
+        contactInfo.setPhoneNumber("+91 22 5555 " + (1000 + id));
+        contactInfo.setEmail("stay" + id + "@example.com");
+        contactInfo.setLocation("18.94,72.82");
+        return new HotelPriceResponseDto(id, "Sea View " + id, "Mumbai",
+                new String[]{"https://cdn.example.com/hotels/" + id + "/1.jpg", "https://cdn.example.com/hotels/" + id + "/2.jpg",
+                        "https://cdn.example.com/hotels/" + id + "/3.jpg", "https://cdn.example.com/hotels/" + id + "/4.jpg"},
+                new String[]{"wifi", "pool", "gym", "spa", "parking", "breakfast"},
+                contactInfo, 4400.0 + id);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
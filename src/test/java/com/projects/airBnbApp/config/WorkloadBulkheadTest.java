@@ -0,0 +1,76 @@
+package com.projects.airBnbApp.config;
+
+import com.projects.airBnbApp.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The jobs workload has a permit per repricing thread by default, webhooks get their own permits,
+ * and a job that cannot get a permit in time is turned away instead of taking a connection.
+ */
+class WorkloadBulkheadTest {
+
+    @Test
+    void defaultsGiveJobsAPermitPerRepricingThread() {
+        BulkheadProperties properties = new BulkheadProperties();
+        WorkloadBulkhead bulkhead = enabledBulkhead(properties);
+
+        assertEquals(4, properties.getWorkloads().get(WorkloadBulkhead.JOBS).getPermits());
+        assertEquals(1, properties.getWorkloads().get("webhook").getPermits());
+        assertEquals("webhook", bulkhead.workloadFor("/webhook/payment"));
+        assertNull(bulkhead.workloadFor("/actuator/health"));
+    }
+
+    @Test
+    void jobsBeyondThePermitsAreTurnedAway() {
+        BulkheadProperties properties = new BulkheadProperties();
+        BulkheadProperties.Workload jobs = new BulkheadProperties.Workload();
+        jobs.setPermits(2);
+        jobs.setAcquireTimeoutMs(0L);
+        properties.getWorkloads().put(WorkloadBulkhead.JOBS, jobs);
+        WorkloadBulkhead bulkhead = enabledBulkhead(properties);
+        AtomicInteger ran = new AtomicInteger();
+
+        bulkhead.run(WorkloadBulkhead.JOBS, () -> bulkhead.run(WorkloadBulkhead.JOBS, () -> {
+            ran.incrementAndGet();
+            assertThrows(ServiceBusyException.class, () -> bulkhead.run(WorkloadBulkhead.JOBS, ran::incrementAndGet));
+        }));
+        // Permits are returned once the work is done
+        bulkhead.run(WorkloadBulkhead.JOBS, ran::incrementAndGet);
+
+        assertEquals(2, ran.get());
+    }
+
+    @Test
+    void checkedFailuresReachTheCallerAndReturnThePermit() throws Exception {
+        BulkheadProperties properties = new BulkheadProperties();
+        BulkheadProperties.Workload jobs = new BulkheadProperties.Workload();
+        jobs.setPermits(1);
+        jobs.setAcquireTimeoutMs(0L);
+        properties.getWorkloads().put(WorkloadBulkhead.JOBS, jobs);
+        WorkloadBulkhead bulkhead = enabledBulkhead(properties);
+        Exception failure = new Exception("capture failed");
+
+        Exception thrown = assertThrows(Exception.class, () -> bulkhead.callChecked(WorkloadBulkhead.JOBS, () -> {
+            throw failure;
+        }));
+
+        assertSame(failure, thrown);
+        assertEquals(1, bulkhead.callChecked(WorkloadBulkhead.JOBS, () -> 1));
+    }
+
+    private static WorkloadBulkhead enabledBulkhead(BulkheadProperties properties) {
+        properties.setEnabled(true);
+        properties.afterPropertiesSet();
+        WorkloadBulkhead bulkhead = new WorkloadBulkhead(properties, new SimpleMeterRegistry());
+        bulkhead.createSemaphores();
+        return bulkhead;
+    }
+}
@@ -0,0 +1,159 @@
+package com.projects.airBnbApp.securities;
+
+import com.projects.airBnbApp.config.BulkheadProperties;
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.RefreshToken;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.enums.Role;
+import com.projects.airBnbApp.repository.RefreshTokenRepository;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rotation hands out a new token of the same family; presenting a used token revokes the whole
+ * family, and access and refresh tokens are never accepted in each other's place.
+ */
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+
+    // Stands in for the refresh_token table behind markUsed and revokeFamily
+    private final Map<String, String> familyByJti = new HashMap<>();
+    private final Set<String> usedJtis = new HashSet<>();
+    private final Set<String> revokedFamilies = new HashSet<>();
+
+    private JWTService jwtService;
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JWTService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecretKey", "test-jwt-secret-key-of-at-least-32-bytes");
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxEntries", 100);
+        jwtService.init();
+
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, jwtService,
+                new WorkloadBulkhead(new BulkheadProperties(), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(refreshTokenService, "ttlDays", 180L);
+        ReflectionTestUtils.setField(refreshTokenService, "bloomCapacity", 1000);
+
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            familyByJti.put(token.getJti(), token.getFamilyId());
+            return token;
+        });
+        when(refreshTokenRepository.markUsed(any(), any())).thenAnswer(invocation -> {
+            String jti = invocation.getArgument(0);
+            boolean live = familyByJti.containsKey(jti) && !revokedFamilies.contains(familyByJti.get(jti));
+            return live && usedJtis.add(jti) ? 1 : 0;
+        });
+        when(refreshTokenRepository.revokeFamily(any(), any())).thenAnswer(invocation -> {
+            revokedFamilies.add(invocation.getArgument(0));
+            return 1;
+        });
+        when(refreshTokenRepository.revokeIfFamilyRevoked(any(), any()))
+                .thenAnswer(invocation -> revokedFamilies.contains(familyByJti.get(invocation.<String>getArgument(0))) ? 1 : 0);
+        when(refreshTokenRepository.findRevokedFamiliesNotExpired(any())).thenAnswer(invocation -> List.copyOf(revokedFamilies));
+        refreshTokenService.loadRevocations();
+
+        user = new User();
+        user.setId(7L);
+        user.setEmail("guest@example.com");
+        user.setRoles(Set.of(Role.GUEST));
+    }
+
+    @Test
+    void rotationKeepsTheFamily() {
+        String first = refreshTokenService.issue(user);
+        RefreshTokenService.ConsumedToken consumed = refreshTokenService.consume(first);
+        String second = refreshTokenService.issue(user, consumed.familyId());
+
+        RefreshTokenService.ConsumedToken rotated = refreshTokenService.consume(second);
+
+        assertEquals(7L, consumed.userId());
+        assertEquals(consumed.familyId(), rotated.familyId());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void reusedTokenRevokesItsFamily() {
+        String first = refreshTokenService.issue(user);
+        RefreshTokenService.ConsumedToken consumed = refreshTokenService.consume(first);
+        String second = refreshTokenService.issue(user, consumed.familyId());
+
+        // A stolen copy of the first token is presented after the legitimate rotation
+        assertThrows(AuthenticationServiceException.class, () -> refreshTokenService.consume(first));
+
+        verify(refreshTokenRepository).revokeFamily(eq(consumed.familyId()), any());
+        assertThrows(AuthenticationServiceException.class, () -> refreshTokenService.consume(second));
+        // The rotated token is refused from the in-memory index, before the table is asked
+        assertEquals(Set.of(jtiOf(first)), usedJtis);
+    }
+
+    @Test
+    void rotationRacingARevocationOnAnotherNodeIsRefused() {
+        String first = refreshTokenService.issue(user);
+        RefreshTokenService.ConsumedToken consumed = refreshTokenService.consume(first);
+        // Another node detects reuse and revokes the family before the replacement is stored
+        revokedFamilies.add(consumed.familyId());
+
+        assertThrows(AuthenticationServiceException.class, () -> refreshTokenService.issue(user, consumed.familyId()));
+        verify(refreshTokenRepository).revokeIfFamilyRevoked(any(), any());
+    }
+
+    @Test
+    void reuseDoesNotAffectOtherFamilies() {
+        String first = refreshTokenService.issue(user);
+        String otherLogin = refreshTokenService.issue(user);
+        refreshTokenService.consume(first);
+
+        assertThrows(AuthenticationServiceException.class, () -> refreshTokenService.consume(first));
+
+        assertEquals(7L, refreshTokenService.consume(otherLogin).userId());
+    }
+
+    @Test
+    void logoutRevokesTheFamilyAcrossRestarts() {
+        String token = refreshTokenService.issue(user);
+        refreshTokenService.revoke(token);
+
+        // A node starting after the logout rebuilds the index from the table
+        refreshTokenService.loadRevocations();
+
+        assertThrows(AuthenticationServiceException.class, () -> refreshTokenService.consume(token));
+    }
+
+    @Test
+    void accessAndRefreshTokensAreNotInterchangeable() {
+        String accessToken = jwtService.generateAccessToken(user);
+        String refreshToken = refreshTokenService.issue(user);
+
+        assertThrows(JwtException.class, () -> refreshTokenService.consume(accessToken));
+        assertThrows(JwtException.class, () -> jwtService.getUserFromAccessToken(refreshToken));
+        assertEquals(7L, jwtService.getUserFromAccessToken(accessToken).getId());
+    }
+
+    private String jtiOf(String refreshToken) {
+        return jwtService.getRefreshTokenClaims(refreshToken).getId();
+    }
+}
@@ -0,0 +1,145 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.entity.Booking;
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.Payment;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.enums.BookingStatus;
+import com.projects.airBnbApp.enums.PaymentStatus;
+import com.projects.airBnbApp.repository.BookingRepository;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import com.projects.airBnbApp.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * capturePayment confirms only bookings awaiting payment; a payment for a booking that was expired
+ * or cancelled meanwhile is queued for refund and leaves the released inventory alone.
+ */
+class BookingCaptureTest {
+
+    private static final String ORDER_ID = "order_1";
+    private static final String PAYMENT_ID = "pay_1";
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final InventoryAnalyticsService inventoryAnalyticsService = mock(InventoryAnalyticsService.class);
+
+    private BookingServiceImplementation bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingServiceImplementation(null, null, bookingRepository, null, null, inventoryRepository,
+                inventoryAnalyticsService, null, paymentRepository, null, null, null);
+    }
+
+    @Test
+    void pendingBookingIsConfirmed() throws Exception {
+        Booking booking = givenBooking(BookingStatus.PAYMENTS_PENDING);
+
+        bookingService.capturePayment(PAYMENT_ID, ORDER_ID);
+
+        assertEquals(BookingStatus.CONFIRMED, booking.getBookingStatus());
+        assertEquals(PAYMENT_ID, booking.getPaymentId());
+        Payment payment = savedPayment();
+        assertEquals(PaymentStatus.CONFIRMED, payment.getPaymentStatus());
+        assertSame(booking, payment.getBooking());
+        verify(inventoryRepository).confirmBooking(10L, booking.getCheckInDate(), booking.getCheckOutDate(), 2);
+    }
+
+    @Test
+    void paymentForExpiredBookingIsQueuedForRefund() throws Exception {
+        Booking booking = givenBooking(BookingStatus.EXPIRED);
+        when(paymentRepository.findByBooking(booking)).thenReturn(Optional.empty());
+
+        bookingService.capturePayment(PAYMENT_ID, ORDER_ID);
+
+        assertEquals(BookingStatus.EXPIRED, booking.getBookingStatus());
+        assertNull(booking.getPaymentId());
+        Payment payment = savedPayment();
+        assertEquals(PaymentStatus.REFUND_PENDING, payment.getPaymentStatus());
+        assertEquals(PAYMENT_ID, payment.getTransactionId());
+        assertEquals(booking.getAmount(), payment.getAmount());
+        assertSame(booking, payment.getBooking());
+        verifyNoInteractions(inventoryRepository);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void secondChargeOnCancelledBookingIsRefundedUnlinked() throws Exception {
+        Booking booking = givenBooking(BookingStatus.CANCELLED);
+        booking.setPaymentId("pay_0");
+        when(paymentRepository.findByBooking(booking)).thenReturn(Optional.of(new Payment()));
+
+        bookingService.capturePayment(PAYMENT_ID, ORDER_ID);
+
+        Payment payment = savedPayment();
+        assertEquals(PaymentStatus.REFUND_PENDING, payment.getPaymentStatus());
+        assertNull(payment.getBooking());
+        assertEquals("pay_0", booking.getPaymentId());
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void redeliveredCaptureIsIgnored() throws Exception {
+        Booking booking = givenBooking(BookingStatus.CONFIRMED);
+        booking.setPaymentId(PAYMENT_ID);
+
+        bookingService.capturePayment(PAYMENT_ID, ORDER_ID);
+
+        verify(paymentRepository, never()).save(any());
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void redeliveredLatePaymentIsNotQueuedTwice() throws Exception {
+        givenBooking(BookingStatus.EXPIRED);
+        when(paymentRepository.existsByTransactionId(PAYMENT_ID)).thenReturn(true);
+
+        bookingService.capturePayment(PAYMENT_ID, ORDER_ID);
+
+        verify(paymentRepository, never()).save(any());
+    }
+
+    private Booking givenBooking(BookingStatus status) {
+        Hotel hotel = new Hotel();
+        hotel.setId(5L);
+        Room room = new Room();
+        room.setId(10L);
+        Booking booking = Booking.builder()
+                .id(1L)
+                .hotel(hotel)
+                .room(room)
+                .checkInDate(LocalDate.of(2026, 12, 1))
+                .checkOutDate(LocalDate.of(2026, 12, 3))
+                .roomsCount(2)
+                .amount(new BigDecimal("9000.00"))
+                .paymentOrderId(ORDER_ID)
+                .bookingStatus(status)
+                .build();
+        when(bookingRepository.findAndLockByPaymentOrderId(ORDER_ID)).thenReturn(Optional.of(booking));
+        return booking;
+    }
+
+    private Payment savedPayment() {
+        ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+        verify(paymentRepository).save(saved.capture());
+        return saved.getValue();
+    }
+}
@@ -0,0 +1,167 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.dto.BookingDto;
+import com.projects.airBnbApp.dto.BookingRequest;
+import com.projects.airBnbApp.dto.PriceQuoteRequestDto;
+import com.projects.airBnbApp.entity.Booking;
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.exception.InvalidQuoteException;
+import com.projects.airBnbApp.mapper.BookingMapper;
+import com.projects.airBnbApp.repository.BookingRepository;
+import com.projects.airBnbApp.repository.HotelRepository;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import com.projects.airBnbApp.repository.RoomRepository;
+import com.projects.airBnbApp.strategy.PricingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * initialiseBooking prices the stay before it locks inventory, from a quote token or an internal
+ * quote, and under the locks only compares the pricing inputs' fingerprint.
+ */
+class BookingInitialisationTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2030, 3, 1);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2030, 3, 2);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final HotelRepository hotelRepository = mock(HotelRepository.class);
+    private final RoomRepository roomRepository = mock(RoomRepository.class);
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final BookingMapper bookingMapper = mock(BookingMapper.class);
+    private final PricingService pricingService = mock(PricingService.class);
+
+    private PriceQuoteService priceQuoteService;
+    private BookingServiceImplementation bookingService;
+    private List<Inventory> inventoryList;
+
+    @BeforeEach
+    void setUp() {
+        priceQuoteService = new PriceQuoteService(roomRepository, inventoryRepository, pricingService);
+        ReflectionTestUtils.setField(priceQuoteService, "quoteSecretKey", "test-quote-secret-key-of-at-least-32-bytes");
+        ReflectionTestUtils.setField(priceQuoteService, "ttlSeconds", 900L);
+        priceQuoteService.initKey();
+        bookingService = new BookingServiceImplementation(null, bookingMapper, bookingRepository, hotelRepository,
+                roomRepository, inventoryRepository, null, null, null, priceQuoteService, null, null);
+
+        Hotel hotel = new Hotel();
+        hotel.setId(1L);
+        Room room = new Room();
+        room.setId(10L);
+        room.setHotel(hotel);
+        room.setBasePrice(new BigDecimal("100.00"));
+        inventoryList = List.of(inventory(100L, CHECK_IN), inventory(101L, CHECK_OUT));
+
+        when(hotelRepository.findById(1L)).thenReturn(Optional.of(hotel));
+        when(roomRepository.findById(10L)).thenReturn(Optional.of(room));
+        when(inventoryRepository.findAvailableInventory(10L, CHECK_IN, CHECK_OUT, 2)).thenReturn(inventoryList);
+        when(inventoryRepository.findAndLockAvailableInventory(10L, CHECK_IN, CHECK_OUT, 2)).thenReturn(inventoryList);
+        when(pricingService.calculateDynamicPricing(any())).thenReturn(new BigDecimal("150.00"));
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookingMapper.toDto(any())).thenReturn(new BookingDto());
+    }
+
+    @Test
+    void bookingWithoutQuoteIsPricedBeforeTakingLocks() {
+        bookingService.initialiseBookingForUser(bookingRequest(null), new User());
+
+        InOrder inOrder = inOrder(pricingService, inventoryRepository);
+        inOrder.verify(pricingService, times(2)).calculateDynamicPricing(any());
+        inOrder.verify(inventoryRepository).findAndLockAvailableInventory(10L, CHECK_IN, CHECK_OUT, 2);
+        inOrder.verify(inventoryRepository).initBooking(10L, CHECK_IN, CHECK_OUT, 2);
+        // Nothing is repriced once the rows are locked
+        verify(pricingService, times(2)).calculateDynamicPricing(any());
+        assertEquals(new BigDecimal("600.00"), savedBooking().getAmount());
+    }
+
+    @Test
+    void bookingWithQuoteIsChargedTheQuotedPriceWithoutRepricing() {
+        String token = quoteToken();
+        when(pricingService.calculateDynamicPricing(any())).thenReturn(new BigDecimal("999.00"));
+        clearInvocations(pricingService, inventoryRepository);
+
+        bookingService.initialiseBookingForUser(bookingRequest(token), new User());
+
+        verifyNoInteractions(pricingService);
+        verify(inventoryRepository, never()).findAvailableInventory(any(), any(), any(), anyInt());
+        assertEquals(new BigDecimal("600.00"), savedBooking().getAmount());
+    }
+
+    @Test
+    void inputsChangedWhileWaitingForLocksRejectTheBooking() {
+        String token = quoteToken();
+        // The owner raised the surge factor after the quote was issued
+        List<Inventory> lockedRows = List.of(inventory(100L, CHECK_IN), inventory(101L, CHECK_OUT));
+        lockedRows.get(0).setSurgeFactor(new BigDecimal("1.50"));
+        when(inventoryRepository.findAndLockAvailableInventory(10L, CHECK_IN, CHECK_OUT, 2)).thenReturn(lockedRows);
+
+        assertThrows(InvalidQuoteException.class,
+                () -> bookingService.initialiseBookingForUser(bookingRequest(token), new User()));
+        assertThrows(InvalidQuoteException.class,
+                () -> bookingService.initialiseBookingForUser(bookingRequest(null), new User()));
+
+        verify(inventoryRepository, never()).initBooking(any(), any(), any(), anyInt());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    private String quoteToken() {
+        PriceQuoteRequestDto request = new PriceQuoteRequestDto();
+        request.setRoomId(10L);
+        request.setCheckInDate(CHECK_IN);
+        request.setCheckOutDate(CHECK_OUT);
+        request.setRoomsCount(2);
+        return priceQuoteService.createQuote(1L, request).getQuoteToken();
+    }
+
+    private Booking savedBooking() {
+        ArgumentCaptor<Booking> booking = ArgumentCaptor.forClass(Booking.class);
+        verify(bookingRepository).save(booking.capture());
+        return booking.getValue();
+    }
+
+    private static BookingRequest bookingRequest(String quoteToken) {
+        BookingRequest bookingRequest = new BookingRequest();
+        bookingRequest.setHotelId(1L);
+        bookingRequest.setRoomId(10L);
+        bookingRequest.setCheckInDate(CHECK_IN);
+        bookingRequest.setCheckOutDate(CHECK_OUT);
+        bookingRequest.setRoomsCount(2);
+        bookingRequest.setQuoteToken(quoteToken);
+        return bookingRequest;
+    }
+
+    private static Inventory inventory(Long id, LocalDate date) {
+        Inventory inventory = new Inventory();
+        inventory.setId(id);
+        inventory.setDate(date);
+        inventory.setSurgeFactor(BigDecimal.ONE);
+        inventory.setTotalCount(10);
+        inventory.setBookedCount(0);
+        inventory.setClosed(false);
+        return inventory;
+    }
+}
@@ -0,0 +1,160 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.entity.Booking;
+import com.projects.airBnbApp.entity.User;
+import com.projects.airBnbApp.enums.BookingStatus;
+import com.projects.airBnbApp.exception.InvalidBookingStateException;
+import com.projects.airBnbApp.gateway.PaymentGateway;
+import com.projects.airBnbApp.gateway.PaymentGatewayClient;
+import com.projects.airBnbApp.gateway.StubPaymentGateway;
+import com.projects.airBnbApp.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * initiatePayments against the stub gateway: no transaction, and so no pooled connection, is held
+ * while the gateway is called, and a hold that expired during the call is not brought back.
+ */
+class BookingPaymentInitiationTest {
+
+    private static final long GATEWAY_LATENCY_MS = 200;
+    private static final Long BOOKING_ID = 7L;
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final ThreadPoolTaskExecutor gatewayExecutor = new ThreadPoolTaskExecutor();
+
+    private RecordingGateway gateway;
+    private BookingServiceImplementation bookingService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        StubPaymentGateway stub = new StubPaymentGateway();
+        ReflectionTestUtils.setField(stub, "latencyMs", GATEWAY_LATENCY_MS);
+        gateway = new RecordingGateway(stub);
+
+        gatewayExecutor.setCorePoolSize(1);
+        gatewayExecutor.setMaxPoolSize(1);
+        gatewayExecutor.initialize();
+        PaymentGatewayClient paymentGatewayClient = new PaymentGatewayClient(gateway);
+        ReflectionTestUtils.setField(paymentGatewayClient, "paymentGatewayExecutor", gatewayExecutor);
+        ReflectionTestUtils.setField(paymentGatewayClient, "timeoutMs", 5000L);
+
+        // Only the booking repository, the gateway and the transaction template are used on this path
+        bookingService = new BookingServiceImplementation(null, null, bookingRepository, null, null, null, null, null,
+                null, null, paymentGatewayClient, new TransactionTemplate(transactionManager));
+
+        user = new User();
+        user.setId(1L);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        gatewayExecutor.shutdown();
+    }
+
+    @Test
+    void gatewayIsCalledWithNoTransactionOpen() throws Exception {
+        givenBooking(BookingStatus.GUESTS_ADDED);
+        when(bookingRepository.markPaymentsPending(eq(BOOKING_ID), anyString())).thenReturn(1);
+
+        String paymentUrl = bookingService.initiatePayments(BOOKING_ID);
+
+        assertEquals(1, gateway.calls);
+        assertEquals(0, gateway.openTransactionsDuringCall);
+        assertEquals(2, transactionManager.committedTransactions());
+        // Both transactions together held their connection for less than one gateway round trip
+        assertTrue(transactionManager.heldNanos() < TimeUnit.MILLISECONDS.toNanos(GATEWAY_LATENCY_MS),
+                "Transactions were open for " + TimeUnit.NANOSECONDS.toMillis(transactionManager.heldNanos()) + " ms");
+        assertTrue(paymentUrl.startsWith("/payments/" + BOOKING_ID + "/status?orderId=order_stub_"), paymentUrl);
+        verify(bookingRepository).markPaymentsPending(eq(BOOKING_ID), startsWith("order_stub_"));
+    }
+
+    @Test
+    void holdThatExpiredDuringGatewayCallIsNotRevived() {
+        givenBooking(BookingStatus.RESERVED);
+        // The expiry job moved the booking to EXPIRED while the order was being created
+        when(bookingRepository.markPaymentsPending(eq(BOOKING_ID), anyString())).thenReturn(0);
+
+        assertThrows(InvalidBookingStateException.class, () -> bookingService.initiatePayments(BOOKING_ID));
+
+        assertEquals(1, gateway.calls);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void bookingThatIsNoLongerHeldSkipsGateway() {
+        givenBooking(BookingStatus.EXPIRED);
+
+        assertThrows(InvalidBookingStateException.class, () -> bookingService.initiatePayments(BOOKING_ID));
+
+        assertEquals(0, gateway.calls);
+        verify(bookingRepository, never()).markPaymentsPending(any(), any());
+    }
+
+    private void givenBooking(BookingStatus status) {
+        Booking booking = Booking.builder()
+                .id(BOOKING_ID)
+                .user(user)
+                .bookingStatus(status)
+                .amount(new BigDecimal("4500.00"))
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking));
+    }
+
+    private final class RecordingGateway implements PaymentGateway {
+
+        private final PaymentGateway delegate;
+        private volatile int calls;
+        private volatile int openTransactionsDuringCall;
+
+        RecordingGateway(PaymentGateway delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String createOrder(long amountMinor, String currency, String receipt) throws Exception {
+            calls++;
+            openTransactionsDuringCall = Math.max(openTransactionsDuringCall, transactionManager.openTransactions());
+            return delegate.createOrder(amountMinor, currency, receipt);
+        }
+
+        @Override
+        public String refund(String paymentId, long amountMinor, String receipt) throws Exception {
+            return delegate.refund(paymentId, amountMinor, receipt);
+        }
+
+        @Override
+        public Optional<String> findRefund(String paymentId, String receipt) throws Exception {
+            return delegate.findRefund(paymentId, receipt);
+        }
+    }
+}
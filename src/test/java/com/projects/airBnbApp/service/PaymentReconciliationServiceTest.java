@@ -0,0 +1,165 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.BulkheadProperties;
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.Booking;
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.enums.BookingStatus;
+import com.projects.airBnbApp.event.InventoryReleasedEvent;
+import com.projects.airBnbApp.gateway.LedgerOrder;
+import com.projects.airBnbApp.gateway.PaymentLedger;
+import com.projects.airBnbApp.repository.BookingRepository;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import com.projects.airBnbApp.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentReconciliationServiceTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentLedger paymentLedger = mock(PaymentLedger.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path reportDir;
+
+    private PaymentReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        // Bulkheads are disabled by default, so the jobs workload runs without permits
+        WorkloadBulkhead workloadBulkhead = new WorkloadBulkhead(new BulkheadProperties(), meterRegistry);
+        reconciliationService = new PaymentReconciliationService(bookingRepository, inventoryRepository, paymentRepository,
+                paymentLedger, mock(InventoryAnalyticsService.class), eventPublisher, jdbcTemplate,
+                new TransactionTemplate(transactionManager), workloadBulkhead, meterRegistry);
+        ReflectionTestUtils.setField(reconciliationService, "pageSize", 10);
+        ReflectionTestUtils.setField(reconciliationService, "pendingExpiryMinutes", 30L);
+        ReflectionTestUtils.setField(reconciliationService, "confirmedLookbackDays", 7L);
+        ReflectionTestUtils.setField(reconciliationService, "reportDir", reportDir);
+    }
+
+    @Test
+    void repairsPendingBookingsAndReportsTheRest() throws Exception {
+        LocalDateTime stale = LocalDateTime.now().minusHours(2);
+        Booking paid = booking(1L, BookingStatus.PAYMENTS_PENDING, stale);
+        Booking unpaid = booking(2L, BookingStatus.PAYMENTS_PENDING, stale);
+        Booking recentUnpaid = booking(3L, BookingStatus.PAYMENTS_PENDING, LocalDateTime.now());
+        Booking unfetched = booking(4L, BookingStatus.PAYMENTS_PENDING, stale);
+        Booking confirmedUnpaid = booking(5L, BookingStatus.CONFIRMED, stale);
+        Booking missing = booking(6L, BookingStatus.PAYMENTS_PENDING, stale);
+        List<Booking> page = List.of(paid, unpaid, recentUnpaid, unfetched, confirmedUnpaid, missing);
+
+        when(bookingRepository.findPageForReconciliation(eq(0L), any(), any())).thenReturn(page);
+        when(bookingRepository.findPageForReconciliation(eq(6L), any(), any())).thenReturn(List.of());
+        when(paymentLedger.fetchOrders(any())).thenReturn(Map.of(
+                "order_1", new LedgerOrder("order_1", "paid", "pay_1", 900000),
+                "order_2", new LedgerOrder("order_2", "created", null, 0),
+                "order_3", new LedgerOrder("order_3", "attempted", null, 0),
+                "order_5", new LedgerOrder("order_5", "created", null, 0),
+                "order_6", LedgerOrder.notFound("order_6")));
+        // Locks return whichever requested bookings are still pending
+        when(bookingRepository.findAndLockByIdInAndStatus(any(), eq(BookingStatus.PAYMENTS_PENDING))).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return page.stream().filter(booking -> ids.contains(booking.getId())).toList();
+        });
+
+        reconciliationService.reconcile();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        verify(inventoryRepository).confirmBooking(10L, paid.getCheckInDate(), paid.getCheckOutDate(), 1);
+        verify(bookingRepository).transitionStatus(List.of(2L), BookingStatus.PAYMENTS_PENDING, BookingStatus.EXPIRED);
+        verify(inventoryRepository).releaseReservedInventory(10L, unpaid.getCheckInDate(), unpaid.getCheckOutDate(), 1);
+        verify(eventPublisher).publishEvent(new InventoryReleasedEvent(10L, unpaid.getCheckInDate(), unpaid.getCheckOutDate()));
+        // Repairs for the page commit together; the ledger lookup ran outside any transaction
+        assertEquals(1, transactionManager.committedTransactions());
+        assertEquals(1.0, meterRegistry.counter("reconciliation.ledger.unfetched").count());
+        assertEquals(6.0, meterRegistry.counter("reconciliation.bookings.scanned").count());
+
+        List<String> report = readReport();
+        assertEquals(4, report.size());
+        assertRow(report, "1,order_1,PAYMENTS_PENDING,paid,,pay_1,PAID_NOT_CONFIRMED,CONFIRMED");
+        assertRow(report, "2,order_2,PAYMENTS_PENDING,created,,,PENDING_NOT_PAID,EXPIRED");
+        assertRow(report, "5,order_5,CONFIRMED,created,pay_5,,CONFIRMED_NOT_PAID,NONE");
+        assertRow(report, "6,order_6,PAYMENTS_PENDING,,,,ORDER_NOT_FOUND,NONE");
+    }
+
+    @Test
+    void ledgerFailureStopsTheRunWithoutRepairs() throws Exception {
+        Booking pending = booking(1L, BookingStatus.PAYMENTS_PENDING, LocalDateTime.now().minusHours(2));
+        when(bookingRepository.findPageForReconciliation(eq(0L), any(), any())).thenReturn(List.of(pending));
+        when(paymentLedger.fetchOrders(any())).thenThrow(new IllegalStateException("gateway down"));
+
+        reconciliationService.reconcile();
+
+        verify(bookingRepository, never()).transitionStatus(any(), any(), any());
+        assertEquals(0, transactionManager.committedTransactions());
+        assertEquals(1.0, meterRegistry.counter("reconciliation.ledger.failures").count());
+    }
+
+    private List<String> readReport() throws IOException {
+        try (Stream<Path> files = Files.list(reportDir)) {
+            List<Path> reports = files.toList();
+            assertEquals(1, reports.size());
+            List<String> lines = Files.readAllLines(reports.get(0));
+            return lines.subList(1, lines.size());
+        }
+    }
+
+    private static void assertRow(List<String> report, String row) {
+        assertTrue(report.contains(row), "Missing report row " + row + " in " + report);
+    }
+
+    private static Booking booking(Long id, BookingStatus status, LocalDateTime updatedAt) {
+        Hotel hotel = new Hotel();
+        hotel.setId(5L);
+        Room room = new Room();
+        room.setId(10L);
+        return Booking.builder()
+                .id(id)
+                .hotel(hotel)
+                .room(room)
+                .checkInDate(LocalDate.of(2026, 12, 1))
+                .checkOutDate(LocalDate.of(2026, 12, 2))
+                .roomsCount(1)
+                .amount(new BigDecimal("9000.00"))
+                .paymentOrderId("order_" + id)
+                .paymentId(status == BookingStatus.CONFIRMED ? "pay_" + id : null)
+                .bookingStatus(status)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
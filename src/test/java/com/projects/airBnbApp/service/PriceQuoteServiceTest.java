@@ -0,0 +1,144 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.dto.BookingRequest;
+import com.projects.airBnbApp.dto.PriceQuoteDto;
+import com.projects.airBnbApp.dto.PriceQuoteRequestDto;
+import com.projects.airBnbApp.entity.Hotel;
+import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.entity.Room;
+import com.projects.airBnbApp.exception.InvalidQuoteException;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import com.projects.airBnbApp.repository.RoomRepository;
+import com.projects.airBnbApp.strategy.PricingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A quote is honoured only for the stay it was issued for, and its fingerprint moves with the
+ * owner-controlled pricing inputs but not with bookings made in the meantime.
+ */
+class PriceQuoteServiceTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2030, 3, 1);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2030, 3, 2);
+
+    private final RoomRepository roomRepository = mock(RoomRepository.class);
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final PricingService pricingService = mock(PricingService.class);
+
+    private PriceQuoteService priceQuoteService;
+    private Room room;
+    private List<Inventory> inventoryList;
+
+    @BeforeEach
+    void setUp() {
+        priceQuoteService = new PriceQuoteService(roomRepository, inventoryRepository, pricingService);
+        ReflectionTestUtils.setField(priceQuoteService, "quoteSecretKey", "test-quote-secret-key-of-at-least-32-bytes");
+        ReflectionTestUtils.setField(priceQuoteService, "ttlSeconds", 900L);
+        priceQuoteService.initKey();
+
+        Hotel hotel = new Hotel();
+        hotel.setId(1L);
+        hotel.setPricingRulesVersion(3L);
+        room = new Room();
+        room.setId(10L);
+        room.setHotel(hotel);
+        room.setBasePrice(new BigDecimal("100.00"));
+        inventoryList = List.of(inventory(100L, CHECK_IN), inventory(101L, CHECK_OUT));
+
+        when(roomRepository.findById(10L)).thenReturn(Optional.of(room));
+        when(inventoryRepository.findAvailableInventory(10L, CHECK_IN, CHECK_OUT, 2)).thenReturn(inventoryList);
+        when(pricingService.calculateDynamicPricing(any())).thenReturn(new BigDecimal("120.004"));
+    }
+
+    @Test
+    void quoteVerifiesForTheSameStay() {
+        PriceQuoteDto quote = createQuote();
+
+        PriceQuoteService.QuotedPrice quotedPrice = priceQuoteService.verify(bookingRequest(quote.getQuoteToken(), 2));
+
+        assertEquals(new BigDecimal("480.00"), quote.getTotalPrice());
+        assertEquals(quote.getTotalPrice(), quotedPrice.totalPrice());
+        assertEquals(priceQuoteService.fingerprint(inventoryList, room.getBasePrice(), 3L), quotedPrice.fingerprint());
+    }
+
+    @Test
+    void quoteForAnotherStayIsRejected() {
+        PriceQuoteDto quote = createQuote();
+
+        assertThrows(InvalidQuoteException.class, () -> priceQuoteService.verify(bookingRequest(quote.getQuoteToken(), 3)));
+    }
+
+    @Test
+    void tamperedQuoteIsRejected() {
+        String token = createQuote().getQuoteToken();
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(InvalidQuoteException.class, () -> priceQuoteService.verify(bookingRequest(tampered, 2)));
+    }
+
+    @Test
+    void expiredQuoteIsRejected() {
+        ReflectionTestUtils.setField(priceQuoteService, "ttlSeconds", -1L);
+        String token = createQuote().getQuoteToken();
+
+        assertThrows(InvalidQuoteException.class, () -> priceQuoteService.verify(bookingRequest(token, 2)));
+    }
+
+    @Test
+    void fingerprintIgnoresBookingsButNotOwnerInputs() {
+        String original = priceQuoteService.fingerprint(inventoryList, room.getBasePrice(), 3L);
+
+        inventoryList.get(0).setBookedCount(5);
+        assertEquals(original, priceQuoteService.fingerprint(inventoryList, room.getBasePrice(), 3L));
+
+        assertNotEquals(original, priceQuoteService.fingerprint(inventoryList, room.getBasePrice(), 4L));
+        assertNotEquals(original, priceQuoteService.fingerprint(inventoryList, new BigDecimal("110.00"), 3L));
+        inventoryList.get(1).setSurgeFactor(new BigDecimal("1.50"));
+        assertNotEquals(original, priceQuoteService.fingerprint(inventoryList, room.getBasePrice(), 3L));
+    }
+
+    private PriceQuoteDto createQuote() {
+        PriceQuoteRequestDto request = new PriceQuoteRequestDto();
+        request.setRoomId(10L);
+        request.setCheckInDate(CHECK_IN);
+        request.setCheckOutDate(CHECK_OUT);
+        request.setRoomsCount(2);
+        return priceQuoteService.createQuote(1L, request);
+    }
+
+    private static BookingRequest bookingRequest(String quoteToken, int roomsCount) {
+        BookingRequest bookingRequest = new BookingRequest();
+        bookingRequest.setHotelId(1L);
+        bookingRequest.setRoomId(10L);
+        bookingRequest.setCheckInDate(CHECK_IN);
+        bookingRequest.setCheckOutDate(CHECK_OUT);
+        bookingRequest.setRoomsCount(roomsCount);
+        bookingRequest.setQuoteToken(quoteToken);
+        return bookingRequest;
+    }
+
+    private static Inventory inventory(Long id, LocalDate date) {
+        Inventory inventory = new Inventory();
+        inventory.setId(id);
+        inventory.setDate(date);
+        inventory.setSurgeFactor(BigDecimal.ONE);
+        inventory.setTotalCount(10);
+        inventory.setBookedCount(0);
+        inventory.setClosed(false);
+        return inventory;
+    }
+}
@@ -0,0 +1,157 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.BulkheadProperties;
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.PricingRule;
+import com.projects.airBnbApp.repository.HotelMinPriceRepository;
+import com.projects.airBnbApp.repository.HotelRepository;
+import com.projects.airBnbApp.repository.InventoryRepository;
+import com.projects.airBnbApp.repository.JobLeaseRepository;
+import com.projects.airBnbApp.repository.PricingRuleRepository;
+import com.projects.airBnbApp.strategy.PriceColumns;
+import com.projects.airBnbApp.strategy.PricingProperties;
+import com.projects.airBnbApp.strategy.PricingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rows whose price moves only because their date got a day closer are marked for the hourly run on
+ * the day they cross a threshold, for the urgency window and for leadTime conditions in stored rules.
+ * A full reprice on startup happens only on the first node to start with a new pricing configuration.
+ */
+class PricingUpdateServiceTest {
+
+    private static final Long HOTEL_ID = 1L;
+    private static final String RULE = "when leadTime < 3 then +20%";
+
+    private final HotelRepository hotelRepository = mock(HotelRepository.class);
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final PricingRuleRepository pricingRuleRepository = mock(PricingRuleRepository.class);
+    private final JobLeaseRepository jobLeaseRepository = mock(JobLeaseRepository.class);
+    private final ThreadPoolTaskExecutor pricingJobExecutor = mock(ThreadPoolTaskExecutor.class);
+    private final Executor startupExecutor = mock(Executor.class);
+    private final PricingProperties pricingProperties = new PricingProperties();
+
+    private PricingService pricingService;
+    private PricingUpdateService pricingUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        PricingRule rule = new PricingRule();
+        rule.setId(1L);
+        rule.setExpression(RULE);
+        when(pricingRuleRepository.findActiveExpressions()).thenReturn(List.of(RULE));
+        when(pricingRuleRepository.findByHotelIdAndActiveTrueOrderByPriorityAscIdAsc(HOTEL_ID)).thenReturn(List.of(rule));
+        when(hotelRepository.findPricingRulesVersion(any())).thenReturn(Optional.of(0L));
+
+        pricingService = new PricingService(pricingProperties, mock(HolidayCalendarService.class),
+                pricingRuleRepository, hotelRepository);
+        ReflectionTestUtils.setField(pricingService, "chainTtlMs", 300_000L);
+        ReflectionTestUtils.setField(pricingService, "chainMaxEntries", 100);
+        pricingService.initCache();
+
+        pricingUpdateService = new PricingUpdateService(hotelRepository, inventoryRepository,
+                mock(HotelMinPriceRepository.class), jobLeaseRepository, pricingService,
+                mock(InventoryAnalyticsService.class), mock(TransactionTemplate.class), mock(JdbcTemplate.class),
+                mock(DataSource.class), new SimpleMeterRegistry(),
+                new WorkloadBulkhead(new BulkheadProperties(), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(pricingUpdateService, "pricingJobExecutor", pricingJobExecutor);
+        ReflectionTestUtils.setField(pricingUpdateService, "leaseMs", 900_000L);
+        ReflectionTestUtils.setField(pricingUpdateService, "nodeId", "node-1");
+        ReflectionTestUtils.setField(pricingUpdateService, "startupExecutor", startupExecutor);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(startupExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void startupSkipsTheFullRepriceWhenTheConfigurationWasAlreadyApplied() {
+        when(jobLeaseRepository.tryAcquire(any(), any(), any(), any())).thenReturn(0);
+
+        pricingUpdateService.repriceAllOnConfigChange();
+
+        verify(inventoryRepository, never()).markPriceDirtyBetween(any(), any());
+        verify(startupExecutor, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    void firstStartupOnANewConfigurationRepricesEverythingOffTheStartupThread() {
+        String leaseKey = "pricing-config:" + pricingService.configFingerprint();
+        when(jobLeaseRepository.tryAcquire(eq(leaseKey), eq("node-1"), any(), any())).thenReturn(1);
+
+        pricingUpdateService.repriceAllOnConfigChange();
+
+        // Not on a pricing job worker, which would then wait on the partitions queued behind it
+        verify(startupExecutor).execute(any(Runnable.class));
+        verify(pricingJobExecutor, never()).execute(any(Runnable.class));
+        verify(inventoryRepository).markPriceDirtyBetween(LocalDate.now(), LocalDate.now().plusYears(1));
+        verify(jobLeaseRepository).markCompleted(eq(leaseKey), eq("node-1"), any());
+        verify(jobLeaseRepository).deleteOthersWithPrefix("pricing-config:", leaseKey);
+    }
+
+    @Test
+    void fingerprintMovesWithTheConfiguration() {
+        String fingerprint = pricingService.configFingerprint();
+        assertEquals(fingerprint, pricingService.configFingerprint());
+
+        PricingProperties.StrategySettings urgency = new PricingProperties.StrategySettings();
+        urgency.getParams().put("days", BigDecimal.valueOf(5));
+        pricingProperties.getStrategies().put("urgency", urgency);
+
+        assertNotEquals(fingerprint, pricingService.configFingerprint());
+    }
+
+    @Test
+    void rowsArePricedDifferentlyExactlyOnTheDayTheyAreMarked() {
+        LocalDate today = LocalDate.now();
+        ReflectionTestUtils.setField(pricingUpdateService, "urgencyMarkedOn", today.minusDays(1));
+
+        pricingUpdateService.updatePrices();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<LocalDate>> marked = ArgumentCaptor.forClass(Collection.class);
+        verify(inventoryRepository).markPriceDirtyOnDates(marked.capture());
+        // The rule's window of 3 days and the default urgency window of 7
+        assertEquals(List.of(today.plusDays(2), today.plusDays(6)), List.copyOf(marked.getValue()));
+
+        // A row's price yesterday is what a row one day further out is priced at today
+        for (int leadTime = 0; leadTime <= 10; leadTime++) {
+            LocalDate date = today.plusDays(leadTime);
+            boolean changedToday = priceMinor(date) != priceMinor(date.plusDays(1));
+            assertEquals(marked.getValue().contains(date), changedToday, () -> "Row on " + date);
+        }
+    }
+
+    private long priceMinor(LocalDate date) {
+        PriceColumns columns = new PriceColumns(1);
+        columns.clear("Mumbai");
+        columns.add(1_000_00, 100, 0, 10, (int) date.toEpochDay());
+        pricingService.calculatePrices(HOTEL_ID, columns);
+        return columns.priceMinor(0);
+    }
+}
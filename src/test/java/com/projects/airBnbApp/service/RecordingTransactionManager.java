@@ -0,0 +1,56 @@
+package com.projects.airBnbApp.service;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for the JPA transaction manager in service tests. It counts open transactions and how long
+ * they stayed open, which is how long a real one would have held its pooled connection.
+ */
+class RecordingTransactionManager implements PlatformTransactionManager {
+
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger committed = new AtomicInteger();
+    private final AtomicLong heldNanos = new AtomicLong();
+    private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) {
+        open.incrementAndGet();
+        startedAt.set(System.nanoTime());
+        return new SimpleTransactionStatus();
+    }
+
+    @Override
+    public void commit(TransactionStatus status) {
+        committed.incrementAndGet();
+        end();
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) {
+        end();
+    }
+
+    int openTransactions() {
+        return open.get();
+    }
+
+    int committedTransactions() {
+        return committed.get();
+    }
+
+    long heldNanos() {
+        return heldNanos.get();
+    }
+
+    private void end() {
+        heldNanos.addAndGet(System.nanoTime() - startedAt.get());
+        open.decrementAndGet();
+    }
+}
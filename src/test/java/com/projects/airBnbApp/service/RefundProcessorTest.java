@@ -0,0 +1,143 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.BulkheadProperties;
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.Payment;
+import com.projects.airBnbApp.enums.PaymentStatus;
+import com.projects.airBnbApp.exception.PaymentGatewayException;
+import com.projects.airBnbApp.gateway.PaymentGatewayClient;
+import com.projects.airBnbApp.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refunds carry a receipt derived from the payment id, and a payment claimed before is looked up on
+ * the gateway first, so a refund that already went through is recorded instead of submitted again.
+ */
+class RefundProcessorTest {
+
+    private static final String RECEIPT = "refund_42";
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentGatewayClient paymentGatewayClient = mock(PaymentGatewayClient.class);
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RefundProcessor refundProcessor;
+
+    @BeforeEach
+    void setUp() {
+        refundProcessor = new RefundProcessor(paymentRepository, paymentGatewayClient,
+                new TransactionTemplate(transactionManager), meterRegistry,
+                new WorkloadBulkhead(new BulkheadProperties(), meterRegistry));
+        ReflectionTestUtils.setField(refundProcessor, "batchSize", 20);
+        ReflectionTestUtils.setField(refundProcessor, "ratePerSecond", 1000.0);
+        ReflectionTestUtils.setField(refundProcessor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(refundProcessor, "backoffMs", 5000L);
+        ReflectionTestUtils.setField(refundProcessor, "leaseMs", 300000L);
+        refundProcessor.registerMetrics();
+    }
+
+    @Test
+    void firstAttemptSubmitsRefundWithStableReceipt() {
+        Payment payment = givenDueRefund(0);
+        when(paymentGatewayClient.refund("pay_1", payment.getAmount(), RECEIPT)).thenReturn("rfnd_1");
+
+        refundProcessor.processDueRefunds();
+
+        verify(paymentGatewayClient, never()).findRefund(any(), any());
+        assertRefunded(payment, "rfnd_1");
+        assertEquals(1, payment.getRefundAttempts());
+        // The claim and the outcome are separate transactions
+        assertEquals(2, transactionManager.committedTransactions());
+    }
+
+    @Test
+    void retriedPaymentIsRecordedWhenGatewayAlreadyRefundedIt() {
+        Payment payment = givenDueRefund(1);
+        when(paymentGatewayClient.findRefund("pay_1", RECEIPT)).thenReturn(Optional.of("rfnd_1"));
+
+        refundProcessor.processDueRefunds();
+
+        verify(paymentGatewayClient, never()).refund(any(), any(), any());
+        assertRefunded(payment, "rfnd_1");
+    }
+
+    @Test
+    void retriedPaymentWithoutRefundOnGatewayIsSubmittedWithSameReceipt() {
+        Payment payment = givenDueRefund(1);
+        when(paymentGatewayClient.findRefund("pay_1", RECEIPT)).thenReturn(Optional.empty());
+        when(paymentGatewayClient.refund("pay_1", payment.getAmount(), RECEIPT)).thenReturn("rfnd_2");
+
+        refundProcessor.processDueRefunds();
+
+        assertRefunded(payment, "rfnd_2");
+        assertEquals(2, payment.getRefundAttempts());
+    }
+
+    @Test
+    void failedRefundBacksOffAndStaysPending() {
+        Payment payment = givenDueRefund(0);
+        when(paymentGatewayClient.refund("pay_1", payment.getAmount(), RECEIPT))
+                .thenThrow(new PaymentGatewayException("Payment gateway timed out while trying to refund payment"));
+
+        LocalDateTime before = LocalDateTime.now();
+        refundProcessor.processDueRefunds();
+
+        assertEquals(PaymentStatus.REFUND_PENDING, payment.getPaymentStatus());
+        assertTrue(payment.getNextAttemptAt().isAfter(before.plusSeconds(4)));
+        assertEquals("Payment gateway timed out while trying to refund payment", payment.getLastError());
+        assertEquals(1.0, meterRegistry.counter("refunds.retried").count());
+    }
+
+    @Test
+    void refundIsGivenUpAfterMaxAttempts() {
+        Payment payment = givenDueRefund(2);
+        when(paymentGatewayClient.findRefund("pay_1", RECEIPT)).thenReturn(Optional.empty());
+        when(paymentGatewayClient.refund("pay_1", payment.getAmount(), RECEIPT))
+                .thenThrow(new PaymentGatewayException("Payment gateway failed to refund payment"));
+
+        refundProcessor.processDueRefunds();
+
+        assertEquals(PaymentStatus.REFUND_FAILED, payment.getPaymentStatus());
+        assertNull(payment.getNextAttemptAt());
+        assertEquals(1.0, meterRegistry.counter("refunds.failed").count());
+    }
+
+    private Payment givenDueRefund(int previousAttempts) {
+        Payment payment = new Payment();
+        payment.setId(42L);
+        payment.setTransactionId("pay_1");
+        payment.setAmount(new BigDecimal("4500.00"));
+        payment.setPaymentStatus(PaymentStatus.REFUND_PENDING);
+        payment.setRefundAttempts(previousAttempts);
+        payment.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        when(paymentRepository.findAndLockDueRefunds(any(), anyInt())).thenReturn(List.of(payment));
+        when(paymentRepository.findById(42L)).thenReturn(Optional.of(payment));
+        return payment;
+    }
+
+    private static void assertRefunded(Payment payment, String refundId) {
+        assertEquals(PaymentStatus.REFUNDED, payment.getPaymentStatus());
+        assertEquals(refundId, payment.getRefundId());
+        assertNull(payment.getNextAttemptAt());
+    }
+}
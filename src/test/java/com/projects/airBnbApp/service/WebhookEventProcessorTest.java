@@ -0,0 +1,132 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.config.BulkheadProperties;
+import com.projects.airBnbApp.config.WorkloadBulkhead;
+import com.projects.airBnbApp.entity.WebhookEvent;
+import com.projects.airBnbApp.enums.WebhookEventStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebhookEventProcessorTest {
+
+    private final WebhookInboxService webhookInboxService = mock(WebhookInboxService.class);
+    private final BookingService bookingService = mock(BookingService.class);
+    private final WebhookEventProcessor processor = new WebhookEventProcessor(webhookInboxService, bookingService,
+            new WorkloadBulkhead(new BulkheadProperties(), new SimpleMeterRegistry()));
+
+    @BeforeEach
+    void startLanes() {
+        ReflectionTestUtils.setField(processor, "laneCount", 4);
+        ReflectionTestUtils.setField(processor, "batchSize", 50);
+        processor.startLanes();
+    }
+
+    @AfterEach
+    void stopLanes() {
+        processor.stopLanes();
+    }
+
+    @Test
+    void capturedPaymentConfirmsBooking() throws Exception {
+        givenClaimed(event(1L, "payment.captured", "pay_1", "order_1"));
+
+        processor.processDueEvents();
+
+        verify(bookingService).capturePayment("pay_1", "order_1");
+        verify(webhookInboxService).markProcessed(1L);
+    }
+
+    @Test
+    void orderPaidConfirmsBooking() throws Exception {
+        givenClaimed(event(1L, "order.paid", "pay_1", "order_1"));
+
+        processor.processDueEvents();
+
+        verify(bookingService).capturePayment("pay_1", "order_1");
+        verify(webhookInboxService).markProcessed(1L);
+    }
+
+    @Test
+    void otherEventTypesAreSkippedWithoutTouchingBookings() throws Exception {
+        givenClaimed(event(1L, "payment.failed", "pay_1", "order_1"), event(2L, "payment.authorized", "pay_2", "order_2"));
+
+        processor.processDueEvents();
+
+        verify(bookingService, never()).capturePayment(any(), any());
+        verify(webhookInboxService).markSkipped(1L);
+        verify(webhookInboxService).markSkipped(2L);
+        verify(webhookInboxService, never()).markProcessed(any());
+    }
+
+    @Test
+    void failedCaptureIsHandedBackForRetry() throws Exception {
+        givenClaimed(event(1L, "payment.captured", "pay_1", "order_1"));
+        RuntimeException failure = new RuntimeException("lock timeout");
+        doThrow(failure).when(bookingService).capturePayment("pay_1", "order_1");
+
+        processor.processDueEvents();
+
+        verify(webhookInboxService).markFailed(1L, failure);
+        verify(webhookInboxService, never()).markProcessed(any());
+    }
+
+    @Test
+    void eventsOfOneOrderRunInArrivalOrder() throws Exception {
+        List<WebhookEvent> events = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            events.add(event(id, "payment.captured", "pay_" + id, "order_" + (id % 3)));
+        }
+        givenClaimed(events.toArray(WebhookEvent[]::new));
+
+        List<String> captured = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            captured.add(invocation.getArgument(1) + "/" + invocation.getArgument(0));
+            return null;
+        }).when(bookingService).capturePayment(any(), any());
+
+        processor.processDueEvents();
+
+        assertEquals(events.size(), captured.size());
+        for (int order = 0; order < 3; order++) {
+            String orderId = "order_" + order;
+            List<String> expected = events.stream()
+                    .filter(event -> event.getOrderId().equals(orderId))
+                    .map(event -> orderId + "/" + event.getPaymentId())
+                    .toList();
+            assertEquals(expected, captured.stream().filter(call -> call.startsWith(orderId + "/")).toList());
+        }
+    }
+
+    private void givenClaimed(WebhookEvent... events) {
+        when(webhookInboxService.claimDueEvents(anyInt())).thenReturn(List.of(events));
+    }
+
+    private static WebhookEvent event(Long id, String type, String paymentId, String orderId) {
+        return WebhookEvent.builder()
+                .id(id)
+                .dedupKey(type + ":" + paymentId)
+                .eventType(type)
+                .paymentId(paymentId)
+                .orderId(orderId)
+                .status(WebhookEventStatus.PROCESSING)
+                .attempts(0)
+                .build();
+    }
+}
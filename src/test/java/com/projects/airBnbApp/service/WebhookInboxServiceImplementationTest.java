@@ -0,0 +1,97 @@
+package com.projects.airBnbApp.service;
+
+import com.projects.airBnbApp.entity.WebhookEvent;
+import com.projects.airBnbApp.enums.WebhookEventStatus;
+import com.projects.airBnbApp.repository.WebhookEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebhookInboxServiceImplementationTest {
+
+    private final WebhookEventRepository webhookEventRepository = mock(WebhookEventRepository.class);
+    private final WebhookInboxServiceImplementation inbox = new WebhookInboxServiceImplementation(webhookEventRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inbox, "maxAttempts", 3);
+        ReflectionTestUtils.setField(inbox, "backoffMs", 2000L);
+    }
+
+    @Test
+    void newEventIsStoredAsPending() {
+        assertTrue(inbox.enqueue("evt_1", "payment.captured", "pay_1", "order_1", "sig", "{}"));
+
+        ArgumentCaptor<WebhookEvent> saved = ArgumentCaptor.forClass(WebhookEvent.class);
+        verify(webhookEventRepository).save(saved.capture());
+        assertEquals("evt_1", saved.getValue().getDedupKey());
+        assertEquals(WebhookEventStatus.PENDING, saved.getValue().getStatus());
+    }
+
+    @Test
+    void redeliveredEventIsIgnored() {
+        when(webhookEventRepository.existsByDedupKey("evt_1")).thenReturn(true);
+
+        assertFalse(inbox.enqueue("evt_1", "payment.captured", "pay_1", "order_1", "sig", "{}"));
+        verify(webhookEventRepository, never()).save(any());
+    }
+
+    @Test
+    void eventWithoutIdIsDeduplicatedByTypeAndPayment() {
+        when(webhookEventRepository.existsByDedupKey("payment.captured:pay_1")).thenReturn(true);
+
+        assertFalse(inbox.enqueue(null, "payment.captured", "pay_1", "order_1", "sig", "{}"));
+        verify(webhookEventRepository, never()).save(any());
+    }
+
+    @Test
+    void concurrentDeliveryLosingTheInsertIsIgnored() {
+        when(webhookEventRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertFalse(inbox.enqueue("evt_1", "payment.captured", "pay_1", "order_1", "sig", "{}"));
+    }
+
+    @Test
+    void failedEventIsRetriedWithBackoffUntilMaxAttempts() {
+        WebhookEvent event = WebhookEvent.builder().id(1L).status(WebhookEventStatus.PROCESSING).attempts(0).build();
+        when(webhookEventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        LocalDateTime before = LocalDateTime.now();
+        inbox.markFailed(1L, new RuntimeException("first"));
+        assertEquals(WebhookEventStatus.PENDING, event.getStatus());
+        assertFalse(event.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+
+        inbox.markFailed(1L, new RuntimeException("second"));
+        assertEquals(WebhookEventStatus.PENDING, event.getStatus());
+        assertFalse(event.getNextAttemptAt().isBefore(before.plusSeconds(4)));
+
+        inbox.markFailed(1L, new RuntimeException("third"));
+        assertEquals(WebhookEventStatus.FAILED, event.getStatus());
+        assertEquals(3, event.getAttempts());
+        assertEquals("third", event.getLastError());
+    }
+
+    @Test
+    void skippedEventIsClosed() {
+        WebhookEvent event = WebhookEvent.builder().id(1L).status(WebhookEventStatus.PROCESSING).attempts(0).build();
+        when(webhookEventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        inbox.markSkipped(1L);
+
+        assertEquals(WebhookEventStatus.SKIPPED, event.getStatus());
+    }
+}
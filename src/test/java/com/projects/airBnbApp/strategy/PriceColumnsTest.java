@@ -0,0 +1,120 @@
+package com.projects.airBnbApp.strategy;
+
+import com.projects.airBnbApp.entity.Inventory;
+import com.projects.airBnbApp.entity.Room;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The column path must price every row exactly as the BigDecimal path does, to the paisa.
+ */
+class PriceColumnsTest {
+
+    private static final String[] BASE_PRICES = {"0.01", "1.00", "99.99", "1234.56", "75000.50"};
+    private static final String[] SURGE_FACTORS = {"1.00", "1.10", "1.37", "2.50"};
+    private static final int[][] OCCUPANCIES = {{0, 10}, {8, 10}, {9, 10}, {10, 10}};
+    private static final int[] DAYS_FROM_TODAY = {-1, 0, 3, 6, 7, 30};
+    // Round multipliers and ones with enough digits to land on the HALF_UP boundary
+    private static final String[][] MULTIPLIERS = {{"1.2", "1.15"}, {"1.175", "1.0333"}, {"0.85", "1.005"}};
+
+    // Only the explicit-chain overload is used, which needs none of the collaborators
+    private final PricingService pricingService = new PricingService(null, null, null, null);
+
+    @Test
+    void columnPathMatchesBigDecimalPathAcrossGrid() {
+        LocalDate today = LocalDate.now();
+        for (String[] multipliers : MULTIPLIERS) {
+            PricingStrategy chain = chain(multipliers[0], multipliers[1]);
+            List<Inventory> rows = new ArrayList<>();
+            for (String basePrice : BASE_PRICES) {
+                for (String surgeFactor : SURGE_FACTORS) {
+                    for (int[] occupancy : OCCUPANCIES) {
+                        for (int days : DAYS_FROM_TODAY) {
+                            rows.add(inventory(basePrice, surgeFactor, occupancy[0], occupancy[1], today.plusDays(days)));
+                        }
+                    }
+                }
+            }
+
+            PriceColumns columns = price(chain, rows);
+            for (int i = 0; i < rows.size(); i++) {
+                String row = describe(rows.get(i)) + " with multipliers " + String.join("/", multipliers);
+                assertFalse(columns.isOverflow(i), "Unexpected overflow for " + row);
+                assertEquals(expectedMinor(chain, rows.get(i)), columns.priceMinor(i), "Price mismatch for " + row);
+            }
+        }
+    }
+
+    @Test
+    void overflowingRowsFallBackToBigDecimalPath() {
+        LocalDate today = LocalDate.now();
+        // At scale 7 the numerator passes Long.MAX_VALUE for the large base price only
+        PricingStrategy chain = chain("1.2", "1.15");
+        List<Inventory> rows = List.of(
+                inventory("99999999999.99", "9.99", 10, 10, today),
+                inventory("1.00", "1.00", 0, 10, today.plusDays(30)),
+                inventory("75000.50", "2.50", 9, 10, today.plusDays(2)));
+
+        PriceColumns columns = price(chain, rows);
+
+        assertTrue(columns.isOverflow(0));
+        assertFalse(columns.isOverflow(1));
+        assertFalse(columns.isOverflow(2));
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(expectedMinor(chain, rows.get(i)), columns.priceMinor(i), "Price mismatch for " + describe(rows.get(i)));
+        }
+    }
+
+    private PriceColumns price(PricingStrategy chain, List<Inventory> rows) {
+        PriceColumns columns = new PriceColumns(rows.size());
+        columns.clear("Test City");
+        for (Inventory inventory : rows) {
+            columns.add(PriceColumns.toMinorUnits(inventory.getRoom().getBasePrice()),
+                    PriceColumns.toMinorUnits(inventory.getSurgeFactor()),
+                    inventory.getBookedCount(), inventory.getTotalCount(), (int) inventory.getDate().toEpochDay());
+        }
+        pricingService.calculatePrices(chain, 1L, columns);
+        return columns;
+    }
+
+    private static PricingStrategy chain(String occupancyMultiplier, String urgencyMultiplier) {
+        PricingStrategy chain = new SurgePricingStrategy(new BasePricingStrategy());
+        chain = new OccupancyPricingStrategy(chain, Map.of("threshold", new BigDecimal("0.8"),
+                "multiplier", new BigDecimal(occupancyMultiplier)));
+        return new UrgencyPricingStrategy(chain, Map.of("days", BigDecimal.valueOf(7),
+                "multiplier", new BigDecimal(urgencyMultiplier)));
+    }
+
+    private static long expectedMinor(PricingStrategy chain, Inventory inventory) {
+        return PriceColumns.toMinorUnits(chain.calculatePrice(inventory).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static Inventory inventory(String basePrice, String surgeFactor, int bookedCount, int totalCount,
+                                       LocalDate date) {
+        Room room = new Room();
+        room.setBasePrice(new BigDecimal(basePrice));
+        Inventory inventory = new Inventory();
+        inventory.setRoom(room);
+        inventory.setSurgeFactor(new BigDecimal(surgeFactor));
+        inventory.setBookedCount(bookedCount);
+        inventory.setTotalCount(totalCount);
+        inventory.setDate(date);
+        return inventory;
+    }
+
+    private static String describe(Inventory inventory) {
+        return "base " + inventory.getRoom().getBasePrice() + ", surge " + inventory.getSurgeFactor()
+                + ", occupancy " + inventory.getBookedCount() + "/" + inventory.getTotalCount()
+                + ", date " + inventory.getDate();
+    }
+}
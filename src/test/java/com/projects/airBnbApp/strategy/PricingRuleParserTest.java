@@ -0,0 +1,142 @@
+package com.projects.airBnbApp.strategy;
+
+import com.projects.airBnbApp.exception.InvalidPricingRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingRuleParserTest {
+
+    private static final int FRIDAY = 5;
+    private static final int SATURDAY = 6;
+    private static final int SUNDAY = 7;
+
+    @Test
+    void parsesPercentageActions() {
+        assertMultiplier("1.15", PricingRuleParser.parse("+15%"));
+        assertMultiplier("0.9", PricingRuleParser.parse("-10%"));
+        assertMultiplier("1.125", PricingRuleParser.parse("+12.5%"));
+        assertMultiplier("0", PricingRuleParser.parse("-100%"));
+    }
+
+    @Test
+    void parsesFloorAtTwoDecimals() {
+        CompiledPricingRule rule = PricingRuleParser.parse("floor 2500");
+
+        assertNull(rule.multiplier());
+        assertEquals(new BigDecimal("2500.00"), rule.floor());
+        assertTrue(rule.condition().test(FRIDAY, false, 0, 0));
+    }
+
+    @Test
+    void unconditionalRuleAlwaysApplies() {
+        assertTrue(PricingRuleParser.parse("+5%").condition().test(FRIDAY, false, 0, 100));
+    }
+
+    @Test
+    void weekendAndHolidayConditions() {
+        RuleCondition weekend = PricingRuleParser.parse("when weekend then +15%").condition();
+        assertTrue(weekend.test(SATURDAY, false, 0, 0));
+        assertTrue(weekend.test(SUNDAY, false, 0, 0));
+        assertFalse(weekend.test(FRIDAY, false, 0, 0));
+
+        RuleCondition holiday = PricingRuleParser.parse("when holiday then +25%").condition();
+        assertTrue(holiday.test(FRIDAY, true, 0, 0));
+        assertFalse(holiday.test(FRIDAY, false, 0, 0));
+    }
+
+    @Test
+    void comparisonOperators() {
+        assertTrue(occupancy("< 70", 69.9));
+        assertFalse(occupancy("< 70", 70));
+        assertTrue(occupancy("<= 70", 70));
+        assertFalse(occupancy("> 70", 70));
+        assertTrue(occupancy("> 70%", 70.1));
+        assertTrue(occupancy(">= 70", 70));
+        assertTrue(occupancy("= 70", 70));
+        assertFalse(occupancy("= 70", 71));
+
+        RuleCondition leadTime = PricingRuleParser.parse("when leadTime <= 3 then +20%").condition();
+        assertTrue(leadTime.test(FRIDAY, false, 0, 3));
+        assertFalse(leadTime.test(FRIDAY, false, 0, 4));
+    }
+
+    @Test
+    void leadTimeComparisonsReportTheWindowsWhereTheyFlip() {
+        assertEquals(Set.of(3), PricingRuleParser.parse("when leadTime < 3 then +20%").leadTimeWindows());
+        assertEquals(Set.of(4), PricingRuleParser.parse("when leadTime <= 3 then +20%").leadTimeWindows());
+        assertEquals(Set.of(4), PricingRuleParser.parse("when leadTime > 3 then -10%").leadTimeWindows());
+        assertEquals(Set.of(3, 4), PricingRuleParser.parse("when leadTime = 3 then +5%").leadTimeWindows());
+        assertEquals(Set.of(2, 15), PricingRuleParser.parse("when leadTime < 2 or leadTime >= 15 then +5%")
+                .leadTimeWindows());
+        assertEquals(Set.of(), PricingRuleParser.parse("when weekend then +15%").leadTimeWindows());
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        RuleCondition condition = PricingRuleParser.parse("when weekend or holiday and leadTime < 2 then +5%").condition();
+
+        assertTrue(condition.test(SATURDAY, false, 0, 30));
+        assertTrue(condition.test(FRIDAY, true, 0, 1));
+        assertFalse(condition.test(FRIDAY, true, 0, 30));
+    }
+
+    @Test
+    void notAndParentheses() {
+        RuleCondition condition = PricingRuleParser.parse("when not (weekend or holiday) and occupancy > 70% then +20%")
+                .condition();
+
+        assertTrue(condition.test(FRIDAY, false, 80, 0));
+        assertFalse(condition.test(SATURDAY, false, 80, 0));
+        assertFalse(condition.test(FRIDAY, true, 80, 0));
+        assertFalse(condition.test(FRIDAY, false, 60, 0));
+    }
+
+    @Test
+    void keywordsAreCaseInsensitive() {
+        CompiledPricingRule rule = PricingRuleParser.parse("WHEN Weekend AND LeadTime < 3 THEN +10%");
+
+        assertMultiplier("1.10", rule);
+        assertTrue(rule.condition().test(SUNDAY, false, 0, 2));
+    }
+
+    @Test
+    void rejectsInvalidRules() {
+        assertInvalid(null);
+        assertInvalid("  ");
+        assertInvalid("-150%");
+        assertInvalid("+15");
+        assertInvalid("when weekend +10%");
+        assertInvalid("when then +10%");
+        assertInvalid("when occupancy > then +10%");
+        assertInvalid("when occupancy ! 70 then +10%");
+        assertInvalid("when leadTime < 1.5 then +10%");
+        assertInvalid("when (weekend then +10%");
+        assertInvalid("when weekend then +10% extra");
+        assertInvalid("when weekend then +10$");
+        assertInvalid("when rain then +10%");
+        assertInvalid("floor");
+    }
+
+    private static boolean occupancy(String comparison, double occupancyPercent) {
+        return PricingRuleParser.parse("when occupancy " + comparison + " then +10%").condition()
+                .test(FRIDAY, false, occupancyPercent, 0);
+    }
+
+    private static void assertMultiplier(String expected, CompiledPricingRule rule) {
+        assertNull(rule.floor());
+        assertEquals(0, new BigDecimal(expected).compareTo(rule.multiplier()),
+                () -> "Expected multiplier " + expected + " but was " + rule.multiplier());
+    }
+
+    private static void assertInvalid(String rule) {
+        assertThrows(InvalidPricingRuleException.class, () -> PricingRuleParser.parse(rule), () -> "Accepted: " + rule);
+    }
+}